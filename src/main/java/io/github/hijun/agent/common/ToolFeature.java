@@ -0,0 +1,35 @@
+package io.github.hijun.agent.common;
+
+import io.github.hijun.agent.common.enums.AdditionalFeatures;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 工具所需的附加功能
+ * <p>
+ * 标注在 {@code @Tool} 方法或工具类上，只有请求开启了全部所列功能时该工具才对模型可见；
+ * 未标注的工具始终可用，方法上的标注优先于类上的标注
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 14:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ToolFeature {
+
+    /**
+     * Value
+     *
+     * @return additional features
+     * @since 1.0.0-SNAPSHOT
+     */
+    AdditionalFeatures[] value();
+}
@@ -0,0 +1,59 @@
+package io.github.hijun.agent.common;
+
+import io.github.hijun.agent.common.enums.ToolCacheScope;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 工具执行选项
+ * <p>
+ * 与 {@code @Tool} 一起标注在工具方法上，声明超时、并发隔离与结果缓存设置；
+ * 小于等于 0 的值表示使用 {@code agent.tools} 中的默认值，配置中针对单个工具的设置优先于注解
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 16:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ToolOptions {
+
+    /**
+     * 单次调用超时时间（毫秒）
+     *
+     * @return long
+     * @since 1.0.0-SNAPSHOT
+     */
+    long timeoutMillis() default -1;
+
+    /**
+     * 同时执行的最大调用数
+     *
+     * @return int
+     * @since 1.0.0-SNAPSHOT
+     */
+    int maxConcurrency() default -1;
+
+    /**
+     * 并发已满时等待执行许可的最长时间（毫秒）
+     *
+     * @return long
+     * @since 1.0.0-SNAPSHOT
+     */
+    long maxWaitMillis() default -1;
+
+    /**
+     * 结果缓存范围，只有相同参数多次调用结果不变（幂等）的工具才应开启
+     *
+     * @return tool cache scope
+     * @since 1.0.0-SNAPSHOT
+     */
+    ToolCacheScope cacheScope() default ToolCacheScope.NONE;
+}
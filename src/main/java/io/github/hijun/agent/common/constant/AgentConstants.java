@@ -1,5 +1,10 @@
 package io.github.hijun.agent.common.constant;
 
+import io.github.hijun.agent.entity.po.AgentChainNode;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * Agent常量定义
  *
@@ -108,7 +113,7 @@ public interface AgentConstants {
     /**
      * 智能体执行顺序常量。
      *
-     * <p>定义报告生成流程中智能体的执行顺序。</p>
+     * <p>定义报告生成流程中智能体的依赖关系。</p>
      */
     class AgentChain {
 
@@ -116,11 +121,32 @@ public interface AgentConstants {
          * 报告生成智能体链。
          *
          * <p>执行顺序：PlanningAgent -> DataCollectAgent -> ContentGenAgent</p>
+         *
+         * @deprecated 使用 {@link #REPORT_GRAPH} 代替
          */
-        public static final java.util.List<String> REPORT_CHAIN = java.util.List.of(
+        @Deprecated
+        public static final List<String> REPORT_CHAIN = List.of(
             AgentKeys.PLANNING_FULL,
             AgentKeys.DATA_COLLECT_FULL,
             AgentKeys.CONTENT_GEN_FULL
         );
+
+        /**
+         * 报告生成智能体 DAG。
+         *
+         * <p>plan -> data -> content，新增并行分支（如多个数据采集、与生成并行的审查）时
+         * 只需追加节点并声明其输入输出产物。</p>
+         */
+        public static final List<AgentChainNode> REPORT_GRAPH = List.of(
+            new AgentChainNode(AgentKeys.PLANNING_FULL,
+                Set.of(),
+                Set.of(FileConstants.FileType.PLAN)),
+            new AgentChainNode(AgentKeys.DATA_COLLECT_FULL,
+                Set.of(FileConstants.FileType.PLAN),
+                Set.of(FileConstants.FileType.DATA)),
+            new AgentChainNode(AgentKeys.CONTENT_GEN_FULL,
+                Set.of(FileConstants.FileType.PLAN, FileConstants.FileType.DATA),
+                Set.of(FileConstants.FileType.CONTENT))
+        );
     }
 }
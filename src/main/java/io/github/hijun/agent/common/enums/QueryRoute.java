@@ -0,0 +1,38 @@
+package io.github.hijun.agent.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 智能问答请求路由
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 14:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Getter
+@AllArgsConstructor
+public enum QueryRoute {
+
+    /**
+     * 直接回答
+     */
+    DIRECT("direct", "直接回答"),
+
+    /**
+     * 专家协作
+     */
+    EXPERT("expert", "专家协作");
+
+    /**
+     * code.
+     */
+    private final String code;
+
+    /**
+     * description.
+     */
+    private final String description;
+}
@@ -0,0 +1,43 @@
+package io.github.hijun.agent.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 编排器专家路由方式
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/21 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Getter
+@AllArgsConstructor
+public enum RoutingMode {
+
+    /**
+     * 提示词约定 JSON 格式，本地解析
+     */
+    JSON("json", "提示词约定 JSON"),
+
+    /**
+     * 提供商 JSON Schema 响应格式
+     */
+    JSON_SCHEMA("json_schema", "JSON Schema 响应格式"),
+
+    /**
+     * 每个专家注册为原生工具，从工具调用分片中解析
+     */
+    TOOL_CALL("tool_call", "原生工具调用");
+
+    /**
+     * code.
+     */
+    private final String code;
+
+    /**
+     * description.
+     */
+    private final String description;
+}
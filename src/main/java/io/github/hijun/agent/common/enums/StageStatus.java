@@ -0,0 +1,43 @@
+package io.github.hijun.agent.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 智能体链阶段状态
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 16:20
+ * @since 1.0.0-SNAPSHOT
+ */
+@Getter
+@AllArgsConstructor
+public enum StageStatus {
+
+    /**
+     * r u n n i n g.
+     */
+    RUNNING("running", "执行中"),
+
+    /**
+     * c o m p l e t e d.
+     */
+    COMPLETED("completed", "已完成"),
+
+    /**
+     * f a i l e d.
+     */
+    FAILED("failed", "失败");
+
+    /**
+     * code.
+     */
+    private final String code;
+
+    /**
+     * description.
+     */
+    private final String description;
+}
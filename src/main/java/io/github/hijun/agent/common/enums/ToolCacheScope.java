@@ -0,0 +1,43 @@
+package io.github.hijun.agent.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 工具结果缓存范围
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Getter
+@AllArgsConstructor
+public enum ToolCacheScope {
+
+    /**
+     * n o n e.
+     */
+    NONE("none", "不缓存"),
+
+    /**
+     * s e s s i o n.
+     */
+    SESSION("session", "会话内缓存"),
+
+    /**
+     * g l o b a l.
+     */
+    GLOBAL("global", "全局缓存");
+
+    /**
+     * code.
+     */
+    private final String code;
+
+    /**
+     * description.
+     */
+    private final String description;
+}
@@ -0,0 +1,38 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 智能体链执行配置
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 09:50
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = AgentChainProperties.PREFIX)
+public class AgentChainProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.chain";
+
+    /**
+     * 同时执行的智能体节点上限
+     */
+    private Integer parallelism = 4;
+
+    /**
+     * 等待执行的节点队列容量
+     */
+    private Integer queueCapacity = 200;
+
+    /**
+     * 是否启用检查点，启用后同一请求重试时跳过已完成且输入未变化的阶段
+     */
+    private Boolean checkpoint = true;
+}
@@ -1,5 +1,6 @@
 package io.github.hijun.agent.config;
 
+import io.github.hijun.agent.common.enums.RoutingMode;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -26,4 +27,14 @@ public class AgentProperties {
      * max step.
      */
     private Integer maxStep;
+
+    /**
+     * ReAct 模式下同一轮并行调用的专家数上限
+     */
+    private Integer expertParallelism = 4;
+
+    /**
+     * ReAct 模式下编排器选择专家的方式，提供商不支持 JSON Schema 或工具调用时使用 JSON
+     */
+    private RoutingMode routingMode = RoutingMode.JSON;
 }
@@ -0,0 +1,52 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 运行预算配置
+ * <p>
+ * 限制单次请求的运行时长、Token 用量与工具调用次数，预算即将耗尽时提前收尾并返回已有结果
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 09:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = BudgetProperties.PREFIX)
+public class BudgetProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.budget";
+
+    /**
+     * 是否启用预算
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 单次请求最长运行时间，从请求提交时开始计时（含同一会话内的排队时间），需小于 SSE 连接超时时间
+     */
+    private Duration maxDuration = Duration.ofSeconds(270);
+
+    /**
+     * 单次请求最多消耗的 Token 数
+     */
+    private Long maxTokens = 200_000L;
+
+    /**
+     * 单次请求最多执行的工具调用次数
+     */
+    private Integer maxToolCalls = 60;
+
+    /**
+     * 为收尾（总结、写入结果）预留的时间，剩余时间少于该值时停止新的步骤
+     */
+    private Duration reserve = Duration.ofSeconds(20);
+}
@@ -0,0 +1,45 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 内容生成配置
+ * <p>
+ * 按规划文件中的内容大纲拆分章节（PPT 每页一个章节），各章节并行生成后按大纲顺序输出
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 09:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = ContentGenProperties.PREFIX)
+public class ContentGenProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.content-gen";
+
+    /**
+     * 是否按章节并行生成，HTML 模式始终整体生成
+     */
+    private Boolean sectioned = true;
+
+    /**
+     * 同时生成的章节上限
+     */
+    private Integer parallelism = 4;
+
+    /**
+     * 最少章节数，大纲章节数少于该值时整体生成
+     */
+    private Integer minSections = 3;
+
+    /**
+     * 最多章节数，超出部分合并到最后一个章节
+     */
+    private Integer maxSections = 20;
+}
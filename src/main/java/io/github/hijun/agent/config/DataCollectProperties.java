@@ -0,0 +1,40 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 数据采集配置
+ * <p>
+ * 规划文件中的每条数据需求拆分为独立子任务，并行调用模型与工具采集
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 14:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = DataCollectProperties.PREFIX)
+public class DataCollectProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.data-collect";
+
+    /**
+     * 是否拆分数据需求并行采集
+     */
+    private Boolean fanOut = true;
+
+    /**
+     * 同时执行的采集子任务上限
+     */
+    private Integer parallelism = 4;
+
+    /**
+     * 单次请求最多拆分的子任务数，超出部分合并到最后一个子任务
+     */
+    private Integer maxSubTasks = 8;
+}
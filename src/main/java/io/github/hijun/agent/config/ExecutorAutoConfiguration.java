@@ -0,0 +1,158 @@
+package io.github.hijun.agent.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 线程池配置
+ * <p>
+ * 智能体运行相关的线程池统一在此声明，各线程池相互隔离，避免嵌套提交时互相占满导致死锁
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 09:55
+ * @since 1.0.0-SNAPSHOT
+ */
+@Configuration
+@EnableConfigurationProperties({AgentChainProperties.class, DataCollectProperties.class, ContentGenProperties.class,
+        SessionMemoryProperties.class, RunRegistryProperties.class, SchedulerProperties.class,
+        TranscriptProperties.class})
+public class ExecutorAutoConfiguration {
+
+    /**
+     * 智能体链节点执行线程池
+     *
+     * @param agentChainProperties agent chain properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor agentChainTaskExecutor(AgentChainProperties agentChainProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(agentChainProperties.getParallelism());
+        executor.setMaxPoolSize(agentChainProperties.getParallelism());
+        executor.setQueueCapacity(agentChainProperties.getQueueCapacity());
+        executor.setThreadNamePrefix("agent-chain-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 数据采集子任务执行线程池
+     * <p>
+     * 与智能体链线程池隔离：采集节点本身运行在链线程池中，子任务若提交回同一线程池可能互相等待
+     *
+     * @param dataCollectProperties data collect properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dataCollectExecutor(DataCollectProperties dataCollectProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(dataCollectProperties.getParallelism());
+        executor.setMaxPoolSize(dataCollectProperties.getParallelism());
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("data-collect-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 内容章节生成线程池
+     * <p>
+     * 与智能体链线程池隔离，原因同数据采集子任务线程池
+     *
+     * @param contentGenProperties content gen properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor contentGenExecutor(ContentGenProperties contentGenProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(contentGenProperties.getParallelism());
+        executor.setMaxPoolSize(contentGenProperties.getParallelism());
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("content-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 工具调用执行器
+     * <p>
+     * 工具调用以 IO 等待为主，每个调用使用一个虚拟线程，并发上限由各工具的隔离设置控制
+     *
+     * @return executor service
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService toolExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tool-call-", 0).factory());
+    }
+
+    /**
+     * ReAct 模式专家并行调用线程池
+     * <p>
+     * 编排器在请求线程中等待同一轮的全部专家返回，专家内部的工具调用不会再提交到该线程池
+     *
+     * @param agentProperties agent properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor expertCallExecutor(AgentProperties agentProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(agentProperties.getExpertParallelism());
+        executor.setMaxPoolSize(agentProperties.getExpertParallelism());
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("expert-call-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 对话运行线程池
+     * <p>
+     * 线程数与调度器的执行槽位一致，运行由调度器按加权公平顺序提交；调度关闭时按提交顺序排队
+     *
+     * @param schedulerProperties scheduler properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor agentRunExecutor(SchedulerProperties schedulerProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(schedulerProperties.getWorkers());
+        executor.setMaxPoolSize(schedulerProperties.getWorkers());
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("agent-run-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * 会话消息异步写入线程池
+     * <p>
+     * 单线程顺序写入，保证同一会话的消息按追加顺序落库；队列满时拒绝，由调用方丢弃并计数
+     *
+     * @param sessionMemoryProperties session memory properties
+     * @return thread pool task executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sessionMemoryWriter(SessionMemoryProperties sessionMemoryProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(sessionMemoryProperties.getWriteQueueCapacity());
+        executor.setThreadNamePrefix("session-memory-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
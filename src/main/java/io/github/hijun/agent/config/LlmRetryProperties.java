@@ -0,0 +1,58 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 模型流式调用重试配置
+ * <p>
+ * 上游连接在流式输出过程中断开时，按带抖动的指数退避重试；
+ * 已输出的文本作为续写前缀发送，模型只需生成剩余部分
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/15 14:05
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = LlmRetryProperties.PREFIX)
+public class LlmRetryProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.llm.retry";
+
+    /**
+     * 是否启用重试
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 最大尝试次数（含首次调用）
+     */
+    private Integer maxAttempts = 3;
+
+    /**
+     * 首次重试退避时间
+     */
+    private Duration initialBackoff = Duration.ofMillis(500);
+
+    /**
+     * 最大退避时间
+     */
+    private Duration maxBackoff = Duration.ofSeconds(8);
+
+    /**
+     * 抖动比例，取值 0-1，实际退避时间在 [backoff * (1 - jitter), backoff] 之间随机
+     */
+    private Double jitter = 0.5;
+
+    /**
+     * 是否在重试时携带已输出内容进行续写
+     */
+    private Boolean resume = true;
+}
@@ -0,0 +1,50 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 循环检测配置
+ * <p>
+ * 智能体在最近若干步内重复相同的工具调用或输出几乎相同的内容时，先注入纠正提示，仍重复则提前结束
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 14:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = LoopDetectProperties.PREFIX)
+public class LoopDetectProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.loop-detect";
+
+    /**
+     * 是否启用循环检测
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 检测窗口（最近的步数）
+     */
+    private Integer window = 6;
+
+    /**
+     * 窗口内相同工具调用或相似输出出现的次数达到该值时判定为循环
+     */
+    private Integer maxRepeats = 3;
+
+    /**
+     * 输出相似度阈值，取值 0-1
+     */
+    private Double similarity = 0.9;
+
+    /**
+     * 判定为循环后注入纠正提示的最大次数，超出后结束运行
+     */
+    private Integer maxNudges = 1;
+}
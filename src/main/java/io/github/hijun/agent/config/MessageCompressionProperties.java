@@ -0,0 +1,40 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 消息压缩配置
+ * <p>
+ * 上下文中超过阈值的工具响应与助手消息压缩保存，构建提示词时再解压
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/23 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = MessageCompressionProperties.PREFIX)
+public class MessageCompressionProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.message-compression";
+
+    /**
+     * 是否启用消息压缩
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 压缩阈值（字符数），内容不少于该长度的消息才压缩
+     */
+    private Integer threshold = 4096;
+
+    /**
+     * Deflate 压缩级别，取值 1-9，越小越快
+     */
+    private Integer level = 1;
+}
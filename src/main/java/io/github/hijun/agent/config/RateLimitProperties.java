@@ -0,0 +1,63 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 模型调用限流配置
+ * <p>
+ * 按模型提供商配置（ModelProviderConfig）维度做客户端 RPM/TPM 令牌桶限流，
+ * 提供商未单独配置 rpm_limit/tpm_limit 时使用此处的默认值
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/15 10:12
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = RateLimitProperties.PREFIX)
+public class RateLimitProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.rate-limit";
+
+    /**
+     * 是否启用限流
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 默认每分钟请求数上限
+     */
+    private Integer requestsPerMinute = 60;
+
+    /**
+     * 默认每分钟Token数上限
+     */
+    private Integer tokensPerMinute = 100_000;
+
+    /**
+     * 单次调用预估的生成Token数，调用结束后按实际用量校正
+     */
+    private Integer completionTokens = 1024;
+
+    /**
+     * 预计排队时间超过该值时向前端推送等待提示
+     */
+    private Duration notifyThreshold = Duration.ofSeconds(1);
+
+    /**
+     * 最长排队时间，超过后放弃本次调用
+     */
+    private Duration maxWait = Duration.ofMinutes(2);
+
+    /**
+     * 提供商限额的刷新间隔，配置修改后在该间隔内生效
+     */
+    private Duration quotaRefreshInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,52 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 智能问答路由配置
+ * <p>
+ * 简单的对话类问题不进入 ReAct 编排，直接流式回答；先按本地规则判断，
+ * 规则无法确定时可选使用模型分类
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 14:05
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = RouterProperties.PREFIX)
+public class RouterProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.router";
+
+    /**
+     * 是否启用路由，关闭时全部进入 ReAct 编排
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 规则无法确定时是否调用模型分类，关闭时按专家协作处理
+     */
+    private Boolean classifier = false;
+
+    /**
+     * 直接回答的最大问题长度，超过该长度交给分类或专家协作
+     */
+    private Integer maxDirectLength = 50;
+
+    /**
+     * 需要专家协作的关键词，问题包含任一关键词时进入 ReAct 编排
+     */
+    private List<String> expertKeywords = new ArrayList<>(List.of(
+            "搜索", "查询", "查一下", "检索", "最新", "今天", "实时", "天气", "新闻", "股价", "行情",
+            "数据", "统计", "文件", "文档", "报告", "分析", "调研", "对比", "生成", "制作",
+            "网页", "链接", "下载", "执行", "运行", "代码", "计算", "http"));
+}
@@ -0,0 +1,47 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 对话运行登记配置
+ * <p>
+ * 同一 requestId 的重复请求附加到已有运行的输出，同一 sessionId 的请求按提交顺序依次执行
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = RunRegistryProperties.PREFIX)
+public class RunRegistryProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.run";
+
+    /**
+     * 是否启用去重与会话串行
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 每个运行缓存的消息数上限，后加入的重复请求先回放缓存的消息；超出时保留开头与最近的消息各一半
+     */
+    private Integer replayLimit = 2000;
+
+    /**
+     * 运行成功结束后保留的时间，期间同一 requestId 的请求直接回放结果；异常结束的运行不保留
+     */
+    private Duration retention = Duration.ofMinutes(5);
+
+    /**
+     * 同一会话排队等待的请求数上限，不含执行中的运行，即同一会话最多登记该值 + 1 个运行
+     */
+    private Integer maxQueuedPerSession = 5;
+}
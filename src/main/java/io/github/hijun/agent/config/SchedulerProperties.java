@@ -0,0 +1,61 @@
+package io.github.hijun.agent.config;
+
+import io.github.hijun.agent.common.enums.ChatMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 对话运行调度配置
+ * <p>
+ * 按 {@link ChatMode} 划分通道，通道之间按权重分配执行槽位；同一通道内按租户加权公平排队，
+ * 单个租户的大批量请求不会阻塞其他租户
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = SchedulerProperties.PREFIX)
+public class SchedulerProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.scheduler";
+
+    /**
+     * 是否启用加权公平调度，关闭时按提交顺序执行
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 同时执行的运行数
+     */
+    private Integer workers = 16;
+
+    /**
+     * 租户标识请求头，缺失时使用客户端地址
+     */
+    private String tenantHeader = "X-Tenant-Id";
+
+    /**
+     * 通道权重，未配置的通道权重为 1
+     */
+    private Map<ChatMode, Integer> laneWeights = new EnumMap<>(Map.of(
+            ChatMode.CHAT, 8,
+            ChatMode.MARKDOWN, 2,
+            ChatMode.HTML, 2,
+            ChatMode.PPT, 1,
+            ChatMode.REPORT, 1));
+
+    /**
+     * 租户权重，未配置的租户权重为 1
+     */
+    private Map<String, Integer> tenantWeights = new HashMap<>();
+}
@@ -0,0 +1,63 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 会话记忆配置
+ * <p>
+ * 同一 sessionId 的多轮对话共享历史消息：内存层按 LRU 与空闲时间淘汰并限制总占用，
+ * 数据库层异步写入，内存未命中时从数据库加载
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 14:10
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = SessionMemoryProperties.PREFIX)
+public class SessionMemoryProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.session-memory";
+
+    /**
+     * 是否启用会话记忆
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 内存中最多保留的会话数
+     */
+    private Integer maxSessions = 1000;
+
+    /**
+     * 每个会话最多保留的历史消息数
+     */
+    private Integer maxMessages = 10;
+
+    /**
+     * 会话空闲超过该时间后从内存中淘汰
+     */
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * 内存层最大占用（按消息文本估算的字节数）
+     */
+    private Long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 是否持久化到数据库
+     */
+    private Boolean persist = true;
+
+    /**
+     * 异步写入队列容量，队列满时丢弃写入并计数
+     */
+    private Integer writeQueueCapacity = 1000;
+}
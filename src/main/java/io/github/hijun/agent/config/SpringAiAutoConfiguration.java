@@ -1,5 +1,6 @@
 package io.github.hijun.agent.config;
 
+import io.github.hijun.agent.entity.po.MessageCompressor;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -19,7 +20,9 @@ import org.springframework.context.annotation.Configuration;
  * @since 3.4.3
  */
 @Configuration
-@EnableConfigurationProperties(AgentProperties.class)
+@EnableConfigurationProperties({AgentProperties.class, RateLimitProperties.class, LlmRetryProperties.class, ToolProperties.class,
+        LoopDetectProperties.class, BudgetProperties.class, RouterProperties.class,
+        MessageCompressionProperties.class})
 public class SpringAiAutoConfiguration {
 
     /**
@@ -36,4 +39,19 @@ public class SpringAiAutoConfiguration {
     public ChatClient chatClient(OpenAiChatModel openAiChatModel) {
         return ChatClient.builder(openAiChatModel).build();
     }
+
+    /**
+     * 上下文消息压缩器，所有请求共享以汇总压缩统计
+     *
+     * @param messageCompressionProperties message compression properties
+     * @return message compressor
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Bean
+    public MessageCompressor messageCompressor(MessageCompressionProperties messageCompressionProperties) {
+        if (!Boolean.TRUE.equals(messageCompressionProperties.getEnabled())) {
+            return MessageCompressor.NONE;
+        }
+        return new MessageCompressor(messageCompressionProperties.getThreshold(), messageCompressionProperties.getLevel());
+    }
 }
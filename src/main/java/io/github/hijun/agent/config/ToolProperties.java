@@ -0,0 +1,105 @@
+package io.github.hijun.agent.config;
+
+import io.github.hijun.agent.common.enums.AdditionalFeatures;
+import io.github.hijun.agent.common.enums.ToolCacheScope;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工具配置
+ * <p>
+ * 无法在代码中标注的工具（如 MCP 工具）通过配置声明其所需的附加功能，以及工具执行的超时、并发隔离与结果缓存设置
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 14:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = ToolProperties.PREFIX)
+public class ToolProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.tools";
+
+    /**
+     * 工具所需的附加功能，Key: 工具名称，覆盖 {@link io.github.hijun.agent.common.ToolFeature} 标注
+     */
+    private Map<String, List<AdditionalFeatures>> features = new LinkedHashMap<>();
+
+    /**
+     * 默认单次调用超时时间
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 默认单个工具同时执行的最大调用数
+     */
+    private Integer defaultMaxConcurrency = 16;
+
+    /**
+     * 默认并发已满时等待执行许可的最长时间
+     */
+    private Duration defaultMaxWait = Duration.ofSeconds(5);
+
+    /**
+     * 单个工具的执行设置，Key: 工具名称，覆盖 {@link io.github.hijun.agent.common.ToolOptions} 标注
+     */
+    private Map<String, ToolLimit> limits = new LinkedHashMap<>();
+
+    /**
+     * 会话范围缓存的有效期
+     */
+    private Duration sessionCacheTtl = Duration.ofMinutes(30);
+
+    /**
+     * 全局范围缓存的有效期
+     */
+    private Duration globalCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * 缓存最大条目数
+     */
+    private Integer cacheMaxEntries = 2000;
+
+    /**
+     * 工具执行设置
+     *
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 16:00
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Data
+    public static class ToolLimit {
+
+        /**
+         * 单次调用超时时间
+         */
+        private Duration timeout;
+
+        /**
+         * 同时执行的最大调用数
+         */
+        private Integer maxConcurrency;
+
+        /**
+         * 并发已满时等待执行许可的最长时间
+         */
+        private Duration maxWait;
+
+        /**
+         * 结果缓存范围
+         */
+        private ToolCacheScope cacheScope;
+    }
+}
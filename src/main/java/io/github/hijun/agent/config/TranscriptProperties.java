@@ -0,0 +1,40 @@
+package io.github.hijun.agent.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 会话记录文件配置
+ * <p>
+ * 会话历史以只追加的内存映射分段文件保存在 {storagePath}/transcripts/ 下，堆内只保留每个会话的记录偏移
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/23 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@ConfigurationProperties(prefix = TranscriptProperties.PREFIX)
+public class TranscriptProperties {
+
+    /**
+     * p r e f i x.
+     */
+    public static final String PREFIX = "agent.transcript";
+
+    /**
+     * 是否启用，关闭或文件打开失败时会话历史保存在堆内
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 单个分段文件大小（字节）
+     */
+    private Integer segmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * 最多保留的分段数，超出时删除最早的分段，其中的会话记录回退为从数据库加载
+     */
+    private Integer maxSegments = 16;
+}
@@ -0,0 +1,57 @@
+package io.github.hijun.agent.controller;
+
+import io.github.hijun.agent.entity.dto.AgentInfoDTO;
+import io.github.hijun.agent.service.strategy.AgentManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 智能体控制器
+ * <p>
+ * 提供智能体注册表查询与刷新接口
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 11:10
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/agents")
+@RequiredArgsConstructor
+public class AgentController {
+
+    /**
+     * agent manager.
+     */
+    private final AgentManager agentManager;
+
+    /**
+     * 获取已注册的智能体列表
+     *
+     * @return 智能体信息列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping
+    public List<AgentInfoDTO> listAgents() {
+        return this.agentManager.listAgents();
+    }
+
+    /**
+     * 重新构建智能体注册表
+     *
+     * @return 重建后的智能体信息列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    @PostMapping("/refresh")
+    public List<AgentInfoDTO> refresh() {
+        return this.agentManager.refresh();
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.hijun.agent.controller;
 
+import io.github.hijun.agent.config.SchedulerProperties;
 import io.github.hijun.agent.entity.req.ChatRequest;
 import io.github.hijun.agent.service.ModelService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -32,15 +35,22 @@ public class ChatController {
      */
     private final ModelService modelService;
 
+    /**
+     * 调度配置
+     */
+    private final SchedulerProperties schedulerProperties;
+
     /**
      * 聊天接口（SSE流式返回）
      *
-     * @param request 聊天请求
+     * @param request     聊天请求
+     * @param httpRequest http request
      * @return SSE流
      * @since 3.4.3
      */
     @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter chat(@Valid @RequestBody ChatRequest request) {
-        return this.modelService.agent(request);
+    public SseEmitter chat(@Valid @RequestBody ChatRequest request, HttpServletRequest httpRequest) {
+        String tenant = httpRequest.getHeader(this.schedulerProperties.getTenantHeader());
+        return this.modelService.agent(request, StringUtils.hasText(tenant) ? tenant : httpRequest.getRemoteAddr());
     }
 }
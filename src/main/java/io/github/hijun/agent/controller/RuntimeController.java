@@ -0,0 +1,137 @@
+package io.github.hijun.agent.controller;
+
+import io.github.hijun.agent.entity.po.MessageCompressor;
+import io.github.hijun.agent.service.AgentRunScheduler;
+import io.github.hijun.agent.service.RunRegistry;
+import io.github.hijun.agent.service.SessionMemoryStore;
+import io.github.hijun.agent.service.TranscriptStore;
+import io.github.hijun.agent.utils.JsonRepair;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 运行状态控制器
+ * <p>
+ * 提供会话记忆、会话记录文件、对话运行与调度、消息压缩、模型输出修复等运行时组件的统计与管理接口
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/runtime")
+@RequiredArgsConstructor
+public class RuntimeController {
+
+    /**
+     * 会话记忆
+     */
+    private final SessionMemoryStore sessionMemoryStore;
+
+    /**
+     * 对话运行登记
+     */
+    private final RunRegistry runRegistry;
+
+    /**
+     * 对话运行调度器
+     */
+    private final AgentRunScheduler agentRunScheduler;
+
+    /**
+     * 消息压缩器
+     */
+    private final MessageCompressor messageCompressor;
+
+    /**
+     * 会话记录存储
+     */
+    private final TranscriptStore transcriptStore;
+
+    /**
+     * 获取会话记忆统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/session-memory")
+    public SessionMemoryStore.Stats sessionMemoryStats() {
+        return this.sessionMemoryStore.stats();
+    }
+
+    /**
+     * 从内存中移除会话，下次访问时从数据库重新加载
+     *
+     * @param sessionId 会话ID
+     * @since 1.0.0-SNAPSHOT
+     */
+    @DeleteMapping("/session-memory/{sessionId}")
+    public void evictSession(@PathVariable String sessionId) {
+        this.sessionMemoryStore.evict(sessionId);
+    }
+
+    /**
+     * 获取对话运行统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/runs")
+    public RunRegistry.Stats runStats() {
+        return this.runRegistry.stats();
+    }
+
+    /**
+     * 获取对话运行调度统计，包括各通道的排队时间与吞吐
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/scheduler")
+    public AgentRunScheduler.Stats schedulerStats() {
+        return this.agentRunScheduler.stats();
+    }
+
+    /**
+     * 获取上下文消息压缩统计，包括压缩比与节省的字节数
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/message-compression")
+    public MessageCompressor.Stats messageCompressionStats() {
+        return this.messageCompressor.stats();
+    }
+
+    /**
+     * 获取会话记录文件统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/transcripts")
+    public TranscriptStore.Stats transcriptStats() {
+        return this.transcriptStore.stats();
+    }
+
+    /**
+     * 获取模型输出 JSON 修复统计
+     *
+     * @return 各类修复的触发次数
+     * @since 1.0.0-SNAPSHOT
+     */
+    @GetMapping("/json-repair")
+    public Map<JsonRepair.Repair, Long> jsonRepairStats() {
+        return JsonRepair.stats();
+    }
+}
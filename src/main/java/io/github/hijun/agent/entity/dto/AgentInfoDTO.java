@@ -0,0 +1,54 @@
+package io.github.hijun.agent.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 智能体信息 DTO
+ * <p>
+ * 智能体注册表中单个智能体的元数据
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 11:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentInfoDTO {
+
+    /**
+     * 智能体ID
+     */
+    private String id;
+
+    /**
+     * 智能体名称
+     */
+    private String name;
+
+    /**
+     * 完整标识（{id}_{name}）
+     */
+    private String key;
+
+    /**
+     * 智能体描述
+     */
+    private String description;
+
+    /**
+     * Bean 名称
+     */
+    private String beanName;
+
+    /**
+     * 实现类
+     */
+    private String type;
+}
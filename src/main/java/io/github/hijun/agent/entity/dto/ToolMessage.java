@@ -41,4 +41,14 @@ public class ToolMessage extends SseMessage {
      * result.
      */
     private String result;
+
+    /**
+     * 调用耗时（毫秒），调用开始消息中为空
+     */
+    private Long duration;
+
+    /**
+     * 结果是否来自缓存
+     */
+    private Boolean cached;
 }
@@ -0,0 +1,139 @@
+package io.github.hijun.agent.entity.po;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 运行预算
+ * <p>
+ * 一次请求内的编排器与所有子智能体共享同一个预算对象，计数均为线程安全
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 09:35
+ * @since 1.0.0-SNAPSHOT
+ */
+public class AgentBudget {
+
+    /**
+     * 截止时间（毫秒时间戳）
+     */
+    private final long deadline;
+
+    /**
+     * 最多消耗的 Token 数
+     */
+    private final long maxTokens;
+
+    /**
+     * 最多执行的工具调用次数
+     */
+    private final int maxToolCalls;
+
+    /**
+     * 收尾预留时间（毫秒）
+     */
+    private final long reserveMillis;
+
+    /**
+     * 已消耗的 Token 数
+     */
+    private final AtomicLong usedTokens = new AtomicLong();
+
+    /**
+     * 已执行的工具调用次数
+     */
+    private final AtomicInteger usedToolCalls = new AtomicInteger();
+
+    /**
+     * Agent Budget
+     *
+     * @param startedAt    计时起点（毫秒时间戳）
+     * @param maxDuration  最长运行时间
+     * @param maxTokens    最多消耗的 Token 数
+     * @param maxToolCalls 最多执行的工具调用次数
+     * @param reserve      收尾预留时间
+     * @since 1.0.0-SNAPSHOT
+     */
+    public AgentBudget(long startedAt, Duration maxDuration, long maxTokens, int maxToolCalls, Duration reserve) {
+        this.deadline = startedAt + maxDuration.toMillis();
+        this.maxTokens = maxTokens;
+        this.maxToolCalls = maxToolCalls;
+        this.reserveMillis = reserve.toMillis();
+    }
+
+    /**
+     * 剩余时间
+     *
+     * @return 剩余时间，已超时返回 {@link Duration#ZERO}
+     * @since 1.0.0-SNAPSHOT
+     */
+    public Duration remaining() {
+        return Duration.ofMillis(Math.max(0L, this.deadline - System.currentTimeMillis()));
+    }
+
+    /**
+     * 记录 Token 消耗
+     *
+     * @param tokens Token 数
+     * @since 1.0.0-SNAPSHOT
+     */
+    public void addTokens(long tokens) {
+        if (tokens > 0) {
+            this.usedTokens.addAndGet(tokens);
+        }
+    }
+
+    /**
+     * 记录工具调用
+     *
+     * @param count 调用次数
+     * @since 1.0.0-SNAPSHOT
+     */
+    public void addToolCalls(int count) {
+        if (count > 0) {
+            this.usedToolCalls.addAndGet(count);
+        }
+    }
+
+    /**
+     * 判断是否应当停止新的步骤并开始收尾
+     *
+     * @return 需要收尾的原因，无需收尾时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    public String wrapUpReason() {
+        if (this.deadline - System.currentTimeMillis() < this.reserveMillis) {
+            return "运行时间即将用完";
+        }
+        if (this.usedTokens.get() >= this.maxTokens) {
+            return "Token 用量已达上限";
+        }
+        if (this.usedToolCalls.get() >= this.maxToolCalls) {
+            return "工具调用次数已达上限";
+        }
+        return null;
+    }
+
+    /**
+     * 已消耗的 Token 数
+     *
+     * @return long
+     * @since 1.0.0-SNAPSHOT
+     */
+    public long getUsedTokens() {
+        return this.usedTokens.get();
+    }
+
+    /**
+     * 已执行的工具调用次数
+     *
+     * @return int
+     * @since 1.0.0-SNAPSHOT
+     */
+    public int getUsedToolCalls() {
+        return this.usedToolCalls.get();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.hijun.agent.entity.po;
+
+import java.util.Set;
+
+/**
+ * 智能体链节点定义。
+ *
+ * <p>智能体链以有向无环图（DAG）描述：每个节点声明自己读取的输入产物与生成的输出产物，
+ * 产物名称使用 {@link io.github.hijun.agent.common.constant.FileConstants.FileType} 常量。
+ * 节点的全部输入就绪后即可开始执行，互不依赖的节点并行执行。</p>
+ *
+ * @param agentKey 智能体完整键（{AgentId}_{AgentName}）
+ * @param inputs   输入产物
+ * @param outputs  输出产物
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 09:40
+ * @since 1.0.0-SNAPSHOT
+ */
+public record AgentChainNode(String agentKey, Set<String> inputs, Set<String> outputs) {
+
+    /**
+     * Agent Chain Node
+     *
+     * @param agentKey agent key
+     * @param inputs   inputs
+     * @param outputs  outputs
+     * @since 1.0.0-SNAPSHOT
+     */
+    public AgentChainNode {
+        inputs = inputs == null ? Set.of() : Set.copyOf(inputs);
+        outputs = outputs == null ? Set.of() : Set.copyOf(outputs);
+    }
+}
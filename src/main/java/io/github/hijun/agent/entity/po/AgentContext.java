@@ -9,17 +9,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
-import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Agent Context
@@ -52,6 +54,11 @@ public class AgentContext {
      */
     private ChatMode chatMode;
 
+    /**
+     * 模型提供商配置ID，用于模型调用限流
+     */
+    private String modelProvider;
+
     /**
      * 当前运行状态中智能体的状态
      */
@@ -80,12 +87,10 @@ public class AgentContext {
 
 
     /**
-     * chat memory.
+     * 消息日志
      */
     @Builder.Default
-    private ChatMemory chatMemory = MessageWindowChatMemory.builder()
-            .chatMemoryRepository(new InMemoryChatMemoryRepository())
-            .build();
+    private MessageLog messageLog = new MessageLog();
 
     /**
      * 观测待调用工具
@@ -94,16 +99,55 @@ public class AgentContext {
     private List<AssistantMessage.ToolCall> observeTools = new LinkedList<>();
 
 
+    /**
+     * 已提前提交执行的工具调用，Key: 工具调用 id
+     * <p>
+     * 模型输出过程中已完整的工具调用会先行执行，行动阶段直接等待结果
+     */
+    @Builder.Default
+    private Map<String, CompletableFuture<ToolResponse>> inflightTools = new ConcurrentHashMap<>();
+
+    /**
+     * 循环检测器，每个上下文独立
+     */
+    @Builder.Default
+    private LoopDetector loopDetector = new LoopDetector();
+
+    /**
+     * 会话产物
+     * <p>
+     * Key: 产物类型（plan/data/content），Value: 文件路径，并行执行的智能体共享同一份
+     */
+    @Builder.Default
+    private Map<String, String> artifacts = new ConcurrentHashMap<>();
+
+    /**
+     * 运行预算，为空表示不限制
+     * <p>
+     * 编排器与所有子智能体共享同一份，子智能体的消耗计入整个请求
+     */
+    private AgentBudget budget;
+
     /**
      * 当前对话可用的模型
      */
     private List<ToolCallback> toolCallbacks;
 
+    /**
+     * 当前对话可用工具的名称索引，与 toolCallbacks 对应
+     */
+    private Map<String, ToolCallback> toolCallbackIndex;
+
     /**
      * sse emitter.
      */
     private SseEmitter sseEmitter;
 
+    /**
+     * 是否为子智能体上下文，子上下文不关闭共享的 SSE 连接
+     */
+    private boolean forked;
+
 
     /**
      * Update Memory
@@ -112,7 +156,7 @@ public class AgentContext {
      * @since 3.4.3
      */
     public void updateMemory(List<Message> memory) {
-        this.chatMemory.add(this.sessionId, memory);
+        this.messageLog.appendAll(memory);
     }
 
     /**
@@ -122,17 +166,29 @@ public class AgentContext {
      * @since 3.4.3
      */
     public void updateMemory(Message memory) {
-        this.chatMemory.add(this.sessionId, memory);
+        this.messageLog.append(memory);
     }
 
     /**
      * Get Memory
+     * <p>
+     * 返回提示词窗口内消息的只读快照，需要追加消息时复制后再修改
      *
      * @return list
      * @since 1.0.0-SNAPSHOT
      */
     public List<Message> getMemory() {
-        return this.chatMemory.get(this.sessionId);
+        return this.messageLog.window();
+    }
+
+    /**
+     * 最后一条消息
+     *
+     * @return 最后一条消息，无消息时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    public Message lastMessage() {
+        return this.messageLog.last();
     }
 
     /**
@@ -142,12 +198,7 @@ public class AgentContext {
      * @since 3.4.3
      */
     public boolean lastMessageIsUser() {
-        List<Message> messages = this.chatMemory.get(this.sessionId);
-        if (CollUtil.isEmpty(messages)) {
-            return false;
-        }
-        Message lastMessage = messages.get(messages.size() - 1);
-        return lastMessage.getMessageType() == MessageType.USER;
+        return this.messageLog.lastType() == MessageType.USER;
     }
 
     /**
@@ -174,6 +225,29 @@ public class AgentContext {
         }
     }
 
+    /**
+     * 按名称查找当前对话可用的工具
+     *
+     * @param toolName 工具名称
+     * @return 工具回调，不存在时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    public ToolCallback resolveTool(String toolName) {
+        if (toolName == null) {
+            return null;
+        }
+        if (this.toolCallbackIndex != null) {
+            return this.toolCallbackIndex.get(toolName);
+        }
+        if (this.toolCallbacks == null) {
+            return null;
+        }
+        return this.toolCallbacks.stream()
+                .filter(callback -> toolName.equals(callback.getToolDefinition().name()))
+                .findFirst()
+                .orElse(null);
+    }
+
     /**
      * Has Tools
      *
@@ -184,12 +258,47 @@ public class AgentContext {
         return CollUtil.isNotEmpty(this.observeTools);
     }
 
+    /**
+     * 创建子智能体上下文
+     * <p>
+     * 请求级字段、工具、预算与 SSE 连接按引用共享；会话产物以只读视图共享；
+     * 消息日志以选中的父级消息作为只读前缀，子智能体写入的消息不影响父级
+     *
+     * @param task      子智能体任务
+     * @param inherited 继承的父级消息
+     * @return 子智能体上下文
+     * @since 1.0.0-SNAPSHOT
+     */
+    public AgentContext fork(String task, List<Message> inherited) {
+        return AgentContext.builder()
+                .sessionId(this.sessionId)
+                .requestId(this.requestId)
+                .chatMode(this.chatMode)
+                .modelProvider(this.modelProvider)
+                .userQuery(task)
+                .userPrompt(this.userPrompt)
+                .userUploadFiles(this.userUploadFiles)
+                .messageLog(this.messageLog.fork(inherited))
+                .artifacts(Collections.unmodifiableMap(this.artifacts))
+                .toolCallbacks(this.toolCallbacks)
+                .toolCallbackIndex(this.toolCallbackIndex)
+                .budget(this.budget)
+                .sseEmitter(this.sseEmitter)
+                .forked(true)
+                .build();
+    }
+
     /**
      * Complete
+     * <p>
+     * 子智能体上下文不关闭共享的 SSE 连接，由编排器在整个请求结束时关闭
      *
      * @since 1.0.0-SNAPSHOT
      */
     public void complete() {
+        if (this.forked) {
+            return;
+        }
         this.sseEmitter.complete();
     }
 }
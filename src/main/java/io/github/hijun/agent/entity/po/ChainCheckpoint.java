@@ -0,0 +1,71 @@
+package io.github.hijun.agent.entity.po;
+
+import io.github.hijun.agent.common.enums.StageStatus;
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 智能体链检查点
+ * <p>
+ * 保存在会话目录的 checkpoint.json 中，记录每个阶段的输入摘要、输出文件与执行状态，
+ * 同一请求重试时跳过输入未变化且已完成的阶段
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 16:20
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+public class ChainCheckpoint {
+
+    /**
+     * 请求id
+     */
+    private String requestId;
+
+    /**
+     * 各阶段检查点，Key: 智能体标识
+     */
+    private Map<String, Stage> stages = new LinkedHashMap<>();
+
+    /**
+     * 阶段检查点
+     *
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/16 16:20
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Data
+    public static class Stage {
+
+        /**
+         * 智能体标识
+         */
+        private String agentKey;
+
+        /**
+         * 输入摘要（SHA-256）
+         */
+        private String inputHash;
+
+        /**
+         * 输出文件路径
+         */
+        private String outputPath;
+
+        /**
+         * 阶段状态
+         */
+        private StageStatus status;
+
+        /**
+         * 更新时间（毫秒时间戳）
+         */
+        private Long updateTime;
+    }
+}
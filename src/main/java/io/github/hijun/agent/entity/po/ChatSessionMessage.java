@@ -0,0 +1,53 @@
+package io.github.hijun.agent.entity.po;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 会话消息实体
+ * <p>
+ * 对应数据库表 chat_session_message，保存每轮对话的用户问题与最终回答
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 14:15
+ * @since 1.0.0-SNAPSHOT
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("chat_session_message")
+public class ChatSessionMessage extends BasePo {
+
+    /**
+     * 会话ID
+     */
+    @TableField("session_id")
+    private String sessionId;
+
+    /**
+     * 请求ID
+     */
+    @TableField("request_id")
+    private String requestId;
+
+    /**
+     * 消息类型
+     * <p>
+     * 取值为 {@link org.springframework.ai.chat.messages.MessageType} 的名称，仅保存 USER 与 ASSISTANT
+     */
+    @TableField("message_type")
+    private String messageType;
+
+    /**
+     * 消息内容
+     */
+    @TableField("content")
+    private String content;
+}
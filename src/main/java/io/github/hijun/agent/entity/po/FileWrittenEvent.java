@@ -0,0 +1,17 @@
+package io.github.hijun.agent.entity.po;
+
+/**
+ * 文件写入事件
+ * <p>
+ * 文件工具写入文件后发布，用于失效读取该文件的工具结果缓存
+ *
+ * @param fullPath     文件完整路径
+ * @param relativePath 相对于存储路径的路径
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 10:05
+ * @since 1.0.0-SNAPSHOT
+ */
+public record FileWrittenEvent(String fullPath, String relativePath) {
+}
@@ -0,0 +1,178 @@
+package io.github.hijun.agent.entity.po;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 循环检测器
+ * <p>
+ * 记录智能体最近若干步的工具调用签名与输出文本，工具名称与参数完全相同，
+ * 或输出文本的字符三元组 Jaccard 相似度达到阈值，均视为一次重复
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 14:05
+ * @since 1.0.0-SNAPSHOT
+ */
+public class LoopDetector {
+
+    /**
+     * 参与相似度比较的最短文本长度
+     */
+    private static final int MIN_TEXT_LENGTH = 20;
+
+    /**
+     * 最近的工具调用签名
+     */
+    private final Deque<String> toolSignatures = new ArrayDeque<>();
+
+    /**
+     * 最近的输出文本三元组
+     */
+    private final Deque<Set<String>> textShingles = new ArrayDeque<>();
+
+    /**
+     * 已注入纠正提示的次数
+     */
+    private int nudges;
+
+    /**
+     * 记录一步的工具调用与输出文本并给出判定
+     *
+     * @param toolCalls  本步的工具调用
+     * @param text       本步的输出文本
+     * @param window     检测窗口
+     * @param maxRepeats 判定为循环的重复次数
+     * @param similarity 文本相似度阈值
+     * @param maxNudges  纠正提示的最大次数
+     * @return 判定结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized Verdict record(List<AssistantMessage.ToolCall> toolCalls,
+                                       String text,
+                                       int window,
+                                       int maxRepeats,
+                                       double similarity,
+                                       int maxNudges) {
+        int repeats = 0;
+        if (toolCalls != null && !toolCalls.isEmpty()) {
+            String signature = signature(toolCalls);
+            repeats = 1 + (int) this.toolSignatures.stream().filter(signature::equals).count();
+            push(this.toolSignatures, signature, window);
+        }
+        if (StringUtils.hasText(text) && text.strip().length() >= MIN_TEXT_LENGTH) {
+            Set<String> shingles = shingles(text);
+            int textRepeats = 1 + (int) this.textShingles.stream()
+                    .filter(previous -> jaccard(previous, shingles) >= similarity)
+                    .count();
+            repeats = Math.max(repeats, textRepeats);
+            push(this.textShingles, shingles, window);
+        }
+        if (repeats < maxRepeats) {
+            return Verdict.NONE;
+        }
+        if (this.nudges < maxNudges) {
+            this.nudges++;
+            return Verdict.NUDGE;
+        }
+        return Verdict.STOP;
+    }
+
+    /**
+     * 工具调用签名，与调用顺序无关
+     *
+     * @param toolCalls 工具调用
+     * @return 签名
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static String signature(List<AssistantMessage.ToolCall> toolCalls) {
+        return String.join(";", toolCalls.stream()
+                .map(toolCall -> toolCall.name() + "(" + StringUtils.trimAllWhitespace(String.valueOf(toolCall.arguments())) + ")")
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * 文本的字符三元组集合，忽略空白
+     *
+     * @param text 文本
+     * @return 三元组集合
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static Set<String> shingles(String text) {
+        String normalized = StringUtils.trimAllWhitespace(text).toLowerCase();
+        Set<String> shingles = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + 3));
+        }
+        return shingles;
+    }
+
+    /**
+     * Jaccard 相似度
+     *
+     * @param left  left
+     * @param right right
+     * @return 相似度
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static double jaccard(Set<String> left, Set<String> right) {
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0D;
+        }
+        Set<String> smaller = left.size() <= right.size() ? left : right;
+        Set<String> larger = smaller == left ? right : left;
+        long intersection = smaller.stream().filter(larger::contains).count();
+        return (double) intersection / (left.size() + right.size() - intersection);
+    }
+
+    /**
+     * 加入窗口，超出窗口大小时移除最早的记录
+     *
+     * @param deque  窗口
+     * @param value  记录
+     * @param window 窗口大小
+     * @param <T>    记录类型
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static <T> void push(Deque<T> deque, T value, int window) {
+        deque.addLast(value);
+        while (deque.size() > Math.max(1, window)) {
+            deque.removeFirst();
+        }
+    }
+
+    /**
+     * 判定结果
+     *
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/18 14:05
+     * @since 1.0.0-SNAPSHOT
+     */
+    public enum Verdict {
+
+        /**
+         * 未检测到循环
+         */
+        NONE,
+
+        /**
+         * 检测到循环，注入纠正提示
+         */
+        NUDGE,
+
+        /**
+         * 纠正后仍然循环，结束运行
+         */
+        STOP
+    }
+}
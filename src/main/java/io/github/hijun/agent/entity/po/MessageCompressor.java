@@ -0,0 +1,374 @@
+package io.github.hijun.agent.entity.po;
+
+import org.springframework.ai.chat.messages.AbstractMessage;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 消息压缩器
+ * <p>
+ * 工具响应与助手消息超过阈值时以 Deflate 压缩后保存在 {@link MessageLog} 中，构建提示词读取时再解压；
+ * 只压缩不带附加元数据与媒体的消息，保证解压后与原消息等价。压缩收益不足 10% 的消息按原样保存
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/23 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public class MessageCompressor {
+
+    /**
+     * 不压缩
+     */
+    public static final MessageCompressor NONE = new MessageCompressor(Integer.MAX_VALUE, Deflater.BEST_SPEED);
+
+    /**
+     * 压缩阈值（字符数）
+     */
+    private final int threshold;
+
+    /**
+     * 压缩级别
+     */
+    private final int level;
+
+    /**
+     * 压缩的消息数
+     */
+    private final LongAdder compressed = new LongAdder();
+
+    /**
+     * 压缩前字节数
+     */
+    private final LongAdder rawBytes = new LongAdder();
+
+    /**
+     * 压缩后字节数
+     */
+    private final LongAdder storedBytes = new LongAdder();
+
+    /**
+     * 压缩收益不足而按原样保存的消息数
+     */
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * 解压次数
+     */
+    private final LongAdder inflations = new LongAdder();
+
+    /**
+     * Message Compressor
+     *
+     * @param threshold 压缩阈值（字符数）
+     * @param level     压缩级别，取值 1-9
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageCompressor(int threshold, int level) {
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    /**
+     * 按需压缩消息
+     *
+     * @param message 消息
+     * @return 压缩后的消息，不需要压缩时返回原消息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Object pack(Message message) {
+        if (this.threshold == Integer.MAX_VALUE || payloadLength(message) < this.threshold) {
+            return message;
+        }
+        byte[] raw = encode(message);
+        if (raw == null) {
+            return message;
+        }
+        byte[] data = this.deflate(raw);
+        if (data.length > raw.length * 0.9) {
+            this.skipped.increment();
+            return message;
+        }
+        this.compressed.increment();
+        this.rawBytes.add(raw.length);
+        this.storedBytes.add(data.length);
+        return new Packed(message.getMessageType(), data);
+    }
+
+    /**
+     * 还原消息
+     *
+     * @param entry {@link #pack(Message)} 的结果
+     * @return 消息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Message unpack(Object entry) {
+        if (entry instanceof Packed packed) {
+            this.inflations.increment();
+            return decode(packed.type(), inflate(packed.data()));
+        }
+        return (Message) entry;
+    }
+
+    /**
+     * 消息类型，不解压
+     *
+     * @param entry {@link #pack(Message)} 的结果
+     * @return 消息类型
+     * @since 1.0.0-SNAPSHOT
+     */
+    static MessageType typeOf(Object entry) {
+        return entry instanceof Packed packed ? packed.type() : ((Message) entry).getMessageType();
+    }
+
+    /**
+     * 压缩统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    public Stats stats() {
+        long raw = this.rawBytes.sum();
+        long stored = this.storedBytes.sum();
+        return new Stats(this.compressed.sum(),
+                raw,
+                stored,
+                raw - stored,
+                stored > 0 ? (double) raw / stored : 0D,
+                this.skipped.sum(),
+                this.inflations.sum());
+    }
+
+    /**
+     * 可压缩内容的字符数
+     *
+     * @param message 消息
+     * @return 字符数，不可压缩的消息返回 -1
+     */
+    private static int payloadLength(Message message) {
+        if (!hasOnlyTypeMetadata(message.getMetadata())) {
+            return -1;
+        }
+        if (message instanceof ToolResponseMessage toolResponseMessage) {
+            int length = 0;
+            for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+                length += response.responseData() != null ? response.responseData().length() : 0;
+            }
+            return length;
+        }
+        if (message instanceof AssistantMessage assistantMessage && assistantMessage.getMedia().isEmpty()) {
+            int length = assistantMessage.getText() != null ? assistantMessage.getText().length() : 0;
+            for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+                length += toolCall.arguments() != null ? toolCall.arguments().length() : 0;
+            }
+            return length;
+        }
+        return -1;
+    }
+
+    /**
+     * 元数据是否只包含消息类型
+     *
+     * @param metadata 元数据
+     * @return boolean
+     */
+    private static boolean hasOnlyTypeMetadata(Map<String, Object> metadata) {
+        for (String key : metadata.keySet()) {
+            if (!AbstractMessage.MESSAGE_TYPE.equals(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 编码消息
+     *
+     * @param message 消息
+     * @return 字节，不支持的消息返回 null
+     */
+    private static byte[] encode(Message message) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            if (message instanceof ToolResponseMessage toolResponseMessage) {
+                List<ToolResponseMessage.ToolResponse> responses = toolResponseMessage.getResponses();
+                out.writeInt(responses.size());
+                for (ToolResponseMessage.ToolResponse response : responses) {
+                    writeString(out, response.id());
+                    writeString(out, response.name());
+                    writeString(out, response.responseData());
+                }
+            } else if (message instanceof AssistantMessage assistantMessage) {
+                writeString(out, assistantMessage.getText());
+                List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+                out.writeInt(toolCalls.size());
+                for (AssistantMessage.ToolCall toolCall : toolCalls) {
+                    writeString(out, toolCall.id());
+                    writeString(out, toolCall.type());
+                    writeString(out, toolCall.name());
+                    writeString(out, toolCall.arguments());
+                }
+            } else {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 解码消息
+     *
+     * @param type 消息类型
+     * @param raw  字节
+     * @return 消息
+     */
+    private static Message decode(MessageType type, byte[] raw) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            if (type == MessageType.TOOL) {
+                int count = in.readInt();
+                List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    responses.add(new ToolResponseMessage.ToolResponse(readString(in), readString(in), readString(in)));
+                }
+                return ToolResponseMessage.builder().responses(responses).build();
+            }
+            String text = readString(in);
+            int count = in.readInt();
+            List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                toolCalls.add(new AssistantMessage.ToolCall(readString(in), readString(in), readString(in), readString(in)));
+            }
+            return new AssistantMessage(text, Map.of(), toolCalls);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 压缩
+     *
+     * @param raw 原始字节
+     * @return 压缩后的字节
+     */
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(this.level);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 解压
+     *
+     * @param data 压缩后的字节
+     * @return 原始字节
+     */
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data), inflater)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 写入字符串，null 以长度 -1 表示
+     *
+     * @param out   输出
+     * @param value 字符串
+     * @throws IOException io exception
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 读取字符串
+     *
+     * @param in 输入
+     * @return 字符串
+     * @throws IOException io exception
+     */
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 压缩后的消息
+     *
+     * @param type 消息类型
+     * @param data 压缩后的字节
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record Packed(MessageType type, byte[] data) {
+    }
+
+    /**
+     * 压缩统计
+     *
+     * @param messages    压缩的消息数
+     * @param rawBytes    压缩前字节数
+     * @param storedBytes 压缩后字节数
+     * @param savedBytes  节省的字节数
+     * @param ratio       压缩比（压缩前 / 压缩后）
+     * @param skipped     压缩收益不足而按原样保存的消息数
+     * @param inflations  解压次数
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    public record Stats(long messages,
+                        long rawBytes,
+                        long storedBytes,
+                        long savedBytes,
+                        double ratio,
+                        long skipped,
+                        long inflations) {
+    }
+}
@@ -0,0 +1,310 @@
+package io.github.hijun.agent.entity.po;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 只追加的消息日志
+ * <p>
+ * 替代每次读取都复制整个列表的 ChatMemory：消息只追加不修改，已写入的数组槽位不会再变，
+ * 因此快照只需记录数组引用与当时的长度，无需复制；最后一条消息与各类型消息数均为 O(1) 读取。
+ * <p>
+ * 子智能体的日志以父级选中的消息作为只读前缀，前缀按引用共享，子智能体只向自己的数组追加。
+ * <p>
+ * 追加的大体积工具响应与助手消息由 {@link MessageCompressor} 压缩保存，快照读取时才解压
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 09:40
+ * @since 1.0.0-SNAPSHOT
+ */
+public class MessageLog {
+
+    /**
+     * 默认提示词窗口，与 MessageWindowChatMemory 的默认值一致
+     */
+    public static final int DEFAULT_WINDOW = 20;
+
+    /**
+     * 初始容量
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * 只读前缀
+     */
+    private final List<Message> inherited;
+
+    /**
+     * 提示词窗口大小
+     */
+    private final int window;
+
+    /**
+     * 消息压缩器
+     */
+    private final MessageCompressor compressor;
+
+    /**
+     * 各类型消息数，下标为 {@link MessageType#ordinal()}
+     */
+    private final int[] typeCounts = new int[MessageType.values().length];
+
+    /**
+     * 追加的消息，扩容时复制到新数组，旧数组保持不变供已有快照继续使用
+     */
+    private volatile Object[] elements = new Object[INITIAL_CAPACITY];
+
+    /**
+     * 追加的消息数
+     */
+    private volatile int size;
+
+    /**
+     * Message Log
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageLog() {
+        this(DEFAULT_WINDOW, List.of());
+    }
+
+    /**
+     * Message Log
+     *
+     * @param window    提示词窗口大小
+     * @param inherited 只读前缀
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageLog(int window, List<Message> inherited) {
+        this(window, inherited, MessageCompressor.NONE);
+    }
+
+    /**
+     * Message Log
+     *
+     * @param window     提示词窗口大小
+     * @param inherited  只读前缀
+     * @param compressor 消息压缩器
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageLog(int window, List<Message> inherited, MessageCompressor compressor) {
+        this.window = window;
+        this.compressor = compressor;
+        this.inherited = inherited != null ? List.copyOf(inherited) : List.of();
+        this.inherited.forEach(message -> this.typeCounts[message.getMessageType().ordinal()]++);
+    }
+
+    /**
+     * 追加消息
+     *
+     * @param message message
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized void append(Message message) {
+        Object[] array = this.elements;
+        if (this.size == array.length) {
+            array = Arrays.copyOf(array, array.length << 1);
+        }
+        array[this.size] = this.compressor.pack(message);
+        this.typeCounts[message.getMessageType().ordinal()]++;
+        this.elements = array;
+        this.size++;
+    }
+
+    /**
+     * 追加多条消息
+     *
+     * @param messages messages
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized void appendAll(Collection<? extends Message> messages) {
+        for (Message message : messages) {
+            this.append(message);
+        }
+    }
+
+    /**
+     * 最后一条消息
+     *
+     * @return 最后一条消息，日志为空时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    public Message last() {
+        Object[] array = this.elements;
+        int count = this.size;
+        if (count > 0) {
+            return this.compressor.unpack(array[count - 1]);
+        }
+        return this.inherited.isEmpty() ? null : this.inherited.get(this.inherited.size() - 1);
+    }
+
+    /**
+     * 最后一条消息的类型，不解压消息
+     *
+     * @return 消息类型，日志为空时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageType lastType() {
+        Object[] array = this.elements;
+        int count = this.size;
+        if (count > 0) {
+            return MessageCompressor.typeOf(array[count - 1]);
+        }
+        return this.inherited.isEmpty() ? null : this.inherited.get(this.inherited.size() - 1).getMessageType();
+    }
+
+    /**
+     * 创建子智能体日志，使用相同的窗口大小与压缩器
+     *
+     * @param inherited 只读前缀
+     * @return message log
+     * @since 1.0.0-SNAPSHOT
+     */
+    public MessageLog fork(List<Message> inherited) {
+        return new MessageLog(this.window, inherited, this.compressor);
+    }
+
+    /**
+     * 消息总数（含只读前缀）
+     *
+     * @return int
+     * @since 1.0.0-SNAPSHOT
+     */
+    public int size() {
+        return this.inherited.size() + this.size;
+    }
+
+    /**
+     * 指定类型的消息数（含只读前缀）
+     *
+     * @param type 消息类型
+     * @return int
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized int count(MessageType type) {
+        return this.typeCounts[type.ordinal()];
+    }
+
+    /**
+     * 全部消息的只读快照
+     *
+     * @return 不可变列表，后续追加的消息不可见
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<Message> snapshot() {
+        return this.view(0);
+    }
+
+    /**
+     * 最近窗口内消息的只读快照，用于构建提示词
+     *
+     * @return 不可变列表，后续追加的消息不可见
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<Message> window() {
+        return this.view(Math.max(0, this.size() - this.window));
+    }
+
+    /**
+     * 创建快照视图
+     *
+     * @param from 起始下标（含只读前缀）
+     * @return list
+     * @since 1.0.0-SNAPSHOT
+     */
+    private synchronized List<Message> view(int from) {
+        return new Snapshot(this.inherited, this.elements, this.compressor, from, this.inherited.size() + this.size);
+    }
+
+    /**
+     * 快照视图
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/20 09:40
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Snapshot extends AbstractList<Message> implements RandomAccess {
+
+        /**
+         * 只读前缀
+         */
+        private final List<Message> inherited;
+
+        /**
+         * 追加消息数组
+         */
+        private final Object[] elements;
+
+        /**
+         * 消息压缩器
+         */
+        private final MessageCompressor compressor;
+
+        /**
+         * 起始下标
+         */
+        private final int from;
+
+        /**
+         * 结束下标（不含）
+         */
+        private final int to;
+
+        /**
+         * Snapshot
+         *
+         * @param inherited  只读前缀
+         * @param elements   追加消息数组
+         * @param compressor 消息压缩器
+         * @param from       起始下标
+         * @param to         结束下标
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Snapshot(List<Message> inherited, Object[] elements, MessageCompressor compressor, int from, int to) {
+            this.inherited = inherited;
+            this.elements = elements;
+            this.compressor = compressor;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Get
+         *
+         * @param index index
+         * @return message
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public Message get(int index) {
+            if (index < 0 || index >= this.size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int position = this.from + index;
+            int inheritedSize = this.inherited.size();
+            return position < inheritedSize ? this.inherited.get(position)
+                    : this.compressor.unpack(this.elements[position - inheritedSize]);
+        }
+
+        /**
+         * Size
+         *
+         * @return int
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public int size() {
+            return this.to - this.from;
+        }
+    }
+}
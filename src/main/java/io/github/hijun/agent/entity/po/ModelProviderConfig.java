@@ -110,6 +110,22 @@ public class ModelProviderConfig extends BasePo {
     @TableField("description")
     private String description;
 
+    /**
+     * 每分钟请求数上限（RPM）
+     * <p>
+     * 客户端限流使用，为空时使用 agent.rate-limit 中的默认值
+     */
+    @TableField("rpm_limit")
+    private Integer rpmLimit;
+
+    /**
+     * 每分钟Token数上限（TPM）
+     * <p>
+     * 客户端限流使用，统计提示词与生成内容的预估Token之和，为空时使用默认值
+     */
+    @TableField("tpm_limit")
+    private Integer tpmLimit;
+
     /**
      * 获取默认温度参数
      *
@@ -0,0 +1,220 @@
+package io.github.hijun.agent.entity.po;
+
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.entity.dto.ContentMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 运行输出
+ * <p>
+ * 智能体写入的 SSE 消息转发给所有附加的客户端连接，并缓存已发送的消息：
+ * 同一 requestId 的重复请求附加时先回放缓存，再接收后续消息；运行结束后附加的连接回放完整输出后立即关闭。
+ * 消息数超过缓存上限时保留开头与最近的消息，回放时在两段之间提示省略的条数，保证总结与文件列表等最终结果不丢失。
+ * 本身不会返回给 Spring MVC，客户端连接断开只影响该连接，不影响运行
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+public class RunStream extends SseEmitter {
+
+    /**
+     * 缓存开头消息数上限
+     */
+    private final int headLimit;
+
+    /**
+     * 缓存最近消息数上限
+     */
+    private final int tailLimit;
+
+    /**
+     * 开头的消息
+     */
+    private final List<Set<DataWithMediaType>> head = new ArrayList<>();
+
+    /**
+     * 最近的消息，超出上限时移除最早的一条
+     */
+    private final Deque<Set<DataWithMediaType>> tail = new ArrayDeque<>();
+
+    /**
+     * 超出缓存上限而省略的消息数
+     */
+    private long omitted;
+
+    /**
+     * 附加的客户端连接
+     */
+    private final List<SseEmitter> clients = new ArrayList<>();
+
+    /**
+     * 是否已结束
+     */
+    private boolean completed;
+
+    /**
+     * 异常结束的原因
+     */
+    private Throwable failure;
+
+    /**
+     * Run Stream
+     *
+     * @param replayLimit 缓存的消息数上限，开头与最近的消息各占一半
+     * @since 1.0.0-SNAPSHOT
+     */
+    public RunStream(int replayLimit) {
+        this.tailLimit = Math.max(1, replayLimit / 2);
+        this.headLimit = Math.max(0, replayLimit - this.tailLimit);
+    }
+
+    /**
+     * 附加客户端连接
+     *
+     * @param client 客户端连接
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized void attach(SseEmitter client) {
+        for (Set<DataWithMediaType> items : this.head) {
+            if (!deliver(client, items)) {
+                return;
+            }
+        }
+        if (this.omitted > 0 && !deliver(client, omittedNotice(this.omitted))) {
+            return;
+        }
+        for (Set<DataWithMediaType> items : this.tail) {
+            if (!deliver(client, items)) {
+                return;
+            }
+        }
+        if (!this.completed) {
+            this.clients.add(client);
+        } else if (this.failure != null) {
+            client.completeWithError(this.failure);
+        } else {
+            client.complete();
+        }
+    }
+
+    /**
+     * 是否已结束
+     *
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized boolean isCompleted() {
+        return this.completed;
+    }
+
+    /**
+     * 是否异常结束
+     *
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized boolean isFailed() {
+        return this.failure != null;
+    }
+
+    /**
+     * Send
+     *
+     * @param builder builder
+     * @throws IOException io exception
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void send(SseEventBuilder builder) throws IOException {
+        if (this.completed) {
+            throw new IllegalStateException("运行已结束");
+        }
+        Set<DataWithMediaType> items = builder.build();
+        if (this.head.size() < this.headLimit) {
+            this.head.add(items);
+        } else {
+            this.tail.addLast(items);
+            if (this.tail.size() > this.tailLimit) {
+                this.tail.removeFirst();
+                this.omitted++;
+            }
+        }
+        this.clients.removeIf(client -> !deliver(client, items));
+    }
+
+    /**
+     * Complete
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void complete() {
+        if (this.completed) {
+            return;
+        }
+        this.completed = true;
+        this.clients.forEach(SseEmitter::complete);
+        this.clients.clear();
+    }
+
+    /**
+     * Complete With Error
+     *
+     * @param ex ex
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void completeWithError(Throwable ex) {
+        if (this.completed) {
+            return;
+        }
+        this.completed = true;
+        this.failure = ex;
+        this.clients.forEach(client -> client.completeWithError(ex));
+        this.clients.clear();
+    }
+
+    /**
+     * 省略提示消息
+     *
+     * @param count 省略的消息数
+     * @return 消息
+     */
+    private static Set<DataWithMediaType> omittedNotice(long count) {
+        return SseEmitter.event()
+                .data(ContentMessage.builder()
+                        .type(SseMessageType.THINKING)
+                        .content("输出过长，回放时省略了中间的 " + count + " 条消息")
+                        .build())
+                .build();
+    }
+
+    /**
+     * 向客户端发送消息
+     *
+     * @param client 客户端连接
+     * @param items  消息
+     * @return 是否成功，失败说明连接已断开
+     */
+    private static boolean deliver(SseEmitter client, Set<DataWithMediaType> items) {
+        try {
+            client.send(items);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("客户端连接已断开: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.hijun.agent.entity.po;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 流式工具调用组装器
+ * <p>
+ * 按流式分片还原完整的工具调用：带 id 的分片开始一个新调用，不带 id 的分片把名称与参数片段追加到当前调用。
+ * 参数是一个闭合的 JSON 对象时即认为该调用已完整，立即回调，不必等待整个输出流结束；
+ * 提供商已经合并好的完整调用同样适用，按 id 去重。
+ * <p>
+ * 能否提前回调取决于提供商：OpenAI 提供商在流内部合并分片，到 finish_reason=tool_calls 时才下发完整调用，
+ * 此时各调用在输出结束时一并回调
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 11:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public class ToolCallAssembler {
+
+    /**
+     * 调用完整时的回调
+     */
+    private final Consumer<AssistantMessage.ToolCall> onComplete;
+
+    /**
+     * 已完成的调用，按完成顺序排列
+     */
+    private final List<AssistantMessage.ToolCall> completed = new ArrayList<>();
+
+    /**
+     * 已完成调用的 id
+     */
+    private final Set<String> completedIds = new LinkedHashSet<>();
+
+    /**
+     * 当前组装中的调用
+     */
+    private Builder current;
+
+    /**
+     * Tool Call Assembler
+     *
+     * @param onComplete 调用完整时的回调
+     * @since 1.0.0-SNAPSHOT
+     */
+    public ToolCallAssembler(Consumer<AssistantMessage.ToolCall> onComplete) {
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * 接收一个分片中的工具调用
+     *
+     * @param deltas 分片中的工具调用
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized void accept(List<AssistantMessage.ToolCall> deltas) {
+        if (deltas == null) {
+            return;
+        }
+        for (AssistantMessage.ToolCall delta : deltas) {
+            String id = delta.id();
+            if (StringUtils.hasText(id) && (this.current == null || !id.equals(this.current.id))) {
+                // 新调用开始，上一个调用不会再有分片
+                this.flush();
+                if (this.completedIds.contains(id)) {
+                    continue;
+                }
+                this.current = new Builder(id, delta.type());
+            }
+            if (this.current == null) {
+                // 首个分片缺少 id 时按匿名调用组装，流结束后再回调
+                this.current = new Builder(null, delta.type());
+            }
+            this.current.append(delta.name(), delta.arguments());
+            if (this.current.id != null && this.current.isJsonComplete()) {
+                this.flush();
+            }
+        }
+    }
+
+    /**
+     * 输出流结束，回调剩余未完成的调用
+     *
+     * @return 全部调用，按完成顺序排列
+     * @since 1.0.0-SNAPSHOT
+     */
+    public synchronized List<AssistantMessage.ToolCall> finish() {
+        this.flush();
+        return List.copyOf(this.completed);
+    }
+
+    /**
+     * 结束当前调用
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void flush() {
+        Builder builder = this.current;
+        this.current = null;
+        if (builder == null || !StringUtils.hasText(builder.name.toString())) {
+            return;
+        }
+        AssistantMessage.ToolCall toolCall = builder.build();
+        if (toolCall.id() != null) {
+            this.completedIds.add(toolCall.id());
+        }
+        this.completed.add(toolCall);
+        this.onComplete.accept(toolCall);
+    }
+
+    /**
+     * 组装中的调用
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/20 11:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Builder {
+
+        /**
+         * 调用 id
+         */
+        private final String id;
+
+        /**
+         * 调用类型
+         */
+        private final String type;
+
+        /**
+         * 工具名称
+         */
+        private final StringBuilder name = new StringBuilder();
+
+        /**
+         * 参数
+         */
+        private final StringBuilder arguments = new StringBuilder();
+
+        /**
+         * 当前 JSON 嵌套深度
+         */
+        private int depth;
+
+        /**
+         * 是否在字符串内
+         */
+        private boolean inString;
+
+        /**
+         * 上一个字符是否为转义符
+         */
+        private boolean escaped;
+
+        /**
+         * 是否已出现过左花括号
+         */
+        private boolean started;
+
+        /**
+         * Builder
+         *
+         * @param id   调用 id
+         * @param type 调用类型
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Builder(String id, String type) {
+            this.id = id;
+            this.type = StringUtils.hasText(type) ? type : "function";
+        }
+
+        /**
+         * 追加名称与参数片段，同时增量扫描参数的括号深度
+         *
+         * @param namePart      名称片段
+         * @param argumentsPart 参数片段
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void append(String namePart, String argumentsPart) {
+            if (namePart != null) {
+                this.name.append(namePart);
+            }
+            if (argumentsPart == null) {
+                return;
+            }
+            this.arguments.append(argumentsPart);
+            for (int i = 0; i < argumentsPart.length(); i++) {
+                char c = argumentsPart.charAt(i);
+                if (this.inString) {
+                    if (this.escaped) {
+                        this.escaped = false;
+                    } else if (c == '\\') {
+                        this.escaped = true;
+                    } else if (c == '"') {
+                        this.inString = false;
+                    }
+                } else if (c == '"') {
+                    this.inString = true;
+                } else if (c == '{' || c == '[') {
+                    this.depth++;
+                    this.started = true;
+                } else if (c == '}' || c == ']') {
+                    this.depth--;
+                }
+            }
+        }
+
+        /**
+         * 参数是否为闭合的 JSON
+         *
+         * @return boolean
+         * @since 1.0.0-SNAPSHOT
+         */
+        private boolean isJsonComplete() {
+            return this.started && this.depth == 0 && !this.inString && StringUtils.hasText(this.name.toString());
+        }
+
+        /**
+         * 构建工具调用
+         *
+         * @return tool call
+         * @since 1.0.0-SNAPSHOT
+         */
+        private AssistantMessage.ToolCall build() {
+            String args = this.arguments.toString().trim();
+            return new AssistantMessage.ToolCall(this.id, this.type, this.name.toString(), args.isEmpty() ? "{}" : args);
+        }
+    }
+}
@@ -139,6 +139,20 @@ public class SaveConfigRequest {
          */
         private String baseUrl;
 
+        /**
+         * 每分钟请求数上限（RPM）
+         * <p>
+         * 为空时使用系统默认限流配置
+         */
+        private Integer rpmLimit;
+
+        /**
+         * 每分钟Token数上限（TPM）
+         * <p>
+         * 为空时使用系统默认限流配置
+         */
+        private Integer tpmLimit;
+
         /**
          * 模型列表
          * <p>
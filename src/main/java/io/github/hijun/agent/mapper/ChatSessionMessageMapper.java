@@ -0,0 +1,18 @@
+package io.github.hijun.agent.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import io.github.hijun.agent.entity.po.ChatSessionMessage;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 会话消息 Mapper
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 14:15
+ * @since 1.0.0-SNAPSHOT
+ */
+@Mapper
+public interface ChatSessionMessageMapper extends BaseMapper<ChatSessionMessage> {
+}
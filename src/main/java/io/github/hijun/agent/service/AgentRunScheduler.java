@@ -0,0 +1,89 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.common.enums.ChatMode;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 对话运行调度器
+ * <p>
+ * 所有对话运行经由调度器进入有限的执行槽位：{@link ChatMode} 决定所在通道，通道之间按权重轮转，
+ * 交互式的 CHAT 通道权重更高；同一通道内各租户按权重公平排队
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface AgentRunScheduler {
+
+    /**
+     * 获取绑定租户与通道的执行器
+     *
+     * @param tenant   租户标识
+     * @param chatMode 对话模式，为空时按 CHAT 处理
+     * @return 执行器，提交的任务按调度顺序执行
+     * @since 1.0.0-SNAPSHOT
+     */
+    Executor executor(String tenant, ChatMode chatMode);
+
+    /**
+     * 调度统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Stats stats();
+
+    /**
+     * 调度统计
+     *
+     * @param workers 执行槽位数
+     * @param running 执行中的运行数
+     * @param queued  排队中的运行数
+     * @param lanes   各通道统计
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record Stats(int workers,
+                 int running,
+                 int queued,
+                 List<LaneStats> lanes) {
+    }
+
+    /**
+     * 通道统计
+     *
+     * @param lane                通道
+     * @param weight              权重
+     * @param queued              排队中的运行数
+     * @param tenants             有排队运行的租户数
+     * @param submitted           提交的运行数
+     * @param completed           完成的运行数
+     * @param completedLastMinute 最近一分钟完成的运行数
+     * @param avgWaitMillis       平均排队时间（毫秒）
+     * @param p95WaitMillis       最近排队时间的 P95（毫秒）
+     * @param maxWaitMillis       最大排队时间（毫秒）
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record LaneStats(ChatMode lane,
+                     int weight,
+                     int queued,
+                     int tenants,
+                     long submitted,
+                     long completed,
+                     long completedLastMinute,
+                     long avgWaitMillis,
+                     long p95WaitMillis,
+                     long maxWaitMillis) {
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.common.enums.StageStatus;
+import io.github.hijun.agent.entity.po.AgentChainNode;
+import io.github.hijun.agent.entity.po.AgentContext;
+
+/**
+ * 智能体链检查点服务
+ * <p>
+ * 链路后段失败后，使用相同 sessionId/requestId 重试时只需重新执行失败及其下游阶段
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 16:25
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface ChainCheckpointService {
+
+    /**
+     * 计算阶段输入摘要
+     * <p>
+     * 由用户请求（问题、提示词、模式、上传文件）与各输入产物的文件内容共同决定
+     *
+     * @param agentContext 智能体上下文
+     * @param node         阶段节点
+     * @return 输入摘要
+     * @since 1.0.0-SNAPSHOT
+     */
+    String inputHash(AgentContext agentContext, AgentChainNode node);
+
+    /**
+     * 查找可复用的阶段输出
+     *
+     * @param agentContext 智能体上下文
+     * @param node         阶段节点
+     * @param inputHash    输入摘要
+     * @return 已完成且输入未变化、输出文件仍存在时返回输出文件路径，否则返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    String findCompleted(AgentContext agentContext, AgentChainNode node, String inputHash);
+
+    /**
+     * 记录阶段状态
+     *
+     * @param agentContext 智能体上下文
+     * @param node         阶段节点
+     * @param inputHash    输入摘要
+     * @param status       阶段状态
+     * @param outputPath   输出文件路径，未产出时为 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    void record(AgentContext agentContext, AgentChainNode node, String inputHash, StageStatus status, String outputPath);
+}
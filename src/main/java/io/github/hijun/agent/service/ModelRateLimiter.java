@@ -0,0 +1,50 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.entity.po.AgentContext;
+
+/**
+ * 模型调用限流器
+ * <p>
+ * 按模型提供商配置维度同时限制每分钟请求数（RPM）与每分钟 Token 数（TPM），
+ * 额度不足时调用方排队等待，不同会话之间轮转放行，避免单个会话占满额度
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/15 10:30
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface ModelRateLimiter {
+
+    /**
+     * 申请一次模型调用的额度，额度不足时阻塞等待
+     * <p>
+     * 预计等待时间较长时通过 SSE 推送 THINKING 提示，等待超时抛出业务异常
+     *
+     * @param agentContext 智能体上下文，用于确定提供商、会话以及推送等待提示
+     * @param promptTokens 提示词预估 Token 数
+     * @return 调用许可，调用结束后必须调用 {@link Permit#release(long)}
+     * @since 1.0.0-SNAPSHOT
+     */
+    Permit acquire(AgentContext agentContext, long promptTokens);
+
+    /**
+     * 调用许可
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/15 10:30
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    interface Permit {
+
+        /**
+         * 释放许可，按实际用量校正已扣除的 Token 额度
+         *
+         * @param actualTokens 实际消耗的 Token 数，小于等于 0 时不做校正
+         * @since 1.0.0-SNAPSHOT
+         */
+        void release(long actualTokens);
+    }
+}
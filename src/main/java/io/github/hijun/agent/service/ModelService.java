@@ -18,8 +18,9 @@ public interface ModelService {
      * Chat
      *
      * @param chatRequest chat request
+     * @param tenant      租户标识，用于调度时在租户之间公平分配
      * @return sse emitter
      * @since 3.4.3
      */
-    SseEmitter agent(ChatRequest chatRequest);
+    SseEmitter agent(ChatRequest chatRequest, String tenant);
 }
@@ -0,0 +1,65 @@
+package io.github.hijun.agent.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * 对话运行登记
+ * <p>
+ * 按 sessionId 与 requestId 登记正在执行及刚结束的运行：同一 requestId 的重复请求不再启动新的运行，
+ * 而是附加到已有运行的输出；同一 sessionId 的不同请求按提交顺序依次执行，避免并发写入同一会话的文件与记忆
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface RunRegistry {
+
+    /**
+     * 提交对话运行
+     *
+     * @param sessionId 会话ID，为空时不排队
+     * @param requestId 请求ID，为空时不去重
+     * @param client    客户端连接
+     * @param executor  运行执行器，轮到该运行时提交
+     * @param task      运行任务，参数为运行输出，任务返回时输出自动关闭
+     * @return 是否启动了新的运行，false 表示附加到了已有运行
+     * @since 1.0.0-SNAPSHOT
+     */
+    boolean submit(String sessionId, String requestId, SseEmitter client, Executor executor, Consumer<SseEmitter> task);
+
+    /**
+     * 运行统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Stats stats();
+
+    /**
+     * 运行统计
+     *
+     * @param runs         登记中的运行数（含保留期内已结束的运行）
+     * @param sessions     有运行或排队请求的会话数
+     * @param started      启动的运行数
+     * @param deduplicated 附加到已有运行的重复请求数
+     * @param queued       因同一会话已有运行而排队的请求数
+     * @param rejected     因排队过多被拒绝的请求数
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record Stats(int runs,
+                 int sessions,
+                 long started,
+                 long deduplicated,
+                 long queued,
+                 long rejected) {
+    }
+}
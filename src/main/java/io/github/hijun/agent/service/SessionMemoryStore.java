@@ -0,0 +1,88 @@
+package io.github.hijun.agent.service;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * 会话记忆存储
+ * <p>
+ * 应用级共享的会话历史，同一 sessionId 的后续请求以此作为对话上下文。
+ * 只保存每轮的用户问题与最终回答，智能体运行过程中的中间消息仍只存在于单次请求内
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 14:20
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface SessionMemoryStore {
+
+    /**
+     * 获取会话历史消息
+     * <p>
+     * 内存未命中时从数据库加载最近的消息
+     *
+     * @param sessionId 会话ID
+     * @return 按时间顺序排列的历史消息，无历史时返回空列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    List<Message> history(String sessionId);
+
+    /**
+     * 追加一轮对话的消息
+     * <p>
+     * 内存立即更新，数据库异步写入，不阻塞调用方
+     *
+     * @param sessionId 会话ID
+     * @param requestId 请求ID
+     * @param messages  消息，仅保存有文本内容的用户与助手消息
+     * @since 1.0.0-SNAPSHOT
+     */
+    void append(String sessionId, String requestId, List<Message> messages);
+
+    /**
+     * 从内存中移除会话
+     *
+     * @param sessionId 会话ID
+     * @since 1.0.0-SNAPSHOT
+     */
+    void evict(String sessionId);
+
+    /**
+     * 获取运行统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Stats stats();
+
+    /**
+     * 会话记忆统计
+     *
+     * @param sessions  内存中的会话数
+     * @param messages  内存中的消息数
+     * @param bytes     内存占用估算（字节）
+     * @param maxBytes  内存占用上限（字节）
+     * @param hits      内存命中次数
+     * @param misses    内存未命中次数
+     * @param evictions 淘汰的会话数
+     * @param persisted 已写入数据库的消息数
+     * @param dropped   因队列已满丢弃的消息数
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/19 14:20
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record Stats(int sessions,
+                 long messages,
+                 long bytes,
+                 long maxBytes,
+                 long hits,
+                 long misses,
+                 long evictions,
+                 long persisted,
+                 long dropped) {
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.entity.po.AgentContext;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 工具执行服务
+ * <p>
+ * 同一轮的工具调用并行执行，每个工具有独立的超时与并发隔离设置；
+ * 超时或被隔离拒绝的调用返回失败说明，其余已完成的结果照常返回
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 16:20
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface ToolExecutionService {
+
+    /**
+     * 执行工具调用
+     * <p>
+     * 每个调用开始与结束时分别推送 TOOL_CALL_START 与 TOOL_CALL_RESULT 消息，结果消息包含耗时
+     *
+     * @param agentContext 智能体上下文
+     * @param toolCalls    工具调用列表
+     * @return 工具响应，与入参顺序一致
+     * @since 1.0.0-SNAPSHOT
+     */
+    List<ToolResponse> execute(AgentContext agentContext, List<AssistantMessage.ToolCall> toolCalls);
+
+    /**
+     * 提交单个工具调用，立即返回
+     * <p>
+     * 用于模型仍在输出时提前执行已完整的工具调用，超时、隔离与缓存规则与 {@link #execute} 相同
+     *
+     * @param agentContext 智能体上下文
+     * @param toolCall     工具调用
+     * @return 工具响应，不会以异常结束；取消时同时取消工具执行本身
+     * @since 1.0.0-SNAPSHOT
+     */
+    CompletableFuture<ToolResponse> submit(AgentContext agentContext, AssistantMessage.ToolCall toolCall);
+}
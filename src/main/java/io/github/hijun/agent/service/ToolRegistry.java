@@ -0,0 +1,81 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.common.enums.AdditionalFeatures;
+import io.github.hijun.agent.config.ToolProperties;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 工具注册表
+ * <p>
+ * 启动时扫描 {@code @Tool} 方法与 {@link org.springframework.ai.tool.ToolCallbackProvider}（含 MCP 工具）一次性构建工具回调，
+ * 工具定义与 JSON Schema 随回调缓存；每个请求按附加功能获取缓存的过滤视图，不再重复反射
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 14:05
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface ToolRegistry {
+
+    /**
+     * 获取请求可用的工具视图
+     *
+     * @param features 请求开启的附加功能，可为 null
+     * @return 工具视图
+     * @since 1.0.0-SNAPSHOT
+     */
+    ToolView getView(Collection<AdditionalFeatures> features);
+
+    /**
+     * 按名称查找工具
+     *
+     * @param toolName 工具名称
+     * @return 工具回调，不存在时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    ToolCallback resolve(String toolName);
+
+    /**
+     * 获取工具执行设置
+     * <p>
+     * 按配置、{@link io.github.hijun.agent.common.ToolOptions} 标注、默认值的优先级合并，返回值各字段均不为空
+     *
+     * @param toolName 工具名称
+     * @return 工具执行设置
+     * @since 1.0.0-SNAPSHOT
+     */
+    ToolProperties.ToolLimit getLimit(String toolName);
+
+    /**
+     * 重新扫描并构建工具注册表
+     * <p>
+     * 启动时调用一次；设置中保存 MCP 服务器配置后，由 SettingsServiceImpl 在事务提交后调用
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    void refresh();
+
+    /**
+     * 工具视图
+     *
+     * @param callbacks 工具回调列表（不可变）
+     * @param index     名称到工具回调的索引（不可变）
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 14:05
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record ToolView(List<ToolCallback> callbacks, Map<String, ToolCallback> index) {
+
+        /**
+         * 空视图
+         */
+        public static final ToolView EMPTY = new ToolView(List.of(), Map.of());
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.hijun.agent.service;
+
+import io.github.hijun.agent.common.enums.ToolCacheScope;
+import io.github.hijun.agent.entity.po.AgentContext;
+import org.springframework.ai.chat.messages.AssistantMessage;
+
+/**
+ * 工具结果缓存
+ * <p>
+ * 缓存幂等工具的调用结果，Key 为缓存范围、工具名称与规范化参数的摘要；
+ * 会话范围的结果只在同一会话内复用，全局范围的结果跨会话复用，两者均有有效期
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 10:10
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface ToolResultCache {
+
+    /**
+     * 查询缓存结果
+     *
+     * @param agentContext 智能体上下文
+     * @param toolCall     工具调用
+     * @param scope        缓存范围
+     * @return 缓存结果，未命中时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    String get(AgentContext agentContext, AssistantMessage.ToolCall toolCall, ToolCacheScope scope);
+
+    /**
+     * 写入缓存结果
+     *
+     * @param agentContext 智能体上下文
+     * @param toolCall     工具调用
+     * @param scope        缓存范围
+     * @param result       工具结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    void put(AgentContext agentContext, AssistantMessage.ToolCall toolCall, ToolCacheScope scope, String result);
+
+    /**
+     * 失效参数中引用了指定文件的缓存结果
+     *
+     * @param paths 文件路径（完整路径或相对路径）
+     * @since 1.0.0-SNAPSHOT
+     */
+    void invalidatePath(String... paths);
+}
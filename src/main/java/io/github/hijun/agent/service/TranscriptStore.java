@@ -0,0 +1,74 @@
+package io.github.hijun.agent.service;
+
+import org.springframework.ai.chat.memory.ChatMemory;
+
+/**
+ * 会话记录存储
+ * <p>
+ * 以 {@link ChatMemory} 的形式提供会话历史，conversationId 即 sessionId：
+ * 消息写入堆外的只追加文件，读取返回直接从文件映射解码的只读视图，每个会话只保留最近的若干条
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/23 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public interface TranscriptStore extends ChatMemory {
+
+    /**
+     * 是否可用，未启用或文件打开失败时不可用
+     *
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    boolean isAvailable();
+
+    /**
+     * 是否有该会话的记录
+     *
+     * @param sessionId 会话ID
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    boolean contains(String sessionId);
+
+    /**
+     * 运行统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    Stats stats();
+
+    /**
+     * 运行统计
+     *
+     * @param available     是否可用
+     * @param sessions      有记录的会话数
+     * @param messages      索引中的消息数
+     * @param segments      分段数
+     * @param usedBytes     已写入的字节数
+     * @param capacityBytes 分段总容量（字节）
+     * @param appended      追加的记录数
+     * @param retired       删除的分段数
+     * @param evicted       按会话数、空闲时间与占用上限淘汰的会话数
+     * @param skipped       超过分段大小而未写入的消息数
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    record Stats(boolean available,
+                 int sessions,
+                 long messages,
+                 int segments,
+                 long usedBytes,
+                 long capacityBytes,
+                 long appended,
+                 long retired,
+                 long evicted,
+                 long skipped) {
+    }
+}
@@ -0,0 +1,559 @@
+package io.github.hijun.agent.service.impl;
+
+import io.github.hijun.agent.common.enums.ChatMode;
+import io.github.hijun.agent.config.SchedulerProperties;
+import io.github.hijun.agent.service.AgentRunScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对话运行调度器实现
+ * <p>
+ * 采用两级步长调度（stride scheduling）近似加权公平排队：每个通道、每个租户维护一个虚拟进度 pass，
+ * 每次选出 pass 最小的通道，再选出该通道中 pass 最小的租户，被选中后 pass 增加 STRIDE / 权重。
+ * 空闲后重新排队的通道或租户从当前虚拟时间开始计算，不会因为空闲期间积累额度而集中占用槽位。
+ * 执行槽位数固定，运行结束后立即调度下一个
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+public class AgentRunSchedulerImpl implements AgentRunScheduler {
+
+    /**
+     * 步长基数
+     */
+    private static final long STRIDE = 1L << 20;
+
+    /**
+     * 用于计算 P95 的最近排队时间样本数
+     */
+    private static final int WAIT_SAMPLES = 256;
+
+    /**
+     * 吞吐统计窗口（秒）
+     */
+    private static final int THROUGHPUT_WINDOW_SECONDS = 60;
+
+    /**
+     * 缺少租户标识时使用的租户
+     */
+    private static final String DEFAULT_TENANT = "anonymous";
+
+    /**
+     * 调度配置
+     */
+    private final SchedulerProperties schedulerProperties;
+
+    /**
+     * 运行执行线程池
+     */
+    private final ThreadPoolTaskExecutor agentRunExecutor;
+
+    /**
+     * 各通道，调度状态访问时需持有 {@link #lock}
+     */
+    private final Map<ChatMode, Lane> lanes = new EnumMap<>(ChatMode.class);
+
+    /**
+     * 调度锁
+     */
+    private final Object lock = new Object();
+
+    /**
+     * 通道的虚拟时间
+     */
+    private long virtualPass;
+
+    /**
+     * 执行中的运行数
+     */
+    private int running;
+
+    /**
+     * 排队中的运行数
+     */
+    private int queued;
+
+    /**
+     * Agent Run Scheduler Impl
+     *
+     * @param schedulerProperties scheduler properties
+     * @param agentRunExecutor    agent run executor
+     * @since 1.0.0-SNAPSHOT
+     */
+    public AgentRunSchedulerImpl(SchedulerProperties schedulerProperties, ThreadPoolTaskExecutor agentRunExecutor) {
+        this.schedulerProperties = schedulerProperties;
+        this.agentRunExecutor = agentRunExecutor;
+        for (ChatMode chatMode : ChatMode.values()) {
+            Integer weight = schedulerProperties.getLaneWeights().get(chatMode);
+            this.lanes.put(chatMode, new Lane(chatMode, weight != null ? Math.max(weight, 1) : 1));
+        }
+    }
+
+    /**
+     * 获取绑定租户与通道的执行器
+     *
+     * @param tenant   租户标识
+     * @param chatMode 对话模式
+     * @return 执行器
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public Executor executor(String tenant, ChatMode chatMode) {
+        if (!Boolean.TRUE.equals(this.schedulerProperties.getEnabled())) {
+            return this.agentRunExecutor;
+        }
+        Lane lane = this.lanes.get(chatMode != null ? chatMode : ChatMode.CHAT);
+        String tenantKey = StringUtils.hasText(tenant) ? tenant : DEFAULT_TENANT;
+        return task -> this.enqueue(lane, tenantKey, task);
+    }
+
+    /**
+     * 调度统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public Stats stats() {
+        long nowSecond = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        synchronized (this.lock) {
+            List<LaneStats> laneStats = new ArrayList<>(this.lanes.size());
+            this.lanes.values().forEach(lane -> laneStats.add(lane.stats(nowSecond)));
+            return new Stats(this.schedulerProperties.getWorkers(), this.running, this.queued, laneStats);
+        }
+    }
+
+    /**
+     * 运行排队并尝试调度
+     *
+     * @param lane   通道
+     * @param tenant 租户
+     * @param task   运行任务
+     */
+    private void enqueue(Lane lane, String tenant, Runnable task) {
+        synchronized (this.lock) {
+            lane.offer(new Job(task, tenant, System.nanoTime()), this.tenantWeight(tenant), this.virtualPass);
+            this.queued++;
+        }
+        this.dispatch();
+    }
+
+    /**
+     * 有空闲槽位时按调度顺序启动排队的运行
+     * <p>
+     * 线程池拒绝提交时（通常是应用关闭中）运行放回所在租户队列的队首并停止本轮调度，
+     * 留待下一次入队或运行结束时重试，不会丢失运行导致会话链上的后续任务永远挂起
+     */
+    private void dispatch() {
+        while (true) {
+            Lane lane;
+            Job job;
+            synchronized (this.lock) {
+                if (this.running >= this.schedulerProperties.getWorkers()) {
+                    return;
+                }
+                lane = this.nextLane();
+                if (lane == null) {
+                    return;
+                }
+                this.virtualPass = lane.pass;
+                lane.pass += STRIDE / lane.weight;
+                job = lane.poll();
+                this.queued--;
+                this.running++;
+            }
+            try {
+                this.agentRunExecutor.execute(() -> this.run(lane, job));
+            } catch (TaskRejectedException e) {
+                log.error("对话运行提交失败，放回队列等待重试", e);
+                synchronized (this.lock) {
+                    lane.requeue(job, this.tenantWeight(job.tenant()));
+                    this.queued++;
+                    this.running--;
+                }
+                return;
+            }
+            synchronized (this.lock) {
+                lane.recordWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - job.enqueuedAt()));
+            }
+        }
+    }
+
+    /**
+     * 执行运行，结束后释放槽位并调度下一个
+     *
+     * @param lane 通道
+     * @param job  运行
+     */
+    private void run(Lane lane, Job job) {
+        try {
+            job.task().run();
+        } finally {
+            long nowSecond = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            synchronized (this.lock) {
+                this.running--;
+                lane.recordCompleted(nowSecond);
+            }
+            this.dispatch();
+        }
+    }
+
+    /**
+     * 选出有排队运行且 pass 最小的通道
+     *
+     * @return 通道，无排队运行时返回 null
+     */
+    private Lane nextLane() {
+        Lane next = null;
+        for (Lane lane : this.lanes.values()) {
+            if (!lane.isEmpty() && (next == null || lane.pass < next.pass)) {
+                next = lane;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * 租户权重
+     *
+     * @param tenant 租户
+     * @return 权重，至少为 1
+     */
+    private int tenantWeight(String tenant) {
+        Integer weight = this.schedulerProperties.getTenantWeights().get(tenant);
+        return weight != null ? Math.max(weight, 1) : 1;
+    }
+
+    /**
+     * 排队的运行
+     *
+     * @param task       运行任务
+     * @param tenant     租户
+     * @param enqueuedAt 入队时间（纳秒）
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record Job(Runnable task, String tenant, long enqueuedAt) {
+    }
+
+    /**
+     * 租户队列
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class TenantQueue {
+
+        /**
+         * 租户
+         */
+        private final String tenant;
+
+        /**
+         * 权重
+         */
+        private final int weight;
+
+        /**
+         * 排队的运行
+         */
+        private final Deque<Job> jobs = new ArrayDeque<>();
+
+        /**
+         * 虚拟进度
+         */
+        private long pass;
+
+        /**
+         * 入队序号，pass 相同时先入队的优先
+         */
+        private long sequence;
+
+        /**
+         * Tenant Queue
+         *
+         * @param tenant 租户
+         * @param weight 权重
+         * @since 1.0.0-SNAPSHOT
+         */
+        private TenantQueue(String tenant, int weight) {
+            this.tenant = tenant;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * 通道
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Lane {
+
+        /**
+         * 对话模式
+         */
+        private final ChatMode chatMode;
+
+        /**
+         * 权重
+         */
+        private final int weight;
+
+        /**
+         * 有排队运行的租户，按 pass 排序
+         */
+        private final PriorityQueue<TenantQueue> active = new PriorityQueue<>(
+                Comparator.<TenantQueue>comparingLong(queue -> queue.pass).thenComparingLong(queue -> queue.sequence));
+
+        /**
+         * 有排队运行的租户索引
+         */
+        private final Map<String, TenantQueue> tenants = new HashMap<>();
+
+        /**
+         * 最近排队时间样本（毫秒）
+         */
+        private final long[] waitSamples = new long[WAIT_SAMPLES];
+
+        /**
+         * 按秒统计的完成数
+         */
+        private final long[] completedBuckets = new long[THROUGHPUT_WINDOW_SECONDS];
+
+        /**
+         * 完成数对应的秒
+         */
+        private final long[] bucketSeconds = new long[THROUGHPUT_WINDOW_SECONDS];
+
+        /**
+         * 虚拟进度
+         */
+        private long pass;
+
+        /**
+         * 租户的虚拟时间
+         */
+        private long tenantPass;
+
+        /**
+         * 入队序号
+         */
+        private long sequence;
+
+        /**
+         * 排队中的运行数
+         */
+        private int size;
+
+        /**
+         * 提交的运行数
+         */
+        private long submitted;
+
+        /**
+         * 已开始执行的运行数
+         */
+        private long dispatched;
+
+        /**
+         * 完成的运行数
+         */
+        private long completed;
+
+        /**
+         * 排队时间合计（毫秒）
+         */
+        private long waitTotal;
+
+        /**
+         * 最大排队时间（毫秒）
+         */
+        private long waitMax;
+
+        /**
+         * Lane
+         *
+         * @param chatMode 对话模式
+         * @param weight   权重
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Lane(ChatMode chatMode, int weight) {
+            this.chatMode = chatMode;
+            this.weight = weight;
+        }
+
+        /**
+         * 是否没有排队的运行
+         *
+         * @return boolean
+         * @since 1.0.0-SNAPSHOT
+         */
+        private boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        /**
+         * 运行入队
+         *
+         * @param job          运行
+         * @param tenantWeight 租户权重
+         * @param virtualPass  通道的虚拟时间
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void offer(Job job, int tenantWeight, long virtualPass) {
+            if (this.size == 0) {
+                this.pass = Math.max(this.pass, virtualPass);
+            }
+            this.tenantQueue(job.tenant(), tenantWeight).jobs.addLast(job);
+            this.size++;
+            this.submitted++;
+        }
+
+        /**
+         * 提交失败的运行放回租户队列的队首
+         *
+         * @param job          运行
+         * @param tenantWeight 租户权重
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void requeue(Job job, int tenantWeight) {
+            this.tenantQueue(job.tenant(), tenantWeight).jobs.addFirst(job);
+            this.size++;
+        }
+
+        /**
+         * 获取租户队列，不存在时创建并加入调度
+         *
+         * @param tenant       租户
+         * @param tenantWeight 租户权重
+         * @return 租户队列
+         * @since 1.0.0-SNAPSHOT
+         */
+        private TenantQueue tenantQueue(String tenant, int tenantWeight) {
+            TenantQueue queue = this.tenants.get(tenant);
+            if (queue == null) {
+                queue = new TenantQueue(tenant, tenantWeight);
+                queue.pass = this.tenantPass;
+                queue.sequence = this.sequence++;
+                this.tenants.put(tenant, queue);
+                this.active.add(queue);
+            }
+            return queue;
+        }
+
+        /**
+         * 取出 pass 最小的租户的下一个运行
+         *
+         * @return 运行
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Job poll() {
+            TenantQueue queue = this.active.poll();
+            Job job = queue.jobs.poll();
+            this.tenantPass = queue.pass;
+            queue.pass += STRIDE / queue.weight;
+            queue.sequence = this.sequence++;
+            if (queue.jobs.isEmpty()) {
+                this.tenants.remove(queue.tenant);
+            } else {
+                this.active.add(queue);
+            }
+            this.size--;
+            return job;
+        }
+
+        /**
+         * 记录排队时间
+         *
+         * @param waitMillis 排队时间（毫秒）
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void recordWait(long waitMillis) {
+            this.waitSamples[(int) (this.dispatched % WAIT_SAMPLES)] = waitMillis;
+            this.dispatched++;
+            this.waitTotal += waitMillis;
+            this.waitMax = Math.max(this.waitMax, waitMillis);
+        }
+
+        /**
+         * 记录完成
+         *
+         * @param nowSecond 当前时间（秒）
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void recordCompleted(long nowSecond) {
+            int index = (int) (nowSecond % THROUGHPUT_WINDOW_SECONDS);
+            if (this.bucketSeconds[index] != nowSecond) {
+                this.bucketSeconds[index] = nowSecond;
+                this.completedBuckets[index] = 0;
+            }
+            this.completedBuckets[index]++;
+            this.completed++;
+        }
+
+        /**
+         * 通道统计
+         *
+         * @param nowSecond 当前时间（秒）
+         * @return 统计信息
+         * @since 1.0.0-SNAPSHOT
+         */
+        private LaneStats stats(long nowSecond) {
+            long lastMinute = 0;
+            for (int i = 0; i < THROUGHPUT_WINDOW_SECONDS; i++) {
+                if (nowSecond - this.bucketSeconds[i] < THROUGHPUT_WINDOW_SECONDS) {
+                    lastMinute += this.completedBuckets[i];
+                }
+            }
+            int samples = (int) Math.min(this.dispatched, WAIT_SAMPLES);
+            long p95 = 0;
+            if (samples > 0) {
+                long[] sorted = Arrays.copyOf(this.waitSamples, samples);
+                Arrays.sort(sorted);
+                p95 = sorted[Math.min(samples - 1, (int) Math.ceil(samples * 0.95) - 1)];
+            }
+            return new LaneStats(this.chatMode,
+                    this.weight,
+                    this.size,
+                    this.tenants.size(),
+                    this.submitted,
+                    this.completed,
+                    lastMinute,
+                    this.dispatched > 0 ? this.waitTotal / this.dispatched : 0,
+                    p95,
+                    this.waitMax);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.hijun.agent.service.impl;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.common.enums.StageStatus;
+import io.github.hijun.agent.entity.po.AgentChainNode;
+import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.ChainCheckpoint;
+import io.github.hijun.agent.service.ChainCheckpointService;
+import io.github.hijun.agent.tools.FileTools;
+import io.github.hijun.agent.utils.JSONS;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * 智能体链检查点服务实现
+ * <p>
+ * 检查点以 JSON 文件保存在会话目录下，与 plan.md、data.md 放在一起；
+ * 同一会话内的并行阶段通过对象锁串行读写，写入时先写临时文件再原子替换，避免读到半个文件
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 16:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChainCheckpointServiceImpl implements ChainCheckpointService {
+
+    /**
+     * 检查点文件名
+     */
+    private static final String CHECKPOINT_FILE = "checkpoint.json";
+
+    /**
+     * file tools.
+     */
+    private final FileTools fileTools;
+
+    /**
+     * Input Hash
+     *
+     * @param agentContext agent context
+     * @param node         node
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public String inputHash(AgentContext agentContext, AgentChainNode node) {
+        MessageDigest digest = this.sha256();
+        this.update(digest, node.agentKey());
+        this.update(digest, Objects.toString(agentContext.getChatMode(), ""));
+        this.update(digest, agentContext.getUserQuery());
+        this.update(digest, agentContext.getUserPrompt());
+        List<String> uploads = agentContext.getUserUploadFiles();
+        if (uploads != null) {
+            uploads.forEach(file -> this.update(digest, file));
+        }
+        for (String input : new TreeSet<>(node.inputs())) {
+            this.update(digest, input);
+            String path = agentContext.getArtifacts().get(input);
+            this.update(digest, path != null && FileUtil.exist(path) ? FileUtil.readUtf8String(path) : null);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Find Completed
+     *
+     * @param agentContext agent context
+     * @param node         node
+     * @param inputHash    input hash
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public String findCompleted(AgentContext agentContext, AgentChainNode node, String inputHash) {
+        if (StrUtil.isBlank(agentContext.getRequestId())) {
+            return null;
+        }
+        synchronized (this) {
+            ChainCheckpoint checkpoint = this.load(agentContext.getSessionId());
+            if (checkpoint == null || !agentContext.getRequestId().equals(checkpoint.getRequestId())) {
+                return null;
+            }
+            ChainCheckpoint.Stage stage = checkpoint.getStages().get(node.agentKey());
+            if (stage == null
+                || stage.getStatus() != StageStatus.COMPLETED
+                || !inputHash.equals(stage.getInputHash())
+                || StrUtil.isBlank(stage.getOutputPath())
+                || !FileUtil.exist(stage.getOutputPath())) {
+                return null;
+            }
+            return stage.getOutputPath();
+        }
+    }
+
+    /**
+     * Record
+     *
+     * @param agentContext agent context
+     * @param node         node
+     * @param inputHash    input hash
+     * @param status       status
+     * @param outputPath   output path
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public void record(AgentContext agentContext, AgentChainNode node, String inputHash, StageStatus status, String outputPath) {
+        String sessionId = agentContext.getSessionId();
+        synchronized (this) {
+            ChainCheckpoint checkpoint = this.load(sessionId);
+            if (checkpoint == null || !Objects.equals(agentContext.getRequestId(), checkpoint.getRequestId())) {
+                checkpoint = new ChainCheckpoint();
+                checkpoint.setRequestId(agentContext.getRequestId());
+            }
+            ChainCheckpoint.Stage stage = new ChainCheckpoint.Stage();
+            stage.setAgentKey(node.agentKey());
+            stage.setInputHash(inputHash);
+            stage.setOutputPath(outputPath);
+            stage.setStatus(status);
+            stage.setUpdateTime(System.currentTimeMillis());
+            checkpoint.getStages().put(node.agentKey(), stage);
+            this.save(sessionId, checkpoint);
+        }
+    }
+
+    /**
+     * 读取检查点
+     *
+     * @param sessionId session id
+     * @return 检查点，不存在或无法解析时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    private ChainCheckpoint load(String sessionId) {
+        Path path = this.checkpointPath(sessionId);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            return JSONS.parse(Files.readString(path, StandardCharsets.UTF_8), ChainCheckpoint.class);
+        } catch (Exception e) {
+            log.warn("检查点读取失败，忽略已有检查点: {}, {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 写入检查点
+     *
+     * @param sessionId  session id
+     * @param checkpoint checkpoint
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void save(String sessionId, ChainCheckpoint checkpoint) {
+        Path path = this.checkpointPath(sessionId);
+        Path temp = path.resolveSibling(CHECKPOINT_FILE + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(temp, JSONS.toJson(checkpoint), StandardCharsets.UTF_8);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // 检查点只影响重试效率，写入失败不中断链路
+            log.warn("检查点写入失败: {}, {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 检查点文件路径
+     *
+     * @param sessionId session id
+     * @return path
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Path checkpointPath(String sessionId) {
+        return Path.of(this.fileTools.getSessionPath(sessionId), CHECKPOINT_FILE);
+    }
+
+    /**
+     * 更新摘要，每个字段带长度前缀，null 与空字符串区分处理
+     *
+     * @param digest digest
+     * @param value  value
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void update(MessageDigest digest, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value == null ? -1 : bytes.length).array());
+        digest.update(bytes);
+    }
+
+    /**
+     * SHA-256 摘要
+     *
+     * @return message digest
+     * @since 1.0.0-SNAPSHOT
+     */
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+}
@@ -0,0 +1,854 @@
+package io.github.hijun.agent.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.config.ApplicationProperties;
+import io.github.hijun.agent.config.SessionMemoryProperties;
+import io.github.hijun.agent.config.TranscriptProperties;
+import io.github.hijun.agent.service.TranscriptStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 内存映射会话记录存储
+ * <p>
+ * 记录按写入顺序追加到 {storagePath}/transcripts/ 下固定大小的分段文件，每个分段整体映射到内存，
+ * 分段写满后新建下一个，超出保留数时删除最早的分段。记录格式：
+ * <pre>
+ * int   长度（不含自身，最后写入，为 0 表示分段内后续无数据）
+ * byte  类型：0 用户、1 助手、2 清除会话
+ * short sessionId 字节数
+ * bytes sessionId（UTF-8）
+ * bytes 消息文本（UTF-8，占满记录剩余部分）
+ * </pre>
+ * 堆内只保留每个会话最近若干条记录的位置（分段号 + 偏移），读取时从映射直接解码；
+ * 启动时顺序扫描全部分段重建索引，无需从数据库加载。
+ * <p>
+ * 索引与内存层使用相同的会话数、空闲时间与占用上限（按索引中记录的字节数计），超出时淘汰最久未访问的会话；
+ * 分段删除时有记录落在该分段的会话整体移出索引，避免只剩后半段历史。移出的会话写入清除记录，
+ * 重启后同样不会恢复，下次访问从数据库加载完整历史
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/23 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MappedTranscriptStoreImpl implements TranscriptStore {
+
+    /**
+     * 记录文件目录
+     */
+    private static final String TRANSCRIPT_DIR = "transcripts";
+
+    /**
+     * 分段文件后缀
+     */
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * 记录头长度：长度 + 类型 + sessionId 字节数
+     */
+    private static final int HEADER_BYTES = Integer.BYTES + Byte.BYTES + Short.BYTES;
+
+    /**
+     * 记录类型：用户消息
+     */
+    private static final byte KIND_USER = 0;
+
+    /**
+     * 记录类型：助手消息
+     */
+    private static final byte KIND_ASSISTANT = 1;
+
+    /**
+     * 记录类型：清除会话
+     */
+    private static final byte KIND_CLEAR = 2;
+
+    /**
+     * 文件配置
+     */
+    private final ApplicationProperties applicationProperties;
+
+    /**
+     * 会话记录配置
+     */
+    private final TranscriptProperties transcriptProperties;
+
+    /**
+     * 会话记忆配置
+     */
+    private final SessionMemoryProperties sessionMemoryProperties;
+
+    /**
+     * 分段，按分段号排列，访问时需持有 this 锁
+     */
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+
+    /**
+     * 各会话的记录位置，按访问顺序排列，访问时需持有 this 锁
+     */
+    private final LinkedHashMap<String, SessionIndex> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 记录目录
+     */
+    private Path directory;
+
+    /**
+     * 当前写入的分段
+     */
+    private Segment active;
+
+    /**
+     * 是否可用
+     */
+    private volatile boolean available;
+
+    /**
+     * 追加的记录数
+     */
+    private long appended;
+
+    /**
+     * 删除的分段数
+     */
+    private long retired;
+
+    /**
+     * 未写入的消息数
+     */
+    private long skipped;
+
+    /**
+     * 淘汰的会话数
+     */
+    private long evicted;
+
+    /**
+     * 索引中记录的字节数合计
+     */
+    private long totalBytes;
+
+    /**
+     * 上下文刷新后打开分段文件并重建索引
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void open() {
+        if (this.available || !Boolean.TRUE.equals(this.transcriptProperties.getEnabled())) {
+            return;
+        }
+        try {
+            String storagePath = StrUtil.blankToDefault(this.applicationProperties.getStoragePath(), "/tmp/agent-files/");
+            this.directory = Paths.get(storagePath, TRANSCRIPT_DIR);
+            Files.createDirectories(this.directory);
+            try (Stream<Path> files = Files.list(this.directory)) {
+                for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                    String name = file.getFileName().toString();
+                    int id = Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    this.segments.put(id, this.map(id));
+                }
+            }
+            for (Segment segment : this.segments.values()) {
+                this.scan(segment);
+            }
+            if (this.segments.isEmpty()) {
+                this.roll();
+            } else {
+                this.active = this.segments.lastEntry().getValue();
+            }
+            this.evictOverflow(null);
+            this.available = true;
+            log.info("会话记录已打开: {}, 分段 {} 个, 会话 {} 个", this.directory, this.segments.size(), this.sessions.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("会话记录打开失败，会话历史改为保存在堆内: {}", e.getMessage());
+            this.segments.clear();
+            this.sessions.clear();
+            this.totalBytes = 0;
+            this.active = null;
+        }
+    }
+
+    /**
+     * Is Available
+     *
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public boolean isAvailable() {
+        return this.available;
+    }
+
+    /**
+     * Contains
+     *
+     * @param sessionId session id
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized boolean contains(String sessionId) {
+        if (!this.available) {
+            return false;
+        }
+        this.evictIdle(System.currentTimeMillis());
+        return this.sessions.containsKey(sessionId);
+    }
+
+    /**
+     * 追加消息，只保存有文本内容的用户与助手消息
+     * <p>
+     * 会话不在索引中时先登记，即使没有可写入的消息，之后的追加才会写入记录
+     *
+     * @param conversationId 会话ID
+     * @param messages       messages
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void add(String conversationId, List<Message> messages) {
+        if (!this.available || !StringUtils.hasText(conversationId) || messages == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        this.evictIdle(now);
+        byte[] sessionBytes = conversationId.getBytes(StandardCharsets.UTF_8);
+        SessionIndex index = this.sessions.get(conversationId);
+        if (index == null) {
+            index = new SessionIndex(this.maxMessages());
+            this.sessions.put(conversationId, index);
+        }
+        for (Message message : messages) {
+            byte kind = message.getMessageType() == MessageType.USER ? KIND_USER
+                    : message.getMessageType() == MessageType.ASSISTANT ? KIND_ASSISTANT : -1;
+            if (kind < 0 || !StringUtils.hasText(message.getText())) {
+                continue;
+            }
+            byte[] text = message.getText().getBytes(StandardCharsets.UTF_8);
+            long position = this.write(kind, sessionBytes, text);
+            if (position < 0) {
+                continue;
+            }
+            if (this.sessions.get(conversationId) != index) {
+                // 写入时分段轮转删除了会话的早期记录，会话已整体移出，补一条清除记录使刚写入的记录重启后也不恢复
+                this.write(KIND_CLEAR, sessionBytes, new byte[0]);
+                return;
+            }
+            this.totalBytes += index.add(position, HEADER_BYTES + sessionBytes.length + text.length);
+        }
+        index.lastAccess = now;
+        this.evictOverflow(conversationId);
+    }
+
+    /**
+     * 获取会话最近的消息
+     *
+     * @param conversationId 会话ID
+     * @return 直接从映射解码的只读视图，无记录时返回空列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized List<Message> get(String conversationId) {
+        if (!this.available) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        this.evictIdle(now);
+        SessionIndex index = this.sessions.get(conversationId);
+        if (index == null) {
+            return List.of();
+        }
+        index.lastAccess = now;
+        long[] positions = index.positions();
+        List<MappedByteBuffer> buffers = new ArrayList<>(positions.length);
+        List<Integer> offsets = new ArrayList<>(positions.length);
+        for (long position : positions) {
+            Segment segment = this.segments.get(segmentId(position));
+            // 已删除分段中的记录不再可读
+            if (segment != null) {
+                buffers.add(segment.buffer());
+                offsets.add(offset(position));
+            }
+        }
+        return new TranscriptView(buffers.toArray(MappedByteBuffer[]::new),
+                offsets.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * 清除会话，写入清除记录保证重启后不再恢复
+     *
+     * @param conversationId 会话ID
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void clear(String conversationId) {
+        if (this.available) {
+            this.drop(conversationId);
+        }
+    }
+
+    /**
+     * Stats
+     *
+     * @return stats
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized Stats stats() {
+        long messages = this.sessions.values().stream().mapToLong(SessionIndex::size).sum();
+        long usedBytes = this.segments.values().stream().mapToLong(Segment::writePosition).sum();
+        long capacity = (long) this.segmentBytes() * this.segments.size();
+        return new Stats(this.available,
+                this.sessions.size(),
+                messages,
+                this.segments.size(),
+                usedBytes,
+                capacity,
+                this.appended,
+                this.retired,
+                this.evicted,
+                this.skipped);
+    }
+
+    /**
+     * 写入一条记录，当前分段空间不足时切换到新分段
+     *
+     * @param kind         记录类型
+     * @param sessionBytes sessionId
+     * @param text         消息文本
+     * @return 记录位置，写入失败时返回 -1
+     */
+    private long write(byte kind, byte[] sessionBytes, byte[] text) {
+        int recordBytes = HEADER_BYTES + sessionBytes.length + text.length;
+        if (recordBytes > this.segmentBytes() || sessionBytes.length > Short.MAX_VALUE) {
+            this.skipped++;
+            log.warn("消息超过分段大小，未写入会话记录: {} 字节", recordBytes);
+            return -1;
+        }
+        try {
+            // 预留结尾 4 字节的 0，表示分段内后续无数据
+            if (this.active.writePosition() + recordBytes + Integer.BYTES > this.segmentBytes()) {
+                this.roll();
+            }
+        } catch (IOException e) {
+            this.skipped++;
+            log.warn("创建会话记录分段失败: {}", e.getMessage());
+            return -1;
+        }
+        Segment segment = this.active;
+        MappedByteBuffer buffer = segment.buffer();
+        int offset = segment.writePosition();
+        buffer.put(offset + Integer.BYTES, kind);
+        buffer.putShort(offset + Integer.BYTES + Byte.BYTES, (short) sessionBytes.length);
+        buffer.put(offset + HEADER_BYTES, sessionBytes);
+        buffer.put(offset + HEADER_BYTES + sessionBytes.length, text);
+        // 清零记录之后的长度位，覆盖崩溃时写了一半的记录残留，扫描到此为止
+        buffer.putInt(offset + recordBytes, 0);
+        // 长度最后写入，扫描时遇到长度为 0 即停止，不会读到写了一半的记录
+        buffer.putInt(offset, recordBytes - Integer.BYTES);
+        segment.advance(recordBytes);
+        this.appended++;
+        return position(segment.id(), offset);
+    }
+
+    /**
+     * 新建分段并切换为当前写入的分段，超出保留数时删除最早的分段
+     *
+     * @throws IOException io exception
+     */
+    private void roll() throws IOException {
+        int id = this.segments.isEmpty() ? 1 : this.segments.lastKey() + 1;
+        Segment segment = this.map(id);
+        this.segments.put(id, segment);
+        this.active = segment;
+        while (this.segments.size() > this.transcriptProperties.getMaxSegments()) {
+            Map.Entry<Integer, Segment> eldest = this.segments.pollFirstEntry();
+            this.retire(eldest.getKey());
+        }
+    }
+
+    /**
+     * 删除分段文件，有记录落在该分段的会话整体移出索引
+     *
+     * @param id 分段号
+     */
+    private void retire(int id) {
+        List<String> referencing = new ArrayList<>();
+        for (Map.Entry<String, SessionIndex> entry : this.sessions.entrySet()) {
+            if (entry.getValue().references(id)) {
+                referencing.add(entry.getKey());
+            }
+        }
+        for (String sessionId : referencing) {
+            this.drop(sessionId);
+        }
+        try {
+            // 已映射的内存在缓冲区回收前仍然有效，正在读取的视图不受影响
+            Files.deleteIfExists(this.segmentPath(id));
+        } catch (IOException e) {
+            log.warn("删除会话记录分段失败: {}, {}", id, e.getMessage());
+        }
+        this.retired++;
+    }
+
+    /**
+     * 扫描分段，重建索引并确定写入位置
+     *
+     * @param segment 分段
+     */
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        int offset = 0;
+        int limit = this.segmentBytes();
+        while (offset + HEADER_BYTES <= limit) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + Integer.BYTES + length > limit) {
+                break;
+            }
+            byte kind = buffer.get(offset + Integer.BYTES);
+            int sessionLength = buffer.getShort(offset + Integer.BYTES + Byte.BYTES);
+            if (sessionLength < 0 || Byte.BYTES + Short.BYTES + sessionLength > length) {
+                break;
+            }
+            byte[] sessionBytes = new byte[sessionLength];
+            buffer.get(offset + HEADER_BYTES, sessionBytes);
+            String sessionId = new String(sessionBytes, StandardCharsets.UTF_8);
+            if (kind == KIND_CLEAR) {
+                SessionIndex removed = this.sessions.remove(sessionId);
+                if (removed != null) {
+                    this.totalBytes -= removed.bytes;
+                }
+            } else {
+                this.totalBytes += this.sessions.computeIfAbsent(sessionId, key -> new SessionIndex(this.maxMessages()))
+                        .add(position(segment.id(), offset), Integer.BYTES + length);
+            }
+            offset += Integer.BYTES + length;
+        }
+        segment.advance(offset);
+    }
+
+    /**
+     * 会话移出索引并写入清除记录，重启后不再恢复
+     *
+     * @param sessionId 会话ID
+     */
+    private void drop(String sessionId) {
+        SessionIndex removed = this.sessions.remove(sessionId);
+        if (removed == null) {
+            return;
+        }
+        this.totalBytes -= removed.bytes;
+        this.write(KIND_CLEAR, sessionId.getBytes(StandardCharsets.UTF_8), new byte[0]);
+    }
+
+    /**
+     * 淘汰空闲超时的会话，从最久未访问的开始，遇到未超时的即停止
+     *
+     * @param now 当前时间
+     */
+    private void evictIdle(long now) {
+        long expireBefore = now - this.sessionMemoryProperties.getIdleTtl().toMillis();
+        while (!this.sessions.isEmpty()) {
+            Map.Entry<String, SessionIndex> eldest = this.sessions.entrySet().iterator().next();
+            if (eldest.getValue().lastAccess >= expireBefore) {
+                return;
+            }
+            this.drop(eldest.getKey());
+            this.evicted++;
+        }
+    }
+
+    /**
+     * 按会话数与占用上限淘汰最久未访问的会话
+     *
+     * @param keep 不淘汰的会话（刚写入的会话），可为空
+     */
+    private void evictOverflow(String keep) {
+        while (this.sessions.size() > this.sessionMemoryProperties.getMaxSessions()
+                || this.totalBytes > this.sessionMemoryProperties.getMaxBytes()) {
+            String victim = null;
+            Iterator<String> iterator = this.sessions.keySet().iterator();
+            while (iterator.hasNext() && victim == null) {
+                String sessionId = iterator.next();
+                if (!sessionId.equals(keep)) {
+                    victim = sessionId;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            this.drop(victim);
+            this.evicted++;
+        }
+    }
+
+    /**
+     * 映射分段文件
+     *
+     * @param id 分段号
+     * @return 分段
+     * @throws IOException io exception
+     */
+    private Segment map(int id) throws IOException {
+        try (FileChannel channel = FileChannel.open(this.segmentPath(id),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // 映射在通道关闭后仍然有效
+            return new Segment(id, channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentBytes()));
+        }
+    }
+
+    /**
+     * 分段文件路径
+     *
+     * @param id 分段号
+     * @return path
+     */
+    private Path segmentPath(int id) {
+        return this.directory.resolve(String.format("%08d%s", id, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 分段大小
+     *
+     * @return int
+     */
+    private int segmentBytes() {
+        return this.transcriptProperties.getSegmentBytes();
+    }
+
+    /**
+     * 每个会话保留的消息数
+     *
+     * @return int
+     */
+    private int maxMessages() {
+        return this.sessionMemoryProperties.getMaxMessages();
+    }
+
+    /**
+     * 编码记录位置
+     *
+     * @param segmentId 分段号
+     * @param offset    偏移
+     * @return 位置
+     */
+    private static long position(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 记录位置中的分段号
+     *
+     * @param position 位置
+     * @return 分段号
+     */
+    private static int segmentId(long position) {
+        return (int) (position >>> 32);
+    }
+
+    /**
+     * 记录位置中的偏移
+     *
+     * @param position 位置
+     * @return 偏移
+     */
+    private static int offset(long position) {
+        return (int) position;
+    }
+
+    /**
+     * 分段
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Segment {
+
+        /**
+         * 分段号
+         */
+        private final int id;
+
+        /**
+         * 映射缓冲区，只使用绝对位置读写
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * 写入位置
+         */
+        private int writePosition;
+
+        /**
+         * Segment
+         *
+         * @param id     分段号
+         * @param buffer 映射缓冲区
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Segment(int id, MappedByteBuffer buffer) {
+            this.id = id;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Id
+         *
+         * @return int
+         * @since 1.0.0-SNAPSHOT
+         */
+        private int id() {
+            return this.id;
+        }
+
+        /**
+         * Buffer
+         *
+         * @return mapped byte buffer
+         * @since 1.0.0-SNAPSHOT
+         */
+        private MappedByteBuffer buffer() {
+            return this.buffer;
+        }
+
+        /**
+         * Write Position
+         *
+         * @return int
+         * @since 1.0.0-SNAPSHOT
+         */
+        private int writePosition() {
+            return this.writePosition;
+        }
+
+        /**
+         * 前移写入位置
+         *
+         * @param bytes 字节数
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void advance(int bytes) {
+            this.writePosition += bytes;
+        }
+    }
+
+    /**
+     * 会话索引，环形保存最近若干条记录的位置
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class SessionIndex {
+
+        /**
+         * 记录位置
+         */
+        private final long[] ring;
+
+        /**
+         * 各记录的字节数，与 ring 下标对应
+         */
+        private final int[] lengths;
+
+        /**
+         * 最早一条的下标
+         */
+        private int head;
+
+        /**
+         * 记录数
+         */
+        private int size;
+
+        /**
+         * 索引中记录的字节数合计
+         */
+        private long bytes;
+
+        /**
+         * 最近访问时间
+         */
+        private long lastAccess = System.currentTimeMillis();
+
+        /**
+         * Session Index
+         *
+         * @param capacity 保留的记录数
+         * @since 1.0.0-SNAPSHOT
+         */
+        private SessionIndex(int capacity) {
+            this.ring = new long[Math.max(capacity, 1)];
+            this.lengths = new int[this.ring.length];
+        }
+
+        /**
+         * 追加记录位置，超出容量时覆盖最早的一条
+         *
+         * @param position 记录位置
+         * @param length   记录字节数
+         * @return 索引字节数的变化量
+         * @since 1.0.0-SNAPSHOT
+         */
+        private long add(long position, int length) {
+            long delta = length;
+            if (this.size < this.ring.length) {
+                int slot = (this.head + this.size) % this.ring.length;
+                this.ring[slot] = position;
+                this.lengths[slot] = length;
+                this.size++;
+            } else {
+                delta -= this.lengths[this.head];
+                this.ring[this.head] = position;
+                this.lengths[this.head] = length;
+                this.head = (this.head + 1) % this.ring.length;
+            }
+            this.bytes += delta;
+            return delta;
+        }
+
+        /**
+         * 是否有记录落在指定分段
+         *
+         * @param segmentId 分段号
+         * @return boolean
+         * @since 1.0.0-SNAPSHOT
+         */
+        private boolean references(int segmentId) {
+            for (int i = 0; i < this.size; i++) {
+                if (MappedTranscriptStoreImpl.segmentId(this.ring[(this.head + i) % this.ring.length]) == segmentId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 按时间顺序排列的记录位置
+         *
+         * @return positions
+         * @since 1.0.0-SNAPSHOT
+         */
+        private long[] positions() {
+            long[] positions = new long[this.size];
+            for (int i = 0; i < this.size; i++) {
+                positions[i] = this.ring[(this.head + i) % this.ring.length];
+            }
+            return positions;
+        }
+
+        /**
+         * Size
+         *
+         * @return int
+         * @since 1.0.0-SNAPSHOT
+         */
+        private int size() {
+            return this.size;
+        }
+    }
+
+    /**
+     * 会话记录视图，读取时从映射解码
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/23 15:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class TranscriptView extends AbstractList<Message> implements RandomAccess {
+
+        /**
+         * 各记录所在的映射缓冲区
+         */
+        private final MappedByteBuffer[] buffers;
+
+        /**
+         * 各记录的偏移
+         */
+        private final int[] offsets;
+
+        /**
+         * Transcript View
+         *
+         * @param buffers 各记录所在的映射缓冲区
+         * @param offsets 各记录的偏移
+         * @since 1.0.0-SNAPSHOT
+         */
+        private TranscriptView(MappedByteBuffer[] buffers, int[] offsets) {
+            this.buffers = buffers;
+            this.offsets = offsets;
+        }
+
+        /**
+         * Get
+         *
+         * @param index index
+         * @return message
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public Message get(int index) {
+            MappedByteBuffer buffer = this.buffers[index];
+            int offset = this.offsets[index];
+            int length = buffer.getInt(offset);
+            byte kind = buffer.get(offset + Integer.BYTES);
+            int sessionLength = buffer.getShort(offset + Integer.BYTES + Byte.BYTES);
+            int textLength = length - Byte.BYTES - Short.BYTES - sessionLength;
+            byte[] text = new byte[textLength];
+            buffer.get(offset + HEADER_BYTES + sessionLength, text);
+            String value = new String(text, StandardCharsets.UTF_8);
+            return kind == KIND_USER ? new UserMessage(value) : new AssistantMessage(value);
+        }
+
+        /**
+         * Size
+         *
+         * @return int
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public int size() {
+            return this.offsets.length;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package io.github.hijun.agent.service.impl;
+
+import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.common.ResponseCode;
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.common.exception.BusinessException;
+import io.github.hijun.agent.config.RateLimitProperties;
+import io.github.hijun.agent.entity.dto.ContentMessage;
+import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.ModelProviderConfig;
+import io.github.hijun.agent.mapper.ModelProviderConfigMapper;
+import io.github.hijun.agent.service.ModelRateLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 模型调用限流器实现
+ * <p>
+ * 每个提供商维护一个双令牌桶（请求数 + Token 数），按分钟额度匀速补充。
+ * 等待者按会话分组排队，放行时在会话之间轮转（round-robin），同一会话内保持 FIFO。
+ * 提供商额度从 model_provider_config 读取并定期刷新，未配置时使用 {@link RateLimitProperties} 默认值
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/15 10:40
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelRateLimiterImpl implements ModelRateLimiter {
+
+    /**
+     * 未指定提供商时使用的限流键
+     */
+    private static final String DEFAULT_PROVIDER = "default";
+
+    /**
+     * 未指定会话时使用的排队键
+     */
+    private static final String ANONYMOUS_SESSION = "anonymous";
+
+    /**
+     * 不限流时返回的空许可
+     */
+    private static final Permit NOOP_PERMIT = actualTokens -> {
+    };
+
+    /**
+     * 限流配置
+     */
+    private final RateLimitProperties rateLimitProperties;
+
+    /**
+     * 模型提供商配置 Mapper
+     */
+    private final ModelProviderConfigMapper modelProviderConfigMapper;
+
+    /**
+     * 提供商令牌桶
+     * <p>
+     * Key: 提供商配置ID，未指定时为 default
+     */
+    private final Map<String, ProviderBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Acquire
+     *
+     * @param agentContext agent context
+     * @param promptTokens prompt tokens
+     * @return permit
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public Permit acquire(AgentContext agentContext, long promptTokens) {
+        if (!Boolean.TRUE.equals(this.rateLimitProperties.getEnabled())) {
+            return NOOP_PERMIT;
+        }
+        String providerKey = agentContext == null || StrUtil.isBlank(agentContext.getModelProvider())
+                ? DEFAULT_PROVIDER
+                : agentContext.getModelProvider();
+        ProviderBucket bucket = this.getBucket(providerKey);
+        long cost = Math.max(1L, promptTokens + this.rateLimitProperties.getCompletionTokens());
+        Waiter waiter = new Waiter(this.sessionKey(agentContext), cost);
+
+        long estimateNanos;
+        synchronized (bucket) {
+            bucket.enqueue(waiter);
+            bucket.dispatch();
+            estimateNanos = waiter.granted ? 0L : bucket.estimateWaitNanos();
+        }
+        if (!waiter.granted && estimateNanos >= this.rateLimitProperties.getNotifyThreshold().toNanos()) {
+            this.notifyWaiting(agentContext, estimateNanos);
+        }
+        if (!waiter.granted) {
+            this.await(bucket, waiter, providerKey);
+        }
+        return new BucketPermit(bucket, cost);
+    }
+
+    /**
+     * 阻塞等待直到被放行
+     *
+     * @param bucket      令牌桶
+     * @param waiter      等待者
+     * @param providerKey 提供商键
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void await(ProviderBucket bucket, Waiter waiter, String providerKey) {
+        long deadline = System.nanoTime() + this.rateLimitProperties.getMaxWait().toNanos();
+        synchronized (bucket) {
+            try {
+                while (!waiter.granted) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        bucket.remove(waiter);
+                        log.warn("Rate limit wait timeout: provider={}, session={}", providerKey, waiter.sessionKey);
+                        throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "模型调用排队超时，请稍后重试");
+                    }
+                    long waitNanos = Math.min(remaining, Math.max(bucket.nanosUntilHeadFits(), TimeUnit.MILLISECONDS.toNanos(5)));
+                    TimeUnit.NANOSECONDS.timedWait(bucket, waitNanos);
+                    bucket.dispatch();
+                }
+            } catch (InterruptedException e) {
+                bucket.remove(waiter);
+                Thread.currentThread().interrupt();
+                throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "模型调用排队被中断");
+            }
+        }
+    }
+
+    /**
+     * 推送排队等待提示
+     *
+     * @param agentContext  agent context
+     * @param estimateNanos 预计等待时长（纳秒）
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void notifyWaiting(AgentContext agentContext, long estimateNanos) {
+        if (agentContext == null || agentContext.getSseEmitter() == null) {
+            return;
+        }
+        long seconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(estimateNanos));
+        agentContext.sendMessage(ContentMessage.builder()
+                .type(SseMessageType.THINKING)
+                .content("模型调用繁忙，正在排队，预计等待 " + seconds + " 秒...")
+                .build());
+    }
+
+    /**
+     * 获取提供商令牌桶，超过刷新间隔时重新读取额度
+     *
+     * @param providerKey 提供商键
+     * @return provider bucket
+     * @since 1.0.0-SNAPSHOT
+     */
+    private ProviderBucket getBucket(String providerKey) {
+        ProviderBucket bucket = this.buckets.computeIfAbsent(providerKey,
+                key -> new ProviderBucket(this.loadRpm(key), this.loadTpm(key)));
+        long refreshNanos = this.rateLimitProperties.getQuotaRefreshInterval().toNanos();
+        if (System.nanoTime() - bucket.loadedAt > refreshNanos) {
+            ModelProviderConfig config = this.loadConfig(providerKey);
+            synchronized (bucket) {
+                bucket.updateQuota(this.resolveRpm(config), this.resolveTpm(config));
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * 读取提供商 RPM 额度
+     *
+     * @param providerKey 提供商键
+     * @return rpm
+     * @since 1.0.0-SNAPSHOT
+     */
+    private long loadRpm(String providerKey) {
+        return this.resolveRpm(this.loadConfig(providerKey));
+    }
+
+    /**
+     * 读取提供商 TPM 额度
+     *
+     * @param providerKey 提供商键
+     * @return tpm
+     * @since 1.0.0-SNAPSHOT
+     */
+    private long loadTpm(String providerKey) {
+        return this.resolveTpm(this.loadConfig(providerKey));
+    }
+
+    /**
+     * Resolve Rpm
+     *
+     * @param config config
+     * @return long
+     * @since 1.0.0-SNAPSHOT
+     */
+    private long resolveRpm(ModelProviderConfig config) {
+        Integer rpm = config != null && config.getRpmLimit() != null && config.getRpmLimit() > 0
+                ? config.getRpmLimit()
+                : this.rateLimitProperties.getRequestsPerMinute();
+        return Math.max(1, rpm);
+    }
+
+    /**
+     * Resolve Tpm
+     *
+     * @param config config
+     * @return long
+     * @since 1.0.0-SNAPSHOT
+     */
+    private long resolveTpm(ModelProviderConfig config) {
+        Integer tpm = config != null && config.getTpmLimit() != null && config.getTpmLimit() > 0
+                ? config.getTpmLimit()
+                : this.rateLimitProperties.getTokensPerMinute();
+        return Math.max(1, tpm);
+    }
+
+    /**
+     * 读取提供商配置，读取失败时回退到默认额度
+     *
+     * @param providerKey 提供商键
+     * @return model provider config
+     * @since 1.0.0-SNAPSHOT
+     */
+    private ModelProviderConfig loadConfig(String providerKey) {
+        if (DEFAULT_PROVIDER.equals(providerKey)) {
+            return null;
+        }
+        try {
+            return this.modelProviderConfigMapper.selectById(providerKey);
+        } catch (Exception e) {
+            log.warn("Failed to load rate limit quota for provider {}: {}", providerKey, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Session Key
+     *
+     * @param agentContext agent context
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    private String sessionKey(AgentContext agentContext) {
+        if (agentContext == null) {
+            return ANONYMOUS_SESSION;
+        }
+        if (StrUtil.isNotBlank(agentContext.getSessionId())) {
+            return agentContext.getSessionId();
+        }
+        return StrUtil.blankToDefault(agentContext.getRequestId(), ANONYMOUS_SESSION);
+    }
+
+    /**
+     * 排队等待者
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/15 10:40
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Waiter {
+
+        /**
+         * session key.
+         */
+        private final String sessionKey;
+
+        /**
+         * 预估 Token 消耗
+         */
+        private final long cost;
+
+        /**
+         * 是否已放行，仅在持有桶锁时读写
+         */
+        private boolean granted;
+
+        /**
+         * Waiter
+         *
+         * @param sessionKey session key
+         * @param cost       cost
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Waiter(String sessionKey, long cost) {
+            this.sessionKey = sessionKey;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * 提供商令牌桶
+     * <p>
+     * 所有方法都需在持有对象锁时调用
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/15 10:40
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class ProviderBucket {
+
+        /**
+         * 每分钟纳秒数
+         */
+        private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+        /**
+         * 按会话分组的等待队列，LinkedHashMap 的插入顺序即轮转顺序
+         */
+        private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+
+        /**
+         * 每分钟请求数额度
+         */
+        private long rpm;
+
+        /**
+         * 每分钟 Token 额度
+         */
+        private long tpm;
+
+        /**
+         * 剩余请求令牌
+         */
+        private double requestTokens;
+
+        /**
+         * 剩余 Token 令牌
+         */
+        private double tokenTokens;
+
+        /**
+         * 上次补充时间
+         */
+        private long lastRefill;
+
+        /**
+         * 额度加载时间
+         */
+        private volatile long loadedAt;
+
+        /**
+         * Provider Bucket
+         *
+         * @param rpm rpm
+         * @param tpm tpm
+         * @since 1.0.0-SNAPSHOT
+         */
+        private ProviderBucket(long rpm, long tpm) {
+            this.rpm = rpm;
+            this.tpm = tpm;
+            this.requestTokens = rpm;
+            this.tokenTokens = tpm;
+            this.lastRefill = System.nanoTime();
+            this.loadedAt = this.lastRefill;
+        }
+
+        /**
+         * 更新额度
+         *
+         * @param rpm rpm
+         * @param tpm tpm
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void updateQuota(long rpm, long tpm) {
+            this.refill();
+            this.rpm = rpm;
+            this.tpm = tpm;
+            this.requestTokens = Math.min(this.requestTokens, rpm);
+            this.tokenTokens = Math.min(this.tokenTokens, tpm);
+            this.loadedAt = System.nanoTime();
+        }
+
+        /**
+         * 按流逝时间补充令牌
+         *
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void refill() {
+            long now = System.nanoTime();
+            long elapsed = now - this.lastRefill;
+            if (elapsed <= 0) {
+                return;
+            }
+            this.requestTokens = Math.min(this.rpm, this.requestTokens + elapsed * this.rpm / NANOS_PER_MINUTE);
+            this.tokenTokens = Math.min(this.tpm, this.tokenTokens + elapsed * this.tpm / NANOS_PER_MINUTE);
+            this.lastRefill = now;
+        }
+
+        /**
+         * Enqueue
+         *
+         * @param waiter waiter
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void enqueue(Waiter waiter) {
+            this.queues.computeIfAbsent(waiter.sessionKey, key -> new ArrayDeque<>()).addLast(waiter);
+        }
+
+        /**
+         * Remove
+         *
+         * @param waiter waiter
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void remove(Waiter waiter) {
+            ArrayDeque<Waiter> queue = this.queues.get(waiter.sessionKey);
+            if (queue == null) {
+                return;
+            }
+            queue.remove(waiter);
+            if (queue.isEmpty()) {
+                this.queues.remove(waiter.sessionKey);
+            }
+            this.notifyAll();
+        }
+
+        /**
+         * 按会话轮转放行额度足够的等待者
+         * <p>
+         * 超过单桶容量的请求按桶容量计费，保证大请求最终也能被放行
+         *
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void dispatch() {
+            this.refill();
+            boolean granted = false;
+            while (!this.queues.isEmpty()) {
+                Iterator<Map.Entry<String, ArrayDeque<Waiter>>> iterator = this.queues.entrySet().iterator();
+                Map.Entry<String, ArrayDeque<Waiter>> head = iterator.next();
+                ArrayDeque<Waiter> queue = head.getValue();
+                Waiter waiter = queue.peekFirst();
+                long cost = Math.min(waiter.cost, this.tpm);
+                if (this.requestTokens < 1 || this.tokenTokens < cost) {
+                    break;
+                }
+                this.requestTokens -= 1;
+                this.tokenTokens -= cost;
+                waiter.granted = true;
+                queue.pollFirst();
+                iterator.remove();
+                if (!queue.isEmpty()) {
+                    // 放到队尾，下一个放行机会轮到其他会话
+                    this.queues.put(head.getKey(), queue);
+                }
+                granted = true;
+            }
+            if (granted) {
+                this.notifyAll();
+            }
+        }
+
+        /**
+         * 队首等待者额度补足所需时间
+         *
+         * @return long
+         * @since 1.0.0-SNAPSHOT
+         */
+        private long nanosUntilHeadFits() {
+            if (this.queues.isEmpty()) {
+                return 0L;
+            }
+            Waiter waiter = this.queues.values().iterator().next().peekFirst();
+            return this.nanosFor(1, Math.min(waiter.cost, this.tpm));
+        }
+
+        /**
+         * 预估所有排队请求被放行所需时间
+         *
+         * @return long
+         * @since 1.0.0-SNAPSHOT
+         */
+        private long estimateWaitNanos() {
+            long requests = 0L;
+            long tokens = 0L;
+            for (ArrayDeque<Waiter> queue : this.queues.values()) {
+                for (Waiter waiter : queue) {
+                    requests++;
+                    tokens += Math.min(waiter.cost, this.tpm);
+                }
+            }
+            return this.nanosFor(requests, tokens);
+        }
+
+        /**
+         * Nanos For
+         *
+         * @param requests 需要的请求令牌
+         * @param tokens   需要的 Token 令牌
+         * @return long
+         * @since 1.0.0-SNAPSHOT
+         */
+        private long nanosFor(long requests, long tokens) {
+            double requestDeficit = Math.max(0D, requests - this.requestTokens);
+            double tokenDeficit = Math.max(0D, tokens - this.tokenTokens);
+            double nanos = Math.max(requestDeficit * NANOS_PER_MINUTE / this.rpm, tokenDeficit * NANOS_PER_MINUTE / this.tpm);
+            return (long) Math.ceil(nanos);
+        }
+
+        /**
+         * 按实际用量校正 Token 令牌
+         *
+         * @param delta 正数为退还，负数为补扣
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void adjust(long delta) {
+            this.refill();
+            this.tokenTokens = Math.max(-this.tpm, Math.min(this.tpm, this.tokenTokens + delta));
+            this.dispatch();
+        }
+    }
+
+    /**
+     * 令牌桶许可
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/15 10:40
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    @RequiredArgsConstructor
+    private static final class BucketPermit implements Permit {
+
+        /**
+         * bucket.
+         */
+        private final ProviderBucket bucket;
+
+        /**
+         * 已扣除的 Token 数
+         */
+        private final long charged;
+
+        /**
+         * released.
+         */
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        /**
+         * Release
+         *
+         * @param actualTokens actual tokens
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public void release(long actualTokens) {
+            if (actualTokens <= 0 || !this.released.compareAndSet(false, true)) {
+                return;
+            }
+            synchronized (this.bucket) {
+                this.bucket.adjust(Math.min(this.charged, this.bucket.tpm) - actualTokens);
+            }
+        }
+    }
+}
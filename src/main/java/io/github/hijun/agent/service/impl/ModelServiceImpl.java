@@ -1,28 +1,30 @@
 package io.github.hijun.agent.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
-import io.github.hijun.agent.common.enums.AdditionalFeatures;
+import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.config.BudgetProperties;
 import io.github.hijun.agent.entity.dto.ContentMessage;
+import io.github.hijun.agent.entity.po.AgentBudget;
 import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.MessageCompressor;
+import io.github.hijun.agent.entity.po.MessageLog;
 import io.github.hijun.agent.entity.req.ChatRequest;
+import io.github.hijun.agent.service.AgentRunScheduler;
 import io.github.hijun.agent.service.ModelService;
+import io.github.hijun.agent.service.RunRegistry;
+import io.github.hijun.agent.service.SessionMemoryStore;
+import io.github.hijun.agent.service.ToolRegistry;
 import io.github.hijun.agent.service.strategy.MultiCollaborationAgent;
-import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.annotation.Tool;
-import org.springframework.ai.tool.method.MethodToolCallbackProvider;
-import org.springframework.beans.BeansException;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 /**
  * React Agent Service Impl - 基于Spring AI的ReAct实现
@@ -36,7 +38,7 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ModelServiceImpl implements ModelService, ApplicationContextAware {
+public class ModelServiceImpl implements ModelService {
 
     /**
      * Agent
@@ -44,87 +46,134 @@ public class ModelServiceImpl implements ModelService, ApplicationContextAware {
     private final MultiCollaborationAgent multiCollaborationAgent;
 
     /**
-     * application context.
+     * 工具注册表
      */
-    private ApplicationContext applicationContext;
+    private final ToolRegistry toolRegistry;
+
+    /**
+     * 运行预算配置
+     */
+    private final BudgetProperties budgetProperties;
+
+    /**
+     * 会话记忆
+     */
+    private final SessionMemoryStore sessionMemoryStore;
+
+    /**
+     * 对话运行登记
+     */
+    private final RunRegistry runRegistry;
+
+    /**
+     * 对话运行调度器
+     */
+    private final AgentRunScheduler agentRunScheduler;
+
+    /**
+     * 消息压缩器
+     */
+    private final MessageCompressor messageCompressor;
 
     /**
      * Chat
      *
      * @param chatRequest chat request
+     * @param tenant      租户标识
      * @return sse emitter
      * @since 3.4.3
      */
     @Override
-    public SseEmitter agent(ChatRequest chatRequest) {
+    public SseEmitter agent(ChatRequest chatRequest, String tenant) {
         SseEmitter sseEmitter = new SseEmitter(30_0000L);
+        // 预算从提交时开始计时，排队等待也计入，保证运行在客户端连接超时前收尾
+        long submittedAt = System.currentTimeMillis();
+        // 同一 requestId 的重试附加到已有运行，同一会话的请求依次执行
+        this.runRegistry.submit(chatRequest.getSessionId(),
+                chatRequest.getRequestId(),
+                sseEmitter,
+                this.agentRunScheduler.executor(tenant, chatRequest.getMode()),
+                runStream -> this.run(chatRequest, runStream, submittedAt));
+        sseEmitter.onCompletion(() -> {
+            log.info("SessionId: {}, RequestId: {} completed", chatRequest.getSessionId(), chatRequest.getRequestId());
+        });
+        sseEmitter.onTimeout(() -> {
+            log.info("SessionId: {}, RequestId: {} timeout", chatRequest.getSessionId(), chatRequest.getRequestId());
+        });
+        return sseEmitter;
+    }
 
+    /**
+     * 执行一次对话运行
+     *
+     * @param chatRequest chat request
+     * @param sseEmitter  运行输出
+     * @param submittedAt 提交时间（毫秒时间戳）
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void run(ChatRequest chatRequest, SseEmitter sseEmitter, long submittedAt) {
         // 设置当前请求的模型配置（如果提供了）
         String modelProvider = chatRequest.getModelProvider();
-        String modelId = chatRequest.getModelId();
 
-        try {
-            String userPrompt = chatRequest.getUserPrompt();
-            ToolCallback[] toolCallbacks = this.getToolCallbacks(chatRequest);
-            AgentContext agentContext = AgentContext.builder()
-                    .sessionId(chatRequest.getSessionId())
-                    .requestId(chatRequest.getRequestId())
-                    .sseEmitter(sseEmitter)
-                    .userPrompt(userPrompt)
-                    .chatMode(chatRequest.getMode())
-                    .userQuery(chatRequest.getUserQuery())
-                    .sseEmitter(sseEmitter)
-                    .toolCallbacks(Arrays.asList(toolCallbacks))
-                    .build();
-            CompletableFuture.runAsync(() -> {
-                agentContext.sendMessage(ContentMessage.builder().content("PING").build());
-                this.multiCollaborationAgent.run(agentContext);
-            });
-            sseEmitter.onCompletion(() -> {
-                log.info("SessionId: {}, RequestId: {} completed", agentContext.getSessionId(), agentContext.getRequestId());
-            });
-            sseEmitter.onTimeout(() -> {
-                log.info("SessionId: {}, RequestId: {} timeout", agentContext.getSessionId(), agentContext.getRequestId());
-            });
-            return sseEmitter;
-        } catch (Exception e) {
-            throw e;
+        String userPrompt = chatRequest.getUserPrompt();
+        ToolRegistry.ToolView toolView = this.toolRegistry.getView(chatRequest.getAdditionalFeatures());
+        AgentContext agentContext = AgentContext.builder()
+                .sessionId(chatRequest.getSessionId())
+                .requestId(chatRequest.getRequestId())
+                .sseEmitter(sseEmitter)
+                .userPrompt(userPrompt)
+                .chatMode(chatRequest.getMode())
+                .modelProvider(modelProvider)
+                .userQuery(chatRequest.getUserQuery())
+                .toolCallbacks(toolView.callbacks())
+                .toolCallbackIndex(toolView.index())
+                .budget(this.createBudget(submittedAt))
+                .messageLog(new MessageLog(MessageLog.DEFAULT_WINDOW, List.of(), this.messageCompressor))
+                .build();
+        agentContext.sendMessage(ContentMessage.builder().content("PING").build());
+        List<Message> history = this.sessionMemoryStore.history(agentContext.getSessionId());
+        if (!history.isEmpty()) {
+            agentContext.updateMemory(history);
         }
+        MultiCollaborationAgent.FinalResult finalResult = this.multiCollaborationAgent.run(agentContext);
+        this.rememberTurn(agentContext, finalResult);
     }
 
-
     /**
-     * Get Tool Callbacks
+     * 记录本轮对话的问题与最终回答，供同一会话的后续请求使用
      *
-     * @param chatRequest chat request
-     * @return list
+     * @param agentContext agent context
+     * @param finalResult  final result
      * @since 1.0.0-SNAPSHOT
      */
-    private ToolCallback[] getToolCallbacks(ChatRequest chatRequest) {
-        // 处理额外的功能
-        List<AdditionalFeatures> additionalFeatures = chatRequest.getAdditionalFeatures();
-
-        if (this.applicationContext != null) {
-            Map<String, Object> beans = this.applicationContext.getBeansWithAnnotation(Tool.class);
-            if (CollUtil.isNotEmpty(beans)) {
-                MethodToolCallbackProvider methodToolCallbackProvider = MethodToolCallbackProvider.builder()
-                        .toolObjects(beans.values())
-                        .build();
-                return methodToolCallbackProvider.getToolCallbacks();
-            }
+    private void rememberTurn(AgentContext agentContext, MultiCollaborationAgent.FinalResult finalResult) {
+        if (finalResult == null || !StringUtils.hasText(finalResult.content())) {
+            return;
         }
-        return new ToolCallback[0];
+        String answer = finalResult.content();
+        if (CollUtil.isNotEmpty(finalResult.fileInfo())) {
+            answer = answer + "\n\n相关文件:\n" + String.join("\n", finalResult.fileInfo());
+        }
+        this.sessionMemoryStore.append(agentContext.getSessionId(),
+                agentContext.getRequestId(),
+                List.of(new UserMessage(StrUtil.nullToEmpty(agentContext.getUserQuery())), new AssistantMessage(answer)));
     }
 
     /**
-     * Set Application Context
+     * 创建本次请求的运行预算
      *
-     * @param applicationContext application context
-     * @throws BeansException
+     * @param submittedAt 提交时间（毫秒时间戳）
+     * @return 运行预算，未启用时返回 null
      * @since 1.0.0-SNAPSHOT
      */
-    @Override
-    public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
-        this.applicationContext = applicationContext;
+    private AgentBudget createBudget(long submittedAt) {
+        if (!Boolean.TRUE.equals(this.budgetProperties.getEnabled())) {
+            return null;
+        }
+        return new AgentBudget(submittedAt,
+                this.budgetProperties.getMaxDuration(),
+                this.budgetProperties.getMaxTokens(),
+                this.budgetProperties.getMaxToolCalls(),
+                this.budgetProperties.getReserve());
     }
 }
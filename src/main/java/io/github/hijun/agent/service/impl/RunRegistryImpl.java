@@ -0,0 +1,320 @@
+package io.github.hijun.agent.service.impl;
+
+import io.github.hijun.agent.common.ResponseCode;
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.common.exception.BusinessException;
+import io.github.hijun.agent.config.RunRegistryProperties;
+import io.github.hijun.agent.entity.dto.ContentMessage;
+import io.github.hijun.agent.entity.po.RunStream;
+import io.github.hijun.agent.service.RunRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 对话运行登记实现
+ * <p>
+ * 运行按 sessionId + requestId 登记，成功结束后保留一段时间供重试请求回放；异常结束的运行立即移除，
+ * 重试请求重新执行，由链检查点接着已完成的节点继续；
+ * 每个会话维护一条 {@link CompletableFuture} 链，新的运行接在链尾，上一个运行结束（无论成功与否）后才开始
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/22 10:00
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RunRegistryImpl implements RunRegistry {
+
+    /**
+     * 过期运行的清理间隔（毫秒）
+     */
+    private static final long PURGE_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * 运行登记配置
+     */
+    private final RunRegistryProperties runRegistryProperties;
+
+    /**
+     * 登记中的运行，Key 为 sessionId:requestId
+     */
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    /**
+     * 各会话的运行链，访问时需持有自身的锁
+     */
+    private final Map<String, SessionChain> sessions = new HashMap<>();
+
+    /**
+     * 启动的运行数
+     */
+    private final LongAdder started = new LongAdder();
+
+    /**
+     * 重复请求数
+     */
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * 排队的请求数
+     */
+    private final LongAdder queued = new LongAdder();
+
+    /**
+     * 拒绝的请求数
+     */
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 上次清理时间
+     */
+    private volatile long lastPurge;
+
+    /**
+     * 提交对话运行
+     *
+     * @param sessionId 会话ID，为空时不排队
+     * @param requestId 请求ID，为空时不去重
+     * @param client    客户端连接
+     * @param executor  运行执行器
+     * @param task      运行任务
+     * @return 是否启动了新的运行
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public boolean submit(String sessionId,
+                          String requestId,
+                          SseEmitter client,
+                          Executor executor,
+                          Consumer<SseEmitter> task) {
+        if (!Boolean.TRUE.equals(this.runRegistryProperties.getEnabled())) {
+            this.started.increment();
+            CompletableFuture.runAsync(() -> task.accept(client), executor);
+            return true;
+        }
+        this.purgeExpired();
+
+        Run run = new Run(new RunStream(this.runRegistryProperties.getReplayLimit()));
+        String runKey = StringUtils.hasText(requestId) ? sessionId + ":" + requestId : null;
+        if (runKey != null) {
+            Run existing = this.runs.putIfAbsent(runKey, run);
+            // 异常结束但尚未移除的运行不再回放，由本次请求替换后重新执行
+            while (existing != null && existing.stream().isFailed()) {
+                existing = this.runs.replace(runKey, existing, run) ? null : this.runs.putIfAbsent(runKey, run);
+            }
+            if (existing != null) {
+                log.info("重复请求附加到已有运行, SessionId: {}, RequestId: {}", sessionId, requestId);
+                this.deduplicated.increment();
+                existing.stream().attach(client);
+                return false;
+            }
+        }
+        if (!StringUtils.hasText(sessionId)) {
+            run.stream().attach(client);
+            this.started.increment();
+            CompletableFuture.runAsync(() -> this.execute(run, task), executor)
+                    .whenComplete((ignored, e) -> this.finish(runKey, run));
+            return true;
+        }
+
+        synchronized (this.sessions) {
+            SessionChain chain = this.sessions.computeIfAbsent(sessionId, key -> new SessionChain());
+            // size 含执行中的运行，排队数为 size - 1，上限不含执行中的运行
+            if (chain.size - 1 >= this.runRegistryProperties.getMaxQueuedPerSession()) {
+                if (runKey != null) {
+                    this.runs.remove(runKey, run);
+                }
+                this.rejected.increment();
+                throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "当前会话排队的请求过多，请稍后重试");
+            }
+            run.stream().attach(client);
+            if (chain.size > 0) {
+                this.queued.increment();
+                this.notifyQueued(run.stream());
+            }
+            chain.size++;
+            CompletableFuture<Void> current = chain.tail
+                    .handle((ignored, e) -> null)
+                    .thenRunAsync(() -> this.execute(run, task), executor);
+            chain.tail = current;
+            current.whenComplete((ignored, e) -> {
+                this.finish(runKey, run);
+                synchronized (this.sessions) {
+                    chain.size--;
+                    if (chain.size == 0) {
+                        this.sessions.remove(sessionId, chain);
+                    }
+                }
+            });
+        }
+        this.started.increment();
+        return true;
+    }
+
+    /**
+     * 运行统计
+     *
+     * @return 统计信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public Stats stats() {
+        int sessionCount;
+        synchronized (this.sessions) {
+            sessionCount = this.sessions.size();
+        }
+        return new Stats(this.runs.size(),
+                sessionCount,
+                this.started.sum(),
+                this.deduplicated.sum(),
+                this.queued.sum(),
+                this.rejected.sum());
+    }
+
+    /**
+     * 执行运行任务，任务结束时关闭运行输出
+     *
+     * @param run  运行
+     * @param task 运行任务
+     */
+    private void execute(Run run, Consumer<SseEmitter> task) {
+        try {
+            task.accept(run.stream());
+        } catch (RuntimeException e) {
+            log.error("对话运行失败", e);
+            run.stream().completeWithError(e);
+        } finally {
+            run.stream().complete();
+        }
+    }
+
+    /**
+     * 标记运行结束，异常结束的运行移出登记，同一 requestId 的重试重新执行
+     *
+     * @param runKey 登记 Key，为空时未登记
+     * @param run    运行
+     */
+    private void finish(String runKey, Run run) {
+        run.finish();
+        if (runKey != null && run.stream().isFailed()) {
+            this.runs.remove(runKey, run);
+        }
+    }
+
+    /**
+     * 提示请求正在排队
+     *
+     * @param stream 运行输出
+     */
+    private void notifyQueued(RunStream stream) {
+        try {
+            stream.send(ContentMessage.builder()
+                    .type(SseMessageType.THINKING)
+                    .content("同一会话的上一个请求仍在处理，当前请求已排队")
+                    .build());
+        } catch (IOException e) {
+            log.warn("发送排队提示失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清理超过保留时间的已结束运行
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - this.lastPurge < PURGE_INTERVAL_MILLIS) {
+            return;
+        }
+        this.lastPurge = now;
+        long retention = this.runRegistryProperties.getRetention().toMillis();
+        this.runs.values().removeIf(run -> run.finishedAt > 0 && now - run.finishedAt > retention);
+    }
+
+    /**
+     * 会话运行链
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class SessionChain {
+
+        /**
+         * 链尾
+         */
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        /**
+         * 执行中与排队中的运行数
+         */
+        private int size;
+    }
+
+    /**
+     * 登记的运行
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/22 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Run {
+
+        /**
+         * 运行输出
+         */
+        private final RunStream stream;
+
+        /**
+         * 结束时间，未结束时为 0
+         */
+        private volatile long finishedAt;
+
+        /**
+         * Run
+         *
+         * @param stream 运行输出
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Run(RunStream stream) {
+            this.stream = stream;
+        }
+
+        /**
+         * Stream
+         *
+         * @return run stream
+         * @since 1.0.0-SNAPSHOT
+         */
+        private RunStream stream() {
+            return this.stream;
+        }
+
+        /**
+         * 标记结束
+         *
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void finish() {
+            this.finishedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package io.github.hijun.agent.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.github.hijun.agent.config.SessionMemoryProperties;
+import io.github.hijun.agent.entity.po.ChatSessionMessage;
+import io.github.hijun.agent.mapper.ChatSessionMessageMapper;
+import io.github.hijun.agent.service.SessionMemoryStore;
+import io.github.hijun.agent.service.TranscriptStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 会话记忆存储实现
+ * <p>
+ * 内存层为按访问顺序排列的 LinkedHashMap：每次访问时先淘汰空闲超时的会话（按访问顺序从最久未访问的开始，遇到未超时的即停止），
+ * 写入后按会话数与内存占用上限淘汰最久未访问的会话。数据库写入提交到单线程队列，队列满时丢弃并计数。
+ * 会话记录文件可用时历史改由 {@link TranscriptStore} 保存在堆外，不再占用内存层，
+ * 会话数、空闲时间与占用上限同样作用于其索引，被淘汰的会话下次访问时从数据库重新加载
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/19 14:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionMemoryStoreImpl implements SessionMemoryStore {
+
+    /**
+     * 每条消息的固定内存开销估算（对象头、引用等）
+     */
+    private static final long MESSAGE_OVERHEAD_BYTES = 64L;
+
+    /**
+     * 会话记忆配置
+     */
+    private final SessionMemoryProperties sessionMemoryProperties;
+
+    /**
+     * 会话消息 Mapper
+     */
+    private final ChatSessionMessageMapper chatSessionMessageMapper;
+
+    /**
+     * 异步写入线程池
+     */
+    private final ThreadPoolTaskExecutor sessionMemoryWriter;
+
+    /**
+     * 会话记录存储
+     */
+    private final TranscriptStore transcriptStore;
+
+    /**
+     * 内存中的会话，按访问顺序排列
+     */
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 命中次数
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * 未命中次数
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 淘汰次数
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * 已写入数据库的消息数
+     */
+    private final AtomicLong persisted = new AtomicLong();
+
+    /**
+     * 丢弃的消息数
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 内存占用估算，受 this 锁保护
+     */
+    private long totalBytes;
+
+    /**
+     * History
+     *
+     * @param sessionId session id
+     * @return list
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public List<Message> history(String sessionId) {
+        if (!this.isEnabled() || !StringUtils.hasText(sessionId)) {
+            return List.of();
+        }
+        if (this.transcriptStore.isAvailable()) {
+            return this.transcriptHistory(sessionId);
+        }
+        synchronized (this) {
+            this.evictIdle(System.currentTimeMillis());
+            Session session = this.sessions.get(sessionId);
+            if (session != null) {
+                this.hits.incrementAndGet();
+                session.lastAccess = System.currentTimeMillis();
+                return session.toMessages();
+            }
+        }
+        this.misses.incrementAndGet();
+        List<StoredMessage> loaded = this.load(sessionId);
+        synchronized (this) {
+            Session session = this.sessions.get(sessionId);
+            if (session == null) {
+                session = new Session();
+                this.sessions.put(sessionId, session);
+                for (StoredMessage message : loaded) {
+                    this.add(session, message);
+                }
+                this.evictOverflow(sessionId);
+            }
+            session.lastAccess = System.currentTimeMillis();
+            return session.toMessages();
+        }
+    }
+
+    /**
+     * Append
+     *
+     * @param sessionId session id
+     * @param requestId request id
+     * @param messages  messages
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public void append(String sessionId, String requestId, List<Message> messages) {
+        if (!this.isEnabled() || !StringUtils.hasText(sessionId) || messages == null) {
+            return;
+        }
+        List<StoredMessage> stored = messages.stream()
+                .filter(message -> message.getMessageType() == MessageType.USER
+                        || message.getMessageType() == MessageType.ASSISTANT)
+                .filter(message -> StringUtils.hasText(message.getText()))
+                .map(message -> StoredMessage.of(message.getMessageType(), message.getText()))
+                .toList();
+        if (stored.isEmpty()) {
+            return;
+        }
+        boolean persist = Boolean.TRUE.equals(this.sessionMemoryProperties.getPersist());
+        if (this.transcriptStore.isAvailable()) {
+            synchronized (this) {
+                // 与内存层相同，持久化时会话没有记录则不写入，下次访问从数据库加载完整历史
+                if (!persist || this.transcriptStore.contains(sessionId)) {
+                    this.transcriptStore.add(sessionId, stored.stream().map(StoredMessage::toMessage).toList());
+                }
+            }
+        } else {
+            this.appendHeap(sessionId, stored, persist);
+        }
+        if (persist) {
+            this.writeBehind(sessionId, requestId, stored);
+        }
+    }
+
+    /**
+     * 追加到内存层
+     *
+     * @param sessionId session id
+     * @param stored    消息
+     * @param persist   是否持久化
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void appendHeap(String sessionId, List<StoredMessage> stored, boolean persist) {
+        synchronized (this) {
+            Session session = this.sessions.get(sessionId);
+            // 持久化时会话不在内存中则不新建，下次访问从数据库加载完整历史
+            if (session == null && !persist) {
+                session = new Session();
+                this.sessions.put(sessionId, session);
+            }
+            if (session != null) {
+                for (StoredMessage message : stored) {
+                    this.add(session, message);
+                }
+                session.lastAccess = System.currentTimeMillis();
+                this.evictOverflow(sessionId);
+            }
+        }
+    }
+
+    /**
+     * Evict
+     *
+     * @param sessionId session id
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized void evict(String sessionId) {
+        this.transcriptStore.clear(sessionId);
+        Session session = this.sessions.remove(sessionId);
+        if (session != null) {
+            this.totalBytes -= session.bytes;
+        }
+    }
+
+    /**
+     * Stats
+     *
+     * @return stats
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public synchronized Stats stats() {
+        long messageCount = this.sessions.values().stream().mapToLong(session -> session.messages.size()).sum();
+        return new Stats(this.sessions.size(),
+                messageCount,
+                this.totalBytes,
+                this.sessionMemoryProperties.getMaxBytes(),
+                this.hits.get(),
+                this.misses.get(),
+                this.evictions.get(),
+                this.persisted.get(),
+                this.dropped.get());
+    }
+
+    /**
+     * 从会话记录读取历史，没有记录时从数据库加载并写入会话记录
+     * <p>
+     * 数据库中也没有历史（新会话）时同样登记到会话记录，与内存层未命中时新建空会话一致，
+     * 本轮结束后的追加直接写入会话记录，下一轮不依赖异步落库是否已完成
+     *
+     * @param sessionId session id
+     * @return 从文件映射解码的只读视图
+     * @since 1.0.0-SNAPSHOT
+     */
+    private List<Message> transcriptHistory(String sessionId) {
+        if (this.transcriptStore.contains(sessionId)) {
+            this.hits.incrementAndGet();
+            return this.transcriptStore.get(sessionId);
+        }
+        this.misses.incrementAndGet();
+        List<StoredMessage> loaded = this.load(sessionId);
+        synchronized (this) {
+            if (!this.transcriptStore.contains(sessionId)) {
+                this.transcriptStore.add(sessionId, loaded.stream().map(StoredMessage::toMessage).toList());
+            }
+        }
+        return this.transcriptStore.get(sessionId);
+    }
+
+    /**
+     * 从数据库加载最近的消息
+     *
+     * @param sessionId session id
+     * @return 按时间顺序排列的消息，未启用持久化或加载失败时返回空列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    private List<StoredMessage> load(String sessionId) {
+        if (!Boolean.TRUE.equals(this.sessionMemoryProperties.getPersist())) {
+            return List.of();
+        }
+        try {
+            List<ChatSessionMessage> rows = this.chatSessionMessageMapper.selectList(
+                    new LambdaQueryWrapper<ChatSessionMessage>()
+                            .eq(ChatSessionMessage::getSessionId, sessionId)
+                            .orderByDesc(ChatSessionMessage::getCreateTime)
+                            .orderByDesc(ChatSessionMessage::getId)
+                            .last("LIMIT " + this.sessionMemoryProperties.getMaxMessages()));
+            List<StoredMessage> messages = new ArrayList<>(rows.size());
+            for (ChatSessionMessage row : rows) {
+                messages.add(StoredMessage.of(MessageType.valueOf(row.getMessageType()), row.getContent()));
+            }
+            Collections.reverse(messages);
+            return messages;
+        } catch (RuntimeException e) {
+            log.warn("加载会话历史失败: {}, {}", sessionId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 异步写入数据库
+     *
+     * @param sessionId session id
+     * @param requestId request id
+     * @param messages  messages
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void writeBehind(String sessionId, String requestId, List<StoredMessage> messages) {
+        long now = System.currentTimeMillis();
+        List<ChatSessionMessage> rows = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            StoredMessage message = messages.get(i);
+            ChatSessionMessage row = ChatSessionMessage.builder()
+                    .sessionId(sessionId)
+                    .requestId(requestId)
+                    .messageType(message.type().name())
+                    .content(message.text())
+                    .build();
+            // 同一轮内的消息按顺序递增时间戳，保证加载时顺序稳定
+            row.setCreateTime(now + i);
+            row.setUpdateTime(now + i);
+            rows.add(row);
+        }
+        try {
+            this.sessionMemoryWriter.execute(() -> {
+                for (ChatSessionMessage row : rows) {
+                    try {
+                        this.chatSessionMessageMapper.insert(row);
+                        this.persisted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        log.warn("写入会话消息失败: {}, {}", sessionId, e.getMessage());
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            this.dropped.addAndGet(rows.size());
+            log.warn("会话消息写入队列已满，丢弃 {} 条消息: {}", rows.size(), sessionId);
+        }
+    }
+
+    /**
+     * 向会话追加消息并按条数上限裁剪，调用方需持有 this 锁
+     *
+     * @param session session
+     * @param message message
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void add(Session session, StoredMessage message) {
+        session.messages.addLast(message);
+        session.bytes += message.bytes();
+        this.totalBytes += message.bytes();
+        while (session.messages.size() > this.sessionMemoryProperties.getMaxMessages()) {
+            StoredMessage removed = session.messages.removeFirst();
+            session.bytes -= removed.bytes();
+            this.totalBytes -= removed.bytes();
+        }
+    }
+
+    /**
+     * 淘汰空闲超时的会话，调用方需持有 this 锁
+     *
+     * @param now 当前时间
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void evictIdle(long now) {
+        long expireBefore = now - this.sessionMemoryProperties.getIdleTtl().toMillis();
+        Iterator<Map.Entry<String, Session>> iterator = this.sessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Session session = iterator.next().getValue();
+            if (session.lastAccess >= expireBefore) {
+                break;
+            }
+            iterator.remove();
+            this.totalBytes -= session.bytes;
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 按会话数与内存占用上限淘汰最久未访问的会话，调用方需持有 this 锁
+     *
+     * @param keep 不淘汰的会话（刚写入的会话）
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void evictOverflow(String keep) {
+        Iterator<Map.Entry<String, Session>> iterator = this.sessions.entrySet().iterator();
+        while (iterator.hasNext()
+                && (this.sessions.size() > this.sessionMemoryProperties.getMaxSessions()
+                || this.totalBytes > this.sessionMemoryProperties.getMaxBytes())) {
+            Map.Entry<String, Session> eldest = iterator.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            iterator.remove();
+            this.totalBytes -= eldest.getValue().bytes;
+            this.evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 是否启用
+     *
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(this.sessionMemoryProperties.getEnabled());
+    }
+
+    /**
+     * 内存中的会话
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/19 14:30
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class Session {
+
+        /**
+         * 消息
+         */
+        private final ArrayDeque<StoredMessage> messages = new ArrayDeque<>();
+
+        /**
+         * 内存占用估算
+         */
+        private long bytes;
+
+        /**
+         * 最近访问时间
+         */
+        private long lastAccess = System.currentTimeMillis();
+
+        /**
+         * 转换为消息列表
+         *
+         * @return list
+         * @since 1.0.0-SNAPSHOT
+         */
+        private List<Message> toMessages() {
+            List<Message> result = new ArrayList<>(this.messages.size());
+            for (StoredMessage message : this.messages) {
+                result.add(message.toMessage());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 存储的消息
+     *
+     * @param type  消息类型
+     * @param text  消息文本
+     * @param bytes 内存占用估算
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/19 14:30
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record StoredMessage(MessageType type, String text, long bytes) {
+
+        /**
+         * 创建存储消息
+         *
+         * @param type 消息类型
+         * @param text 消息文本
+         * @return stored message
+         * @since 1.0.0-SNAPSHOT
+         */
+        private static StoredMessage of(MessageType type, String text) {
+            String value = text != null ? text : "";
+            return new StoredMessage(type, value, MESSAGE_OVERHEAD_BYTES + 2L * value.length());
+        }
+
+        /**
+         * 转换为 Spring AI 消息
+         *
+         * @return message
+         * @since 1.0.0-SNAPSHOT
+         */
+        private Message toMessage() {
+            return this.type == MessageType.USER ? new UserMessage(this.text) : new AssistantMessage(this.text);
+        }
+    }
+}
@@ -19,9 +19,12 @@ import io.github.hijun.agent.mapper.ModelConfigMapper;
 import io.github.hijun.agent.mapper.ModelProviderConfigMapper;
 import io.github.hijun.agent.service.ModelProviderStrategy;
 import io.github.hijun.agent.service.SettingsService;
+import io.github.hijun.agent.service.ToolRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,6 +66,11 @@ public class SettingsServiceImpl implements SettingsService {
      */
     private final ModelProviderStrategy modelProviderStrategy;
 
+    /**
+     * 工具注册表
+     */
+    private final ToolRegistry toolRegistry;
+
     /**
      * Get Config
      *
@@ -159,6 +167,7 @@ public class SettingsServiceImpl implements SettingsService {
             // 保存 MCP 服务器配置
             if (request.getMcpServers() != null) {
                 this.saveMcpServers(request.getMcpServers());
+                this.refreshToolRegistry();
             }
 
             // 保存模型提供商配置
@@ -266,6 +275,24 @@ public class SettingsServiceImpl implements SettingsService {
         }
     }
 
+    /**
+     * 事务提交后重建工具注册表，使 MCP 服务器配置变更对新的对话生效
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void refreshToolRegistry() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.toolRegistry.refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                SettingsServiceImpl.this.toolRegistry.refresh();
+            }
+        });
+    }
+
     /**
      * 保存模型提供商配置
      * <p>
@@ -284,6 +311,8 @@ public class SettingsServiceImpl implements SettingsService {
                             .enabled(provider.getEnabled() != null ? provider.getEnabled() : true)
                             .apiKey(provider.getApiKey())
                             .baseUrl(provider.getBaseUrl())
+                            .rpmLimit(provider.getRpmLimit())
+                            .tpmLimit(provider.getTpmLimit())
                             .build();
                     this.modelProviderConfigMapper.updateById(config);
 
@@ -304,6 +333,8 @@ public class SettingsServiceImpl implements SettingsService {
                             .enabled(provider.getEnabled() != null ? provider.getEnabled() : true)
                             .apiKey(provider.getApiKey())
                             .baseUrl(provider.getBaseUrl())
+                            .rpmLimit(provider.getRpmLimit())
+                            .tpmLimit(provider.getTpmLimit())
                             .build();
                     this.modelProviderConfigMapper.insert(config);
 
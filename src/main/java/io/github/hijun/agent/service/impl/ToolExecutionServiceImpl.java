@@ -0,0 +1,313 @@
+package io.github.hijun.agent.service.impl;
+
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.common.enums.ToolStatus;
+import io.github.hijun.agent.config.ToolProperties;
+import io.github.hijun.agent.entity.dto.ToolMessage;
+import io.github.hijun.agent.entity.po.AgentBudget;
+import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.service.ToolExecutionService;
+import io.github.hijun.agent.service.ToolRegistry;
+import io.github.hijun.agent.service.ToolResultCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 工具执行服务实现
+ * <p>
+ * 每个调用运行在独立的虚拟线程上，按工具名称使用信号量做并发隔离；
+ * 超时从提交时开始计算（包含等待并发许可的时间），超时后中断执行线程并返回超时说明；
+ * 开启缓存的工具先查询结果缓存，命中时不再执行，成功的结果写入缓存
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 16:30
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+public class ToolExecutionServiceImpl implements ToolExecutionService {
+
+    /**
+     * 工具注册表
+     */
+    private final ToolRegistry toolRegistry;
+
+    /**
+     * 工具调用执行器
+     */
+    private final ExecutorService toolExecutor;
+
+    /**
+     * 工具结果缓存
+     */
+    private final ToolResultCache toolResultCache;
+
+    /**
+     * 各工具的并发许可，Key: 工具名称；并发上限变化时（配置修改或工具注册表刷新后）按新上限重建
+     */
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Tool Execution Service Impl
+     *
+     * @param toolRegistry    tool registry
+     * @param toolExecutor    tool executor
+     * @param toolResultCache tool result cache
+     * @since 1.0.0-SNAPSHOT
+     */
+    public ToolExecutionServiceImpl(ToolRegistry toolRegistry,
+                                    @Qualifier("toolExecutor") ExecutorService toolExecutor,
+                                    ToolResultCache toolResultCache) {
+        this.toolRegistry = toolRegistry;
+        this.toolExecutor = toolExecutor;
+        this.toolResultCache = toolResultCache;
+    }
+
+    /**
+     * Execute
+     *
+     * @param agentContext agent context
+     * @param toolCalls    tool calls
+     * @return list
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public List<ToolResponse> execute(AgentContext agentContext, List<AssistantMessage.ToolCall> toolCalls) {
+        List<PendingCall> pendingCalls = new ArrayList<>(toolCalls.size());
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            pendingCalls.add(this.start(agentContext, toolCall));
+        }
+
+        List<ToolResponse> responses = new ArrayList<>(pendingCalls.size());
+        for (PendingCall pendingCall : pendingCalls) {
+            responses.add(this.await(agentContext, pendingCall));
+        }
+        return responses;
+    }
+
+    /**
+     * Submit
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @return completable future
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public CompletableFuture<ToolResponse> submit(AgentContext agentContext, AssistantMessage.ToolCall toolCall) {
+        PendingCall pendingCall = this.start(agentContext, toolCall);
+        // 等待在虚拟线程上进行，调用方线程不阻塞
+        CompletableFuture<ToolResponse> response = CompletableFuture.supplyAsync(
+                () -> this.await(agentContext, pendingCall), this.toolExecutor);
+        // 取消返回的 future 时同时取消工具执行本身
+        response.whenComplete((ignored, throwable) -> {
+            if (response.isCancelled()) {
+                pendingCall.future().cancel(true);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * 开始单个调用：推送开始消息、查询缓存、提交执行并计入运行预算
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @return pending call
+     * @since 1.0.0-SNAPSHOT
+     */
+    private PendingCall start(AgentContext agentContext, AssistantMessage.ToolCall toolCall) {
+        ToolProperties.ToolLimit limit = this.toolRegistry.getLimit(toolCall.name());
+        this.sendMessage(agentContext, toolCall, SseMessageType.TOOL_CALL_START, ToolStatus.CALLING, null, null, false);
+        long startNanos = System.nanoTime();
+        String cachedResult = this.toolResultCache.get(agentContext, toolCall, limit.getCacheScope());
+        Future<String> future = cachedResult != null
+                ? CompletableFuture.completedFuture(cachedResult)
+                : this.toolExecutor.submit(() -> this.invoke(agentContext, toolCall, limit));
+        AgentBudget budget = agentContext.getBudget();
+        if (budget != null && cachedResult == null) {
+            budget.addToolCalls(1);
+        }
+        return new PendingCall(toolCall, limit, startNanos, future, cachedResult != null);
+    }
+
+    /**
+     * 等待单个调用完成
+     * <p>
+     * 等待时间取工具超时时间与运行预算剩余时间中的较小值
+     *
+     * @param agentContext agent context
+     * @param pendingCall  pending call
+     * @return tool response
+     * @since 1.0.0-SNAPSHOT
+     */
+    private ToolResponse await(AgentContext agentContext, PendingCall pendingCall) {
+        AssistantMessage.ToolCall toolCall = pendingCall.toolCall();
+        long timeoutNanos = pendingCall.limit().getTimeout().toNanos();
+        long remaining = timeoutNanos - (System.nanoTime() - pendingCall.startNanos());
+        AgentBudget budget = agentContext.getBudget();
+        boolean budgetBound = false;
+        if (budget != null && budget.remaining().toNanos() < remaining) {
+            remaining = budget.remaining().toNanos();
+            budgetBound = true;
+        }
+        String result;
+        ToolStatus status;
+        try {
+            result = pendingCall.future().get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+            status = ToolStatus.SUCCESS;
+            if (!pendingCall.cached()) {
+                this.toolResultCache.put(agentContext, toolCall, pendingCall.limit().getCacheScope(), result);
+            }
+        } catch (TimeoutException e) {
+            pendingCall.future().cancel(true);
+            log.warn("Tool call timeout: {} after {}, budget bound: {}", toolCall.name(), pendingCall.limit().getTimeout(), budgetBound);
+            result = budgetBound
+                    ? "工具调用未完成: " + toolCall.name() + "，本次运行时间已用完"
+                    : "工具调用超时: " + toolCall.name() + "，超时时间 " + pendingCall.limit().getTimeout().toSeconds() + " 秒";
+            status = ToolStatus.FAILED;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Tool call error: {}, {}", toolCall.name(), cause.getMessage());
+            result = cause.getMessage();
+            status = ToolStatus.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pendingCall.future().cancel(true);
+            result = "工具调用被中断: " + toolCall.name();
+            status = ToolStatus.FAILED;
+        } catch (CancellationException e) {
+            result = "工具调用已取消: " + toolCall.name();
+            status = ToolStatus.FAILED;
+        }
+        long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendingCall.startNanos());
+        this.sendMessage(agentContext, toolCall, SseMessageType.TOOL_CALL_RESULT, status, result, duration, pendingCall.cached());
+        return new ToolResponse(toolCall.id(), toolCall.name(), result);
+    }
+
+    /**
+     * 在并发隔离下调用工具
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @param limit        tool limit
+     * @return 工具结果
+     * @throws Exception 工具不存在、工具异常、隔离拒绝或中断
+     * @since 1.0.0-SNAPSHOT
+     */
+    private String invoke(AgentContext agentContext,
+                          AssistantMessage.ToolCall toolCall,
+                          ToolProperties.ToolLimit limit) throws Exception {
+        String toolName = toolCall.name();
+        ToolCallback toolCallback = agentContext.resolveTool(toolName);
+        if (toolCallback == null) {
+            log.warn("Tool not found: {}", toolName);
+            // 以失败结束，不写入结果缓存，工具在注册表刷新后出现时可以立即调用
+            throw new IllegalStateException("工具不存在: " + toolName);
+        }
+        int maxConcurrency = limit.getMaxConcurrency();
+        // 已占用旧许可的调用仍释放到旧的许可上，切换期间的并发数可能短暂超过新上限
+        Semaphore bulkhead = this.bulkheads.compute(toolName, (name, existing) ->
+                existing != null && existing.permits() == maxConcurrency
+                        ? existing
+                        : new Bulkhead(maxConcurrency, new Semaphore(maxConcurrency))).semaphore();
+        if (!bulkhead.tryAcquire(limit.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException("工具繁忙，请稍后重试: " + toolName);
+        }
+        try {
+            String arguments = toolCall.arguments();
+            if (!StringUtils.hasText(arguments)) {
+                log.warn("Tool call arguments are null or empty for tool: {}. Using empty JSON object as default.", toolName);
+                arguments = "{}";
+            }
+            return toolCallback.call(arguments);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * 推送工具调用消息
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @param type         消息类型
+     * @param status       调用状态
+     * @param result       调用结果
+     * @param duration     耗时（毫秒）
+     * @param cached       结果是否来自缓存
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void sendMessage(AgentContext agentContext,
+                             AssistantMessage.ToolCall toolCall,
+                             SseMessageType type,
+                             ToolStatus status,
+                             String result,
+                             Long duration,
+                             boolean cached) {
+        agentContext.sendMessage(ToolMessage.builder()
+                .type(type)
+                .id(toolCall.id())
+                .name(toolCall.name())
+                .toolStatus(status)
+                .result(result)
+                .duration(duration)
+                .cached(cached)
+                .build());
+    }
+
+    /**
+     * 执行中的调用
+     *
+     * @param toolCall   tool call
+     * @param limit      tool limit
+     * @param startNanos 提交时间
+     * @param future     future
+     * @param cached     结果是否来自缓存
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 16:30
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record PendingCall(AssistantMessage.ToolCall toolCall,
+                               ToolProperties.ToolLimit limit,
+                               long startNanos,
+                               Future<String> future,
+                               boolean cached) {
+    }
+
+    /**
+     * 工具的并发许可
+     *
+     * @param permits   创建时的并发上限
+     * @param semaphore 许可
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 16:30
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record Bulkhead(int permits, Semaphore semaphore) {
+    }
+}
@@ -0,0 +1,312 @@
+package io.github.hijun.agent.service.impl;
+
+import io.github.hijun.agent.common.ToolFeature;
+import io.github.hijun.agent.common.ToolOptions;
+import io.github.hijun.agent.common.enums.AdditionalFeatures;
+import io.github.hijun.agent.common.enums.ToolCacheScope;
+import io.github.hijun.agent.config.ToolProperties;
+import io.github.hijun.agent.service.ToolRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工具注册表实现
+ * <p>
+ * 注册表在上下文刷新时整体构建并替换；附加功能组合有限，各组合的过滤视图在首次使用时计算后缓存
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 14:10
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ToolRegistryImpl implements ToolRegistry {
+
+    /**
+     * application context.
+     */
+    private final ApplicationContext applicationContext;
+
+    /**
+     * tool properties.
+     */
+    private final ToolProperties toolProperties;
+
+    /**
+     * 当前注册表
+     */
+    private volatile Registry registry = new Registry(List.of(), Map.of(), Map.of(), Map.of());
+
+    /**
+     * 上下文刷新后构建注册表
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        this.refresh();
+    }
+
+    /**
+     * Get View
+     *
+     * @param features features
+     * @return tool view
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public ToolView getView(Collection<AdditionalFeatures> features) {
+        Set<AdditionalFeatures> enabled = features == null || features.isEmpty()
+                ? EnumSet.noneOf(AdditionalFeatures.class)
+                : EnumSet.copyOf(features);
+        Registry current = this.registry;
+        return current.views().computeIfAbsent(enabled, current::filter);
+    }
+
+    /**
+     * Resolve
+     *
+     * @param toolName tool name
+     * @return tool callback
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public ToolCallback resolve(String toolName) {
+        return toolName == null ? null : this.registry.index().get(toolName);
+    }
+
+    /**
+     * Get Limit
+     *
+     * @param toolName tool name
+     * @return tool limit
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public ToolProperties.ToolLimit getLimit(String toolName) {
+        ToolProperties.ToolLimit limit = toolName == null ? null : this.registry.limits().get(toolName);
+        return limit != null ? limit : this.resolveLimit(toolName, null);
+    }
+
+    /**
+     * Refresh
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public void refresh() {
+        Map<String, ToolCallback> index = new LinkedHashMap<>();
+        Map<String, Set<AdditionalFeatures>> requiredFeatures = new LinkedHashMap<>();
+        Map<String, ToolOptions> options = new LinkedHashMap<>();
+
+        List<Object> toolObjects = new ArrayList<>();
+        for (String beanName : this.applicationContext.getBeanDefinitionNames()) {
+            Class<?> type = this.applicationContext.getType(beanName, false);
+            if (type == null || !this.hasToolMethod(type)) {
+                continue;
+            }
+            Object bean = this.applicationContext.getBean(beanName);
+            toolObjects.add(bean);
+            this.collectMetadata(AopUtils.getTargetClass(bean), requiredFeatures, options);
+        }
+        List<ToolCallback> callbacks = new ArrayList<>();
+        if (!toolObjects.isEmpty()) {
+            callbacks.addAll(Arrays.asList(MethodToolCallbackProvider.builder()
+                    .toolObjects(toolObjects.toArray())
+                    .build()
+                    .getToolCallbacks()));
+        }
+        this.applicationContext.getBeansOfType(ToolCallbackProvider.class).forEach((beanName, provider) -> {
+            try {
+                callbacks.addAll(Arrays.asList(provider.getToolCallbacks()));
+            } catch (Exception e) {
+                log.warn("工具提供者加载失败，跳过: {}, {}", beanName, e.getMessage());
+            }
+        });
+        for (ToolCallback callback : callbacks) {
+            String name = callback.getToolDefinition().name();
+            if (index.putIfAbsent(name, callback) != null) {
+                log.warn("工具名称重复，忽略: {}", name);
+            }
+        }
+        this.toolProperties.getFeatures().forEach((name, features) -> requiredFeatures.put(name,
+                features == null || features.isEmpty() ? EnumSet.noneOf(AdditionalFeatures.class) : EnumSet.copyOf(features)));
+
+        Map<String, ToolProperties.ToolLimit> limits = new LinkedHashMap<>();
+        index.keySet().forEach(name -> limits.put(name, this.resolveLimit(name, options.get(name))));
+
+        this.registry = new Registry(List.copyOf(index.values()),
+                Map.copyOf(index),
+                Map.copyOf(requiredFeatures),
+                Map.copyOf(limits));
+        log.info("工具注册表已构建，共 {} 个工具", index.size());
+    }
+
+    /**
+     * 判断类型是否声明了 {@link Tool} 方法
+     *
+     * @param type type
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    private boolean hasToolMethod(Class<?> type) {
+        return Arrays.stream(ReflectionUtils.getAllDeclaredMethods(type))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Tool.class));
+    }
+
+    /**
+     * 收集工具方法所需的附加功能与执行选项
+     *
+     * @param type             工具类
+     * @param requiredFeatures 工具名称到附加功能的映射
+     * @param options          工具名称到执行选项的映射
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void collectMetadata(Class<?> type,
+                                 Map<String, Set<AdditionalFeatures>> requiredFeatures,
+                                 Map<String, ToolOptions> options) {
+        ToolFeature classFeature = AnnotatedElementUtils.findMergedAnnotation(type, ToolFeature.class);
+        for (Method method : ReflectionUtils.getAllDeclaredMethods(type)) {
+            Tool tool = AnnotatedElementUtils.findMergedAnnotation(method, Tool.class);
+            if (tool == null) {
+                continue;
+            }
+            String name = tool.name().isEmpty() ? method.getName() : tool.name();
+            ToolOptions toolOptions = AnnotatedElementUtils.findMergedAnnotation(method, ToolOptions.class);
+            if (toolOptions != null) {
+                options.put(name, toolOptions);
+            }
+            ToolFeature methodFeature = AnnotatedElementUtils.findMergedAnnotation(method, ToolFeature.class);
+            ToolFeature feature = methodFeature != null ? methodFeature : classFeature;
+            if (feature != null && feature.value().length > 0) {
+                requiredFeatures.put(name, EnumSet.copyOf(Arrays.asList(feature.value())));
+            }
+        }
+    }
+
+    /**
+     * 合并工具执行设置，优先级：配置 > 注解 > 默认值
+     *
+     * @param toolName 工具名称
+     * @param options  工具方法上的执行选项，可为 null
+     * @return 各字段均不为空的执行设置
+     * @since 1.0.0-SNAPSHOT
+     */
+    private ToolProperties.ToolLimit resolveLimit(String toolName, ToolOptions options) {
+        ToolProperties.ToolLimit configured = toolName == null ? null : this.toolProperties.getLimits().get(toolName);
+        ToolProperties.ToolLimit limit = new ToolProperties.ToolLimit();
+        limit.setTimeout(this.toolProperties.getDefaultTimeout());
+        limit.setMaxConcurrency(this.toolProperties.getDefaultMaxConcurrency());
+        limit.setMaxWait(this.toolProperties.getDefaultMaxWait());
+        limit.setCacheScope(ToolCacheScope.NONE);
+        if (options != null) {
+            if (options.timeoutMillis() > 0) {
+                limit.setTimeout(Duration.ofMillis(options.timeoutMillis()));
+            }
+            if (options.maxConcurrency() > 0) {
+                limit.setMaxConcurrency(options.maxConcurrency());
+            }
+            if (options.maxWaitMillis() > 0) {
+                limit.setMaxWait(Duration.ofMillis(options.maxWaitMillis()));
+            }
+            limit.setCacheScope(options.cacheScope());
+        }
+        if (configured != null) {
+            if (configured.getTimeout() != null) {
+                limit.setTimeout(configured.getTimeout());
+            }
+            if (configured.getMaxConcurrency() != null) {
+                limit.setMaxConcurrency(configured.getMaxConcurrency());
+            }
+            if (configured.getMaxWait() != null) {
+                limit.setMaxWait(configured.getMaxWait());
+            }
+            if (configured.getCacheScope() != null) {
+                limit.setCacheScope(configured.getCacheScope());
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * 不可变注册表
+     *
+     * @param callbacks        全部工具
+     * @param index            名称索引
+     * @param requiredFeatures 工具所需的附加功能，未包含的工具始终可用
+     * @param limits           工具执行设置
+     * @param views            附加功能组合到过滤视图的缓存
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 14:10
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record Registry(List<ToolCallback> callbacks,
+                            Map<String, ToolCallback> index,
+                            Map<String, Set<AdditionalFeatures>> requiredFeatures,
+                            Map<String, ToolProperties.ToolLimit> limits,
+                            Map<Set<AdditionalFeatures>, ToolView> views) {
+
+        /**
+         * Registry
+         *
+         * @param callbacks        callbacks
+         * @param index            index
+         * @param requiredFeatures required features
+         * @param limits           limits
+         * @since 1.0.0-SNAPSHOT
+         */
+        Registry(List<ToolCallback> callbacks,
+                 Map<String, ToolCallback> index,
+                 Map<String, Set<AdditionalFeatures>> requiredFeatures,
+                 Map<String, ToolProperties.ToolLimit> limits) {
+            this(callbacks, index, requiredFeatures, limits, new ConcurrentHashMap<>());
+        }
+
+        /**
+         * 按开启的附加功能过滤工具
+         *
+         * @param enabled 开启的附加功能
+         * @return tool view
+         * @since 1.0.0-SNAPSHOT
+         */
+        ToolView filter(Set<AdditionalFeatures> enabled) {
+            Map<String, ToolCallback> filtered = new LinkedHashMap<>();
+            for (ToolCallback callback : this.callbacks) {
+                String name = callback.getToolDefinition().name();
+                Set<AdditionalFeatures> required = this.requiredFeatures.get(name);
+                if (required == null || enabled.containsAll(required)) {
+                    filtered.put(name, callback);
+                }
+            }
+            return new ToolView(List.copyOf(filtered.values()), Map.copyOf(filtered));
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package io.github.hijun.agent.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.hijun.agent.common.enums.ToolCacheScope;
+import io.github.hijun.agent.config.ToolProperties;
+import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.FileWrittenEvent;
+import io.github.hijun.agent.service.ToolResultCache;
+import io.github.hijun.agent.utils.JSONS;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 工具结果缓存实现
+ * <p>
+ * 参数按 JSON 规范化（对象字段按名称排序、去除空白）后计算摘要，字段顺序不同的相同参数命中同一条缓存；
+ * 条目按访问顺序保存，超过上限时淘汰最久未访问的条目，过期条目在读取时移除
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/18 10:20
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ToolResultCacheImpl implements ToolResultCache {
+
+    /**
+     * 全局范围标识
+     */
+    private static final String GLOBAL_SCOPE = "*";
+
+    /**
+     * tool properties.
+     */
+    private final ToolProperties toolProperties;
+
+    /**
+     * 缓存条目，按访问顺序排列，访问时需持有自身的锁
+     */
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Get
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @param scope        scope
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public String get(AgentContext agentContext, AssistantMessage.ToolCall toolCall, ToolCacheScope scope) {
+        CacheKey key = this.key(agentContext, toolCall, scope);
+        if (key == null) {
+            return null;
+        }
+        synchronized (this.entries) {
+            CacheEntry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt() < System.currentTimeMillis()) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry.result();
+        }
+    }
+
+    /**
+     * Put
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @param scope        scope
+     * @param result       result
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public void put(AgentContext agentContext, AssistantMessage.ToolCall toolCall, ToolCacheScope scope, String result) {
+        CacheKey key = this.key(agentContext, toolCall, scope);
+        if (key == null || result == null) {
+            return;
+        }
+        Duration ttl = scope == ToolCacheScope.GLOBAL
+                ? this.toolProperties.getGlobalCacheTtl()
+                : this.toolProperties.getSessionCacheTtl();
+        CacheEntry entry = new CacheEntry(this.canonicalArguments(toolCall.arguments()),
+                result,
+                System.currentTimeMillis() + ttl.toMillis());
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+            this.evict();
+        }
+    }
+
+    /**
+     * Invalidate Path
+     *
+     * @param paths paths
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public void invalidatePath(String... paths) {
+        List<String> targets = new ArrayList<>();
+        for (String path : paths) {
+            if (StringUtils.hasText(path)) {
+                targets.add(path);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        synchronized (this.entries) {
+            this.entries.values().removeIf(entry -> targets.stream().anyMatch(entry.arguments()::contains));
+        }
+    }
+
+    /**
+     * 文件写入后失效相关缓存
+     *
+     * @param event file written event
+     * @since 1.0.0-SNAPSHOT
+     */
+    @EventListener
+    public void onFileWritten(FileWrittenEvent event) {
+        this.invalidatePath(event.fullPath(), event.relativePath());
+    }
+
+    /**
+     * 构建缓存 Key
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @param scope        scope
+     * @return 缓存 Key，不可缓存时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    private CacheKey key(AgentContext agentContext, AssistantMessage.ToolCall toolCall, ToolCacheScope scope) {
+        if (scope == null || scope == ToolCacheScope.NONE) {
+            return null;
+        }
+        String scopeId = scope == ToolCacheScope.GLOBAL ? GLOBAL_SCOPE : agentContext.getSessionId();
+        if (scopeId == null) {
+            return null;
+        }
+        return new CacheKey(scopeId, toolCall.name(), this.sha256(this.canonicalArguments(toolCall.arguments())));
+    }
+
+    /**
+     * 规范化参数
+     *
+     * @param arguments 原始参数
+     * @return 规范化后的参数，无法解析为 JSON 时返回去除首尾空白的原文
+     * @since 1.0.0-SNAPSHOT
+     */
+    private String canonicalArguments(String arguments) {
+        if (!StringUtils.hasText(arguments)) {
+            return "{}";
+        }
+        try {
+            JsonNode node = JSONS.getObjectMapper().readTree(arguments);
+            StringBuilder builder = new StringBuilder(arguments.length());
+            this.appendCanonical(node, builder);
+            return builder.toString();
+        } catch (Exception e) {
+            return arguments.strip();
+        }
+    }
+
+    /**
+     * 按字段名排序输出 JSON 节点
+     *
+     * @param node    JSON 节点
+     * @param builder 输出
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void appendCanonical(JsonNode node, StringBuilder builder) {
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            names.sort(Comparator.naturalOrder());
+            builder.append('{');
+            for (int i = 0; i < names.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(JSONS.toJson(names.get(i))).append(':');
+                this.appendCanonical(node.get(names.get(i)), builder);
+            }
+            builder.append('}');
+        } else if (node.isArray()) {
+            builder.append('[');
+            for (int i = 0; i < node.size(); i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                this.appendCanonical(node.get(i), builder);
+            }
+            builder.append(']');
+        } else {
+            builder.append(node.toString());
+        }
+    }
+
+    /**
+     * 超出上限时从最久未访问的条目开始淘汰，调用方需持有 entries 的锁
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void evict() {
+        Iterator<CacheEntry> iterator = this.entries.values().iterator();
+        while (this.entries.size() > this.toolProperties.getCacheMaxEntries() && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * SHA-256 摘要
+     *
+     * @param value value
+     * @return 十六进制摘要
+     * @since 1.0.0-SNAPSHOT
+     */
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    /**
+     * 缓存 Key
+     *
+     * @param scopeId      范围标识（会话ID或全局）
+     * @param toolName     工具名称
+     * @param argumentHash 规范化参数摘要
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/18 10:20
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record CacheKey(String scopeId, String toolName, String argumentHash) {
+    }
+
+    /**
+     * 缓存条目
+     *
+     * @param arguments 规范化参数，用于按文件路径失效
+     * @param result    工具结果
+     * @param expireAt  过期时间
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/18 10:20
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record CacheEntry(String arguments, String result, long expireAt) {
+    }
+}
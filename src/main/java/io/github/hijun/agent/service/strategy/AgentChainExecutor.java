@@ -0,0 +1,282 @@
+package io.github.hijun.agent.service.strategy;
+
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.common.enums.StageStatus;
+import io.github.hijun.agent.config.AgentChainProperties;
+import io.github.hijun.agent.entity.dto.AgentSwitchMessage;
+import io.github.hijun.agent.entity.po.AgentBudget;
+import io.github.hijun.agent.entity.po.AgentChainNode;
+import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.CallResponse;
+import io.github.hijun.agent.service.ChainCheckpointService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * 智能体链 DAG 执行器。
+ *
+ * <p>按节点声明的输入/输出产物构建依赖关系：节点的全部输入产物就绪后立即提交到有界线程池执行，
+ * 互不依赖的节点并行运行，端到端耗时取决于关键路径而不是所有阶段之和。</p>
+ *
+ * <ul>
+ *   <li>执行前校验：输入产物必须由图中节点产出或已存在于上下文中，且图中不能有环</li>
+ *   <li>节点执行失败时，依赖它的下游节点不再执行，整个链路以失败结束</li>
+ *   <li>节点产出的文件路径写入 {@link AgentContext#getArtifacts()}，供下游与最终结果使用</li>
+ *   <li>每个节点的输入摘要、输出文件与状态记录为检查点，同一请求重试时已完成且输入未变化的节点直接复用输出</li>
+ *   <li>运行预算即将耗尽时不再启动新的节点，已完成节点的检查点保留，重试时从中断处继续</li>
+ * </ul>
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/16 10:05
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Component
+public class AgentChainExecutor {
+
+    /**
+     * 编排器名称，作为根节点的来源智能体名称
+     */
+    private static final String ORCHESTRATOR_NAME = "MultiCollaborationAgent";
+
+    /**
+     * agent manager.
+     */
+    private final AgentManager agentManager;
+
+    /**
+     * 节点执行线程池
+     */
+    private final ThreadPoolTaskExecutor agentChainTaskExecutor;
+
+    /**
+     * 检查点服务
+     */
+    private final ChainCheckpointService chainCheckpointService;
+
+    /**
+     * 智能体链配置
+     */
+    private final AgentChainProperties agentChainProperties;
+
+    /**
+     * Agent Chain Executor
+     *
+     * @param agentManager           agent manager
+     * @param agentChainTaskExecutor agent chain task executor
+     * @param chainCheckpointService chain checkpoint service
+     * @param agentChainProperties   agent chain properties
+     * @since 1.0.0-SNAPSHOT
+     */
+    public AgentChainExecutor(AgentManager agentManager,
+                              @Qualifier("agentChainTaskExecutor") ThreadPoolTaskExecutor agentChainTaskExecutor,
+                              ChainCheckpointService chainCheckpointService,
+                              AgentChainProperties agentChainProperties) {
+        this.agentManager = agentManager;
+        this.agentChainTaskExecutor = agentChainTaskExecutor;
+        this.chainCheckpointService = chainCheckpointService;
+        this.agentChainProperties = agentChainProperties;
+    }
+
+    /**
+     * 执行智能体链
+     *
+     * @param agentContext 智能体上下文
+     * @param graph        智能体链节点
+     * @return 执行结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    public ChainResult execute(AgentContext agentContext, List<AgentChainNode> graph) {
+        List<AgentChainNode> ordered = this.sort(graph, agentContext.getArtifacts().keySet());
+        Map<String, AgentChainNode> producers = new HashMap<>();
+        ordered.forEach(node -> node.outputs().forEach(output -> producers.put(output, node)));
+
+        Map<AgentChainNode, CompletableFuture<CallResponse>> futures = new LinkedHashMap<>();
+        for (AgentChainNode node : ordered) {
+            List<AgentChainNode> upstream = node.inputs().stream()
+                    .map(producers::get)
+                    .filter(producer -> producer != null && producer != node)
+                    .distinct()
+                    .toList();
+            CompletableFuture<?>[] dependencies = upstream.stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<CallResponse> future = CompletableFuture.allOf(dependencies)
+                    .thenApplyAsync(ignored -> this.runNode(agentContext, node, upstream), this.agentChainTaskExecutor);
+            futures.put(node, future);
+        }
+
+        List<String> files = new ArrayList<>();
+        try {
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("智能体链执行失败: {}", cause.getMessage());
+            return new ChainResult(false, cause.getMessage(), List.of());
+        }
+        futures.values().forEach(future -> {
+            CallResponse response = future.join();
+            if (response.getData() != null) {
+                files.add(response.getData().toString());
+            }
+        });
+        return new ChainResult(true, "内容生成完成", files);
+    }
+
+    /**
+     * 执行单个节点
+     *
+     * @param agentContext 智能体上下文
+     * @param node         节点
+     * @param upstream     上游节点
+     * @return 调用响应
+     * @since 1.0.0-SNAPSHOT
+     */
+    private CallResponse runNode(AgentContext agentContext, AgentChainNode node, List<AgentChainNode> upstream) {
+        String fromAgent = upstream.isEmpty()
+                ? ORCHESTRATOR_NAME
+                : upstream.stream().map(item -> shortName(item.agentKey())).collect(Collectors.joining(","));
+
+        boolean checkpoint = Boolean.TRUE.equals(this.agentChainProperties.getCheckpoint());
+        String inputHash = checkpoint ? this.chainCheckpointService.inputHash(agentContext, node) : null;
+        String reusedOutput = checkpoint ? this.chainCheckpointService.findCompleted(agentContext, node, inputHash) : null;
+        if (reusedOutput != null) {
+            log.info("复用检查点结果: {}, {}", node.agentKey(), reusedOutput);
+            this.sendAgentSwitch(agentContext, fromAgent, shortName(node.agentKey()), "复用已完成的结果");
+            node.outputs().forEach(output -> agentContext.getArtifacts().put(output, reusedOutput));
+            return CallResponse.builder().success(true).message("复用检查点结果").data(reusedOutput).build();
+        }
+        AgentBudget budget = agentContext.getBudget();
+        String wrapUpReason = budget != null ? budget.wrapUpReason() : null;
+        if (wrapUpReason != null) {
+            throw new IllegalStateException(wrapUpReason + "，未执行: " + shortName(node.agentKey()));
+        }
+        this.sendAgentSwitch(agentContext, fromAgent, shortName(node.agentKey()), "依赖步骤完成");
+
+        BaseLLM<?> agent = this.agentManager.getAgent(node.agentKey());
+        if (agent == null) {
+            throw new IllegalStateException("智能体不存在: " + node.agentKey());
+        }
+        if (checkpoint) {
+            this.chainCheckpointService.record(agentContext, node, inputHash, StageStatus.RUNNING, null);
+        }
+        CallResponse response;
+        try {
+            Object result = agent.run(agentContext);
+            response = result instanceof CallResponse callResponse
+                    ? callResponse
+                    : CallResponse.builder().success(result != null).data(result).build();
+            if (!Boolean.TRUE.equals(response.getSuccess())) {
+                throw new IllegalStateException("智能体执行失败: " + response.getMessage());
+            }
+        } catch (RuntimeException e) {
+            if (checkpoint) {
+                this.chainCheckpointService.record(agentContext, node, inputHash, StageStatus.FAILED, null);
+            }
+            throw e;
+        }
+        String outputPath = response.getData() != null ? response.getData().toString() : null;
+        if (outputPath != null) {
+            node.outputs().forEach(output -> agentContext.getArtifacts().put(output, outputPath));
+        }
+        if (checkpoint) {
+            this.chainCheckpointService.record(agentContext, node, inputHash, StageStatus.COMPLETED, outputPath);
+        }
+        return response;
+    }
+
+    /**
+     * 校验并拓扑排序
+     *
+     * @param graph     节点
+     * @param available 已存在的产物
+     * @return 拓扑序节点
+     * @since 1.0.0-SNAPSHOT
+     */
+    private List<AgentChainNode> sort(List<AgentChainNode> graph, Set<String> available) {
+        Set<String> produced = new HashSet<>(available);
+        graph.forEach(node -> produced.addAll(node.outputs()));
+        for (AgentChainNode node : graph) {
+            for (String input : node.inputs()) {
+                if (!produced.contains(input)) {
+                    throw new IllegalArgumentException("智能体 " + node.agentKey() + " 的输入产物无来源: " + input);
+                }
+            }
+        }
+
+        List<AgentChainNode> ordered = new ArrayList<>(graph.size());
+        Set<String> ready = new HashSet<>(available);
+        List<AgentChainNode> pending = new ArrayList<>(graph);
+        while (!pending.isEmpty()) {
+            List<AgentChainNode> runnable = pending.stream()
+                    .filter(node -> ready.containsAll(node.inputs()))
+                    .toList();
+            if (runnable.isEmpty()) {
+                throw new IllegalArgumentException("智能体链存在循环依赖: "
+                        + pending.stream().map(AgentChainNode::agentKey).toList());
+            }
+            runnable.forEach(node -> ready.addAll(node.outputs()));
+            ordered.addAll(runnable);
+            pending.removeAll(runnable);
+        }
+        return ordered;
+    }
+
+    /**
+     * 发送智能体切换消息.
+     *
+     * @param context   智能体上下文
+     * @param fromAgent 来源智能体
+     * @param toAgent   目标智能体
+     * @param reason    切换原因
+     */
+    private void sendAgentSwitch(AgentContext context, String fromAgent, String toAgent, String reason) {
+        AgentSwitchMessage message = new AgentSwitchMessage();
+        message.setType(SseMessageType.AGENT_SWITCH);
+        message.setFromAgent(fromAgent);
+        message.setToAgent(toAgent);
+        message.setReason(reason);
+        context.sendMessage(message);
+    }
+
+    /**
+     * 提取智能体短名称.
+     *
+     * @param fullName 完整名称（如 20001_PlanningAgent）
+     * @return 短名称（如 PlanningAgent）
+     */
+    private static String shortName(String fullName) {
+        int index = fullName.indexOf('_');
+        return index > 0 ? fullName.substring(index + 1) : fullName;
+    }
+
+    /**
+     * 智能体链执行结果
+     *
+     * @param success 是否成功
+     * @param message 结果说明
+     * @param files   各节点产出的文件路径（按拓扑序）
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/16 10:05
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    public record ChainResult(boolean success, String message, List<String> files) {
+    }
+}
@@ -1,18 +1,36 @@
 package io.github.hijun.agent.service.strategy;
 
+import com.fasterxml.jackson.annotation.JsonClassDescription;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.github.hijun.agent.common.Agent;
+import io.github.hijun.agent.entity.dto.AgentInfoDTO;
 import io.github.hijun.agent.entity.po.AgentContext;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.util.json.schema.JsonSchemaGenerator;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Agent Manager
+ * <p>
+ * 上下文刷新时扫描 {@link Agent} 注解构建不可变的智能体注册表（按 ID、名称、完整标识索引，专家描述预先渲染），
+ * 运行期查找不再涉及反射；注册表可通过 {@link #refresh()} 显式重建。
+ * 每个专家同时预先构建一个原生工具定义，供编排器以工具调用方式选择专家
  *
  * @author haijun
  * @version 1.0.0-SNAPSHOT
@@ -20,58 +38,150 @@ import java.util.concurrent.ConcurrentHashMap;
  * @date 2026/1/13 14:22
  * @since 1.0.0-SNAPSHOT
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AgentManager {
 
+    /**
+     * 专家工具参数 Schema
+     */
+    private static final String EXPERT_INPUT_SCHEMA = JsonSchemaGenerator.generateForType(ExpertArguments.class);
+
     /**
      * application context.
      */
     private final ApplicationContext applicationContext;
 
+    /**
+     * 专家并行调用线程池
+     */
+    private final ThreadPoolTaskExecutor expertCallExecutor;
+
 
     /**
-     * agent map.
+     * 智能体注册表，上下文刷新时整体替换
      */
-    private Map<String, BaseLLM<?>> agentMap = new ConcurrentHashMap<>();
+    private volatile Registry registry = Registry.EMPTY;
 
+    /**
+     * 上下文刷新后构建注册表
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        this.refresh();
+    }
 
     /**
-     * Get Agent Description
+     * 重新扫描 {@link Agent} 注解的智能体并替换注册表
      *
-     * @return string
+     * @return 注册的智能体列表
      * @since 1.0.0-SNAPSHOT
      */
-    public String getAgentDescription() {
+    public List<AgentInfoDTO> refresh() {
         Map<String, BaseLLM> beans = this.applicationContext.getBeansOfType(BaseLLM.class);
+        Map<String, BaseLLM<?>> byKey = new LinkedHashMap<>();
+        Map<String, BaseLLM<?>> byId = new LinkedHashMap<>();
+        Map<String, BaseLLM<?>> byName = new LinkedHashMap<>();
+        List<AgentInfoDTO> agents = new ArrayList<>();
+        List<ToolCallback> expertTools = new ArrayList<>();
         StringJoiner joiner = new StringJoiner("\n");
         beans.forEach((beanName, bean) -> {
-            Agent annotation = AnnotationUtils.findAnnotation(bean.getClass(), Agent.class);
+            Agent annotation = AnnotationUtils.findAnnotation(AopUtils.getTargetClass(bean), Agent.class);
             if (annotation == null) {
                 return;
             }
-            String id = annotation.id();
-            String name = annotation.name();
-            String description = annotation.description();
-            joiner.add(String.format("- %s: %s", id + "_" + name, description));
-            this.agentMap.putIfAbsent(name, bean);
+            String key = annotation.id() + "_" + annotation.name();
+            if (byKey.putIfAbsent(key, bean) != null) {
+                log.warn("智能体标识重复，忽略: {} ({})", key, beanName);
+                return;
+            }
+            byId.putIfAbsent(annotation.id(), bean);
+            byName.putIfAbsent(annotation.name(), bean);
+            joiner.add(String.format("- %s: %s", key, annotation.description()));
+            expertTools.add(new ExpertToolCallback(ToolDefinition.builder()
+                    .name(key)
+                    .description(annotation.description())
+                    .inputSchema(EXPERT_INPUT_SCHEMA)
+                    .build()));
+            agents.add(AgentInfoDTO.builder()
+                    .id(annotation.id())
+                    .name(annotation.name())
+                    .key(key)
+                    .description(annotation.description())
+                    .beanName(beanName)
+                    .type(AopUtils.getTargetClass(bean).getName())
+                    .build());
         });
-        return joiner.toString();
+        this.registry = new Registry(Map.copyOf(byKey),
+                Map.copyOf(byId),
+                Map.copyOf(byName),
+                List.copyOf(agents),
+                joiner.toString(),
+                List.copyOf(expertTools));
+        log.info("智能体注册表已构建，共 {} 个智能体", agents.size());
+        return this.registry.agents();
     }
 
+    /**
+     * Get Agent Description
+     *
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    public String getAgentDescription() {
+        return this.registry.description();
+    }
+
+    /**
+     * 获取专家工具定义
+     * <p>
+     * 工具名称为智能体完整标识（{id}_{name}），只用于让模型以工具调用的形式选择专家，
+     * 调用由编排器自行执行，不能交给框架内部执行
+     *
+     * @return 专家工具定义
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<ToolCallback> getExpertTools() {
+        return this.registry.expertTools();
+    }
+
+    /**
+     * 获取已注册的智能体列表
+     *
+     * @return 智能体信息
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<AgentInfoDTO> listAgents() {
+        return this.registry.agents();
+    }
 
     /**
      * Get Agent
+     * <p>
+     * 依次按完整标识（{id}_{name}）、名称、ID 查找
      *
-     * @param agentName agent name
-     * @return base l l m
+     * @param agentName 完整标识、名称或 ID
+     * @return base l l m，不存在时返回 null
      * @since 1.0.0-SNAPSHOT
      */
     public BaseLLM<?> getAgent(String agentName) {
-        return this.agentMap.get(agentName);
+        if (agentName == null) {
+            return null;
+        }
+        Registry current = this.registry;
+        BaseLLM<?> agent = current.byKey().get(agentName);
+        if (agent == null) {
+            agent = current.byName().get(agentName);
+        }
+        if (agent == null) {
+            agent = current.byId().get(agentName);
+        }
+        return agent;
     }
 
-
     /**
      * Call Agent
      *
@@ -85,9 +195,164 @@ public class AgentManager {
                             String agentName,
                             AgentContext agentContext) {
         BaseLLM<?> agent = this.getAgent(agentId + "_" + agentName);
+        if (agent == null) {
+            agent = this.getAgent(agentName);
+        }
         if (agent == null) {
             return "当前智能体:{" + agentName + "}，不存在";
         }
         return agent.run(agentContext);
     }
+
+    /**
+     * 并行调用多个智能体
+     * <p>
+     * 每个调用使用各自独立的上下文，单个调用失败时返回失败说明，不影响同一批次的其他调用；
+     * 返回结果与入参顺序一致，只有一个调用时直接在当前线程执行
+     *
+     * @param invocations 智能体调用列表
+     * @return 各调用结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<Object> callAgents(List<AgentInvocation> invocations) {
+        if (invocations.size() == 1) {
+            return List.of(this.safeCall(invocations.get(0)));
+        }
+        List<CompletableFuture<Object>> futures = invocations.stream()
+                .map(invocation -> CompletableFuture.supplyAsync(() -> this.safeCall(invocation), this.expertCallExecutor))
+                .toList();
+        List<Object> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+
+    /**
+     * 异步调用智能体
+     * <p>
+     * 在专家调用线程池中执行，失败时结果为失败说明，用于组装出完整的专家调用后立即开始执行
+     *
+     * @param invocation 智能体调用
+     * @return 调用结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    public CompletableFuture<Object> submitAgent(AgentInvocation invocation) {
+        return CompletableFuture.supplyAsync(() -> this.safeCall(invocation), this.expertCallExecutor);
+    }
+
+    /**
+     * 调用智能体，异常转换为失败说明
+     *
+     * @param invocation 智能体调用
+     * @return 调用结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Object safeCall(AgentInvocation invocation) {
+        try {
+            Object result = this.callAgent(invocation.agentId(), invocation.agentName(), invocation.agentContext());
+            return result != null ? result : "当前智能体:{" + invocation.agentName() + "}，未返回结果";
+        } catch (Exception e) {
+            log.error("智能体调用失败: {}", invocation.agentName(), e);
+            return "当前智能体:{" + invocation.agentName() + "}，执行失败: " + e.getMessage();
+        }
+    }
+
+    /**
+     * 智能体调用
+     *
+     * @param agentId      agent id
+     * @param agentName    agent name
+     * @param agentContext 独立的智能体上下文
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/16 15:10
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    public record AgentInvocation(String agentId, String agentName, AgentContext agentContext) {
+    }
+
+    /**
+     * 专家工具参数
+     *
+     * @param task        专家调用任务问题
+     * @param contextRefs 需要传递给专家的历史专家结果编号
+     * @param context     专家上下文补充信息
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/21 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    @JsonClassDescription("专家调用参数")
+    public record ExpertArguments(
+            @JsonPropertyDescription("专家调用任务问题") String task,
+            @JsonPropertyDescription("需要传递给专家的历史专家结果编号，如 R1、R2，结果按原文传递，无需在 context 中复述") List<String> contextRefs,
+            @JsonPropertyDescription("专家上下文补充信息，只填写历史专家结果之外的内容") String context) {
+    }
+
+    /**
+     * 专家工具
+     * <p>
+     * 只提供工具定义，由编排器解析工具调用后通过 {@link #callAgents(List)} 执行
+     *
+     * @param toolDefinition 工具定义
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/21 10:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record ExpertToolCallback(ToolDefinition toolDefinition) implements ToolCallback {
+
+        /**
+         * Get Tool Definition
+         *
+         * @return tool definition
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return this.toolDefinition;
+        }
+
+        /**
+         * Call
+         *
+         * @param toolInput tool input
+         * @return string
+         * @since 1.0.0-SNAPSHOT
+         */
+        @Override
+        public String call(String toolInput) {
+            throw new UnsupportedOperationException("专家工具由编排器执行: " + this.toolDefinition.name());
+        }
+    }
+
+    /**
+     * 不可变注册表
+     *
+     * @param byKey       按完整标识索引
+     * @param byId        按 ID 索引
+     * @param byName      按名称索引
+     * @param agents      智能体信息
+     * @param description 预先渲染的专家描述
+     * @param expertTools 专家工具定义
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/17 11:00
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private record Registry(Map<String, BaseLLM<?>> byKey,
+                            Map<String, BaseLLM<?>> byId,
+                            Map<String, BaseLLM<?>> byName,
+                            List<AgentInfoDTO> agents,
+                            String description,
+                            List<ToolCallback> expertTools) {
+
+        /**
+         * 空注册表
+         */
+        static final Registry EMPTY = new Registry(Map.of(), Map.of(), Map.of(), List.of(), "", List.of());
+    }
 }
@@ -3,20 +3,30 @@ package io.github.hijun.agent.service.strategy;
 import cn.hutool.core.util.StrUtil;
 import io.github.hijun.agent.common.enums.AgentStatus;
 import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.config.LoopDetectProperties;
 import io.github.hijun.agent.entity.dto.ContentMessage;
 import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.LoopDetector;
+import io.github.hijun.agent.service.ToolExecutionService;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.resolution.StaticToolCallbackResolver;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * React Agent
@@ -37,6 +47,34 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
      */
     private static final Integer MAX_TOOL_CALL_DEPTH = 30;
 
+    /**
+     * 循环纠正提示词.
+     */
+    private static final String LOOP_NUDGE_PROMPT = """
+            你最近几步在重复相同的工具调用或输出相同的内容，继续重复不会得到新的信息。
+            请基于已获得的结果换一种方式推进任务；如果信息已经足够，请直接给出最终结果，不要再调用工具。
+            """;
+
+    /**
+     * 重复工具调用的响应内容.
+     */
+    private static final String LOOP_TOOL_RESPONSE = "该调用与之前的调用重复，未再次执行，请直接使用之前的结果";
+
+    /**
+     * 已提前执行的重复工具调用的响应前缀，后接本次执行结果.
+     */
+    private static final String LOOP_TOOL_EXECUTED = "该调用与之前的调用重复，不要再次调用。本次执行结果：\n";
+
+    /**
+     * 工具执行服务
+     */
+    private ToolExecutionService toolExecutionService;
+
+    /**
+     * 循环检测配置
+     */
+    private LoopDetectProperties loopDetectProperties;
+
     /**
      * React Agent
      *
@@ -47,6 +85,28 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
         super(chatClient);
     }
 
+    /**
+     * Set Tool Execution Service
+     *
+     * @param toolExecutionService tool execution service
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Autowired
+    public void setToolExecutionService(ToolExecutionService toolExecutionService) {
+        this.toolExecutionService = toolExecutionService;
+    }
+
+    /**
+     * Set Loop Detect Properties
+     *
+     * @param loopDetectProperties loop detect properties
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Autowired
+    public void setLoopDetectProperties(LoopDetectProperties loopDetectProperties) {
+        this.loopDetectProperties = loopDetectProperties;
+    }
+
 
     /**
      * Do Chat
@@ -68,6 +128,9 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
                 agentContext.updateMemory(userMessage);
             }
             while (agentContext.getConcurrentStep() < MAX_TOOL_CALL_DEPTH && agentContext.getAgentStatus() != AgentStatus.FINISHED) {
+                if (this.shouldWrapUp(agentContext)) {
+                    break;
+                }
                 agentContext.incrementConcurrentStep();
                 // 判断一下最后一条数据是否是用户数据，不是用户数据则构建下一步
                 if (!agentContext.lastMessageIsUser()) {
@@ -102,6 +165,33 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
      */
     private String step(AgentContext agentContext) {
         boolean shouldAct = this.think(agentContext);
+        LoopDetector.Verdict verdict = this.detectLoop(agentContext, shouldAct);
+        if (verdict == LoopDetector.Verdict.STOP) {
+            log.warn("Loop detected after nudge, finishing agent: {}", this.getClass().getSimpleName());
+            agentContext.sendMessage(ContentMessage.builder()
+                    .content("检测到重复执行，已提前结束")
+                    .type(SseMessageType.THINKING)
+                    .build());
+            this.awaitInflightTools(agentContext);
+            agentContext.setAgentStatus(AgentStatus.FINISHED);
+            return "Loop detected - finished";
+        }
+        if (verdict == LoopDetector.Verdict.NUDGE && shouldAct) {
+            // 重复的工具调用不再执行；已提前开始执行的调用如实返回执行结果，同时注入纠正提示
+            Map<String, CompletableFuture<ToolResponse>> inflight = agentContext.getInflightTools();
+            List<ToolResponse> responses = agentContext.getObserveTools().stream()
+                    .map(toolCall -> {
+                        CompletableFuture<ToolResponse> future = toolCall.id() != null ? inflight.remove(toolCall.id()) : null;
+                        return future == null
+                                ? new ToolResponse(toolCall.id(), toolCall.name(), LOOP_TOOL_RESPONSE)
+                                : new ToolResponse(toolCall.id(), toolCall.name(), LOOP_TOOL_EXECUTED + future.join().responseData());
+                    })
+                    .toList();
+            this.awaitInflightTools(agentContext);
+            agentContext.updateMemory(ToolResponseMessage.builder().responses(responses).build());
+            agentContext.updateMemory(UserMessage.builder().text(LOOP_NUDGE_PROMPT).build());
+            return "Loop detected - nudged";
+        }
         if (!shouldAct) {
             agentContext.setAgentStatus(AgentStatus.FINISHED);
             return "Thinking complete - no action needed";
@@ -109,6 +199,30 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
         return this.action(agentContext);
     }
 
+    /**
+     * 检测本步是否在重复之前的工具调用或输出
+     * <p>输出文本取自记忆中的最后一条助手消息，要求 think 将助手消息写入记忆</p>
+     *
+     * @param agentContext agent context
+     * @param shouldAct    本步是否需要调用工具
+     * @return 判定结果
+     * @since 1.0.0-SNAPSHOT
+     */
+    private LoopDetector.Verdict detectLoop(AgentContext agentContext, boolean shouldAct) {
+        LoopDetectProperties properties = this.loopDetectProperties;
+        if (properties == null || !Boolean.TRUE.equals(properties.getEnabled())) {
+            return LoopDetector.Verdict.NONE;
+        }
+        Message last = agentContext.lastMessage();
+        String text = last != null && last.getMessageType() == MessageType.ASSISTANT ? last.getText() : null;
+        return agentContext.getLoopDetector().record(shouldAct ? agentContext.getObserveTools() : List.of(),
+                text,
+                properties.getWindow(),
+                properties.getMaxRepeats(),
+                properties.getSimilarity(),
+                properties.getMaxNudges());
+    }
+
     /**
      * 思考
      *
@@ -137,6 +251,73 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
         return "";
     }
 
+    /**
+     * 执行一轮工具调用
+     * <p>
+     * 由工具执行服务并行执行并推送调用消息；未注入工具执行服务时（非 Spring 管理的实例）逐个同步执行
+     *
+     * @param agentContext agent context
+     * @param toolCalls    tool calls
+     * @return 工具响应，与入参顺序一致
+     * @since 1.0.0-SNAPSHOT
+     */
+    public List<ToolResponse> callTools(AgentContext agentContext,
+                                        List<AssistantMessage.ToolCall> toolCalls) {
+        if (this.toolExecutionService != null) {
+            Map<String, CompletableFuture<ToolResponse>> inflight = agentContext.getInflightTools();
+            if (inflight.isEmpty()) {
+                return this.toolExecutionService.execute(agentContext, toolCalls);
+            }
+            // 已提前提交的调用直接等待结果，其余调用正常执行
+            List<AssistantMessage.ToolCall> remaining = toolCalls.stream()
+                    .filter(toolCall -> toolCall.id() == null || !inflight.containsKey(toolCall.id()))
+                    .toList();
+            Iterator<ToolResponse> executed = this.toolExecutionService.execute(agentContext, remaining).iterator();
+            List<ToolResponse> responses = new ArrayList<>(toolCalls.size());
+            for (AssistantMessage.ToolCall toolCall : toolCalls) {
+                CompletableFuture<ToolResponse> future = toolCall.id() != null ? inflight.remove(toolCall.id()) : null;
+                responses.add(future != null ? future.join() : executed.next());
+            }
+            return responses;
+        }
+        List<ToolResponse> responses = new ArrayList<>(toolCalls.size());
+        toolCalls.forEach(toolCall -> responses.add(this.callTool(agentContext, toolCall)));
+        return responses;
+    }
+
+    /**
+     * 提前提交一个已完整的工具调用，在模型继续输出的同时执行
+     * <p>
+     * 调用缺少 id 或未注入工具执行服务时不提前执行，留到行动阶段统一执行。
+     * 只有逐片下发工具调用的提供商才会与模型输出重叠，OpenAI 提供商的调用在输出结束时才完整
+     *
+     * @param agentContext agent context
+     * @param toolCall     tool call
+     * @since 1.0.0-SNAPSHOT
+     */
+    protected void dispatchTool(AgentContext agentContext, AssistantMessage.ToolCall toolCall) {
+        if (this.toolExecutionService == null || !StringUtils.hasText(toolCall.id())) {
+            return;
+        }
+        agentContext.getInflightTools().computeIfAbsent(toolCall.id(),
+                id -> this.toolExecutionService.submit(agentContext, toolCall));
+    }
+
+    /**
+     * 等待提前提交但不再需要的工具调用结束
+     * <p>
+     * 提前提交的调用可能已经产生副作用（例如写文件），中断可能留下不完整的结果，因此不取消，
+     * 等待其按工具超时正常结束后丢弃结果
+     *
+     * @param agentContext agent context
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void awaitInflightTools(AgentContext agentContext) {
+        Map<String, CompletableFuture<ToolResponse>> inflight = agentContext.getInflightTools();
+        inflight.values().forEach(CompletableFuture::join);
+        inflight.clear();
+    }
+
     /**
      * Call L L M With Tool
      *
@@ -147,13 +328,15 @@ public abstract class BaseAgent extends BaseLLM<AgentContext> {
      */
     public ToolResponse callTool(AgentContext agentContext,
                                        AssistantMessage.ToolCall toolCall) {
-        List<ToolCallback> toolCallbacks = agentContext.getToolCallbacks();
-        StaticToolCallbackResolver resolver = new StaticToolCallbackResolver(toolCallbacks);
         String id = toolCall.id();
         String toolName = toolCall.name();
         String arguments = toolCall.arguments();
         try {
-            ToolCallback toolCallback = resolver.resolve(toolName);
+            ToolCallback toolCallback = agentContext.resolveTool(toolName);
+            if (toolCallback == null) {
+                log.warn("Tool not found: {}", toolName);
+                return new ToolResponse(id, toolName, "工具不存在: " + toolName);
+            }
             if (!StringUtils.hasText(arguments)) {
                 log.warn("Tool call arguments are null or empty for tool: {}. Using empty JSON object as default.", toolName);
                 arguments = "{}";
@@ -1,17 +1,47 @@
 package io.github.hijun.agent.service.strategy;
 
 import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.common.ResponseCode;
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.common.exception.BusinessException;
+import io.github.hijun.agent.config.LlmRetryProperties;
+import io.github.hijun.agent.entity.dto.ContentMessage;
+import io.github.hijun.agent.entity.po.AgentBudget;
 import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.service.ModelRateLimiter;
+import io.github.hijun.agent.utils.JsonRepair;
+import io.github.hijun.agent.utils.TokenEstimator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.ResponseFormat;
+import org.springframework.ai.retry.TransientAiException;
 import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 /**
  * Base L L M
@@ -26,12 +56,29 @@ import java.util.List;
 @Slf4j
 public abstract class BaseLLM<T> {
 
+    /**
+     * 续写提示词
+     */
+    private static final String RESUME_PROMPT = """
+            上一次输出在中途中断。请紧接着上面助手消息的最后一个字继续输出剩余内容，
+            不要重复已经输出的内容，不要添加任何解释或开场白。
+            """;
 
     /**
      * chat client.
      */
     protected final ChatClient chatClient;
 
+    /**
+     * 模型调用限流器，未注入时（非 Spring 管理的实例）不限流
+     */
+    private ModelRateLimiter modelRateLimiter;
+
+    /**
+     * 流式调用重试配置，未注入时不重试
+     */
+    private LlmRetryProperties llmRetryProperties;
+
     /**
      * Base L L M
      *
@@ -52,38 +99,309 @@ public abstract class BaseLLM<T> {
      */
     public abstract T run(AgentContext agentContext);
 
+    /**
+     * Set Model Rate Limiter
+     *
+     * @param modelRateLimiter model rate limiter
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Autowired
+    public void setModelRateLimiter(ModelRateLimiter modelRateLimiter) {
+        this.modelRateLimiter = modelRateLimiter;
+    }
+
+    /**
+     * Set Llm Retry Properties
+     *
+     * @param llmRetryProperties llm retry properties
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Autowired
+    public void setLlmRetryProperties(LlmRetryProperties llmRetryProperties) {
+        this.llmRetryProperties = llmRetryProperties;
+    }
+
     /**
      * Call L L M
+     * <p>
+     * 流式调用过程中连接中断时按指数退避重试；如果尚未产生工具调用，
+     * 重试时把已输出的文本作为续写前缀，下游收到的是同一条连续的输出流。
+     * 由框架内部执行工具时，工具调用分片不会下发，无法判断工具是否已执行，此时不重试。
+     * 上下文带有运行预算时，输出流在预算截止时间处截断，下游拿到的是截止前已输出的部分结果；
+     * 结构化调用 {@link #callLLM(AgentContext, List, ChatOptions, Class)} 不转换被截断的输出
      *
+     * @param agentContext   agent context
      * @param messages       messages
      * @param toolCallbacks  tool callbacks
      * @param enableToolCall enable tool call
      * @return flux
      * @since 1.0.0-SNAPSHOT
      */
-    public Flux<ChatResponse> callLLM(List<Message> messages,
+    public Flux<ChatResponse> callLLM(AgentContext agentContext,
+                                      List<Message> messages,
                                       List<ToolCallback> toolCallbacks,
                                       boolean enableToolCall) {
+        return this.callLLM(agentContext, messages, toolCallingOptions(toolCallbacks, enableToolCall));
+    }
 
-        ToolCallingChatOptions callingChatOptions = ToolCallingChatOptions.builder()
-                .internalToolExecutionEnabled(enableToolCall)
-                .toolCallbacks(toolCallbacks)
-                .build();
+    /**
+     * Call L L M
+     * <p>
+     * 使用调用方构建的模型参数，例如带响应格式的提供商参数；重试与预算规则同上
+     *
+     * @param agentContext agent context
+     * @param messages     messages
+     * @param chatOptions  模型参数
+     * @return flux
+     * @since 1.0.0-SNAPSHOT
+     */
+    public Flux<ChatResponse> callLLM(AgentContext agentContext,
+                                      List<Message> messages,
+                                      ChatOptions chatOptions) {
+        return this.callLLM(agentContext, messages, chatOptions, new AtomicBoolean());
+    }
 
-        return this.chatClient.prompt()
-                .options(callingChatOptions)
-                .system(this.getSystemPrompt())
+    /**
+     * Call L L M
+     *
+     * @param agentContext agent context
+     * @param messages     messages
+     * @param chatOptions  模型参数
+     * @param truncated    输出流在预算截止时间处被截断时置为 true
+     * @return flux
+     */
+    private Flux<ChatResponse> callLLM(AgentContext agentContext,
+                                       List<Message> messages,
+                                       ChatOptions chatOptions,
+                                       AtomicBoolean truncated) {
+        Flux<ChatResponse> responseFlux = Flux.defer(() -> this.streamWithRetry(agentContext,
+                messages,
+                chatOptions,
+                new StreamProgress(!executesToolsInternally(chatOptions)),
+                1));
+        AgentBudget budget = agentContext.getBudget();
+        if (budget == null) {
+            return responseFlux;
+        }
+        return Flux.defer(() -> {
+            Duration remaining = budget.remaining();
+            if (remaining.isZero()) {
+                return Flux.error(new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "运行时间已用完"));
+            }
+            return responseFlux.takeUntilOther(Mono.delay(remaining)
+                    .doOnNext(ignored -> {
+                        truncated.set(true);
+                        log.warn("模型调用到达运行截止时间，返回已输出的部分结果");
+                    }));
+        });
+    }
+
+    /**
+     * 带重试的流式调用
+     *
+     * @param agentContext agent context
+     * @param messages     原始消息
+     * @param chatOptions  模型参数
+     * @param progress     已输出进度，跨多次尝试共享
+     * @param attempt      当前尝试次数，从 1 开始
+     * @return flux
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Flux<ChatResponse> streamWithRetry(AgentContext agentContext,
+                                               List<Message> messages,
+                                               ChatOptions chatOptions,
+                                               StreamProgress progress,
+                                               int attempt) {
+        List<Message> prompt = this.buildResumeMessages(messages, progress);
+        return this.streamOnce(agentContext, prompt, chatOptions)
+                .doOnNext(progress::record)
+                .onErrorResume(throwable -> {
+                    if (!this.shouldRetry(throwable, progress, attempt)) {
+                        return Flux.error(throwable);
+                    }
+                    Duration backoff = this.backoff(attempt);
+                    log.warn("LLM stream interrupted, retry {} in {} ms, resume from {} chars: {}",
+                            attempt, backoff.toMillis(), progress.text.length(), throwable.getMessage());
+                    return Mono.delay(backoff)
+                            .thenMany(Flux.defer(() -> this.streamWithRetry(agentContext,
+                                    messages,
+                                    chatOptions,
+                                    progress,
+                                    attempt + 1)));
+                });
+    }
+
+    /**
+     * 构建续写消息
+     * <p>
+     * 在原始消息后追加已输出内容作为助手消息前缀，再要求模型紧接着继续输出
+     *
+     * @param messages 原始消息
+     * @param progress 已输出进度
+     * @return list
+     * @since 1.0.0-SNAPSHOT
+     */
+    private List<Message> buildResumeMessages(List<Message> messages, StreamProgress progress) {
+        if (progress.text.isEmpty() || this.llmRetryProperties == null
+                || !Boolean.TRUE.equals(this.llmRetryProperties.getResume())) {
+            return messages;
+        }
+        List<Message> resumeMessages = new ArrayList<>(messages.size() + 2);
+        resumeMessages.addAll(messages);
+        resumeMessages.add(new AssistantMessage(progress.text.toString()));
+        resumeMessages.add(UserMessage.builder().text(RESUME_PROMPT).build());
+        return resumeMessages;
+    }
+
+    /**
+     * 判断是否需要重试
+     * <p>
+     * 只重试网络中断、超时、429/5xx 等瞬时错误；已经产生工具调用或由框架内部执行工具的流不重试，
+     * 避免工具被重复执行；关闭续写时，已输出内容的流也不重试，避免下游收到重复内容
+     *
+     * @param throwable 异常
+     * @param progress  已输出进度
+     * @param attempt   当前尝试次数
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    private boolean shouldRetry(Throwable throwable, StreamProgress progress, int attempt) {
+        if (this.llmRetryProperties == null || !Boolean.TRUE.equals(this.llmRetryProperties.getEnabled())) {
+            return false;
+        }
+        if (attempt >= this.llmRetryProperties.getMaxAttempts() || !progress.retryable || progress.toolCalled) {
+            return false;
+        }
+        if (!progress.text.isEmpty() && !Boolean.TRUE.equals(this.llmRetryProperties.getResume())) {
+            return false;
+        }
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BusinessException) {
+                return false;
+            }
+            if (cause instanceof WebClientResponseException responseException) {
+                int status = responseException.getStatusCode().value();
+                return status == 429 || status >= 500;
+            }
+            if (cause instanceof TransientAiException
+                    || cause instanceof IOException
+                    || cause instanceof TimeoutException
+                    || cause instanceof WebClientRequestException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 计算带抖动的指数退避时间
+     *
+     * @param attempt 当前尝试次数
+     * @return duration
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Duration backoff(int attempt) {
+        long initial = this.llmRetryProperties.getInitialBackoff().toMillis();
+        long max = this.llmRetryProperties.getMaxBackoff().toMillis();
+        long exponential = Math.min(max, initial << Math.min(attempt - 1, 16));
+        double jitter = Math.max(0D, Math.min(1D, this.llmRetryProperties.getJitter()));
+        long delay = (long) (exponential * (1D - jitter * ThreadLocalRandom.current().nextDouble()));
+        return Duration.ofMillis(Math.max(0L, delay));
+    }
+
+    /**
+     * 单次流式调用
+     * <p>
+     * 订阅时先向限流器申请额度（在 boundedElastic 线程上等待），流结束后按实际用量归还，
+     * 同时把实际用量计入运行预算
+     *
+     * @param agentContext agent context
+     * @param messages     messages
+     * @param chatOptions  模型参数
+     * @return flux
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Flux<ChatResponse> streamOnce(AgentContext agentContext,
+                                          List<Message> messages,
+                                          ChatOptions chatOptions) {
+        String systemPrompt = this.getSystemPrompt();
+
+        Flux<ChatResponse> responseFlux = this.chatClient.prompt()
+                .options(chatOptions)
+                .system(systemPrompt)
                 .messages(messages)
                 .stream()
                 .chatResponse()
                 .doOnError(throwable -> log.error("LLM call error: {}", throwable.getMessage()))
                 .doOnComplete(() -> log.info("LLM call complete"));
+        AgentBudget budget = agentContext.getBudget();
+        if (this.modelRateLimiter == null && budget == null) {
+            return responseFlux;
+        }
+
+        long promptTokens = TokenEstimator.estimate(systemPrompt, messages);
+        if (this.modelRateLimiter == null) {
+            return this.withUsage(responseFlux, promptTokens, budget::addTokens);
+        }
+        return Mono.fromCallable(() -> this.modelRateLimiter.acquire(agentContext, promptTokens))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(permit -> this.withUsage(responseFlux, promptTokens, tokens -> {
+                    permit.release(tokens);
+                    if (budget != null) {
+                        budget.addTokens(tokens);
+                    }
+                }));
+    }
+
+    /**
+     * 统计输出流的 Token 用量，流结束（含取消、异常）时回调实际用量
+     *
+     * @param responseFlux 输出流
+     * @param promptTokens 提示词预估 Token 数
+     * @param onFinish     用量回调
+     * @return flux
+     * @since 1.0.0-SNAPSHOT
+     */
+    private Flux<ChatResponse> withUsage(Flux<ChatResponse> responseFlux, long promptTokens, LongConsumer onFinish) {
+        AtomicLong usageTokens = new AtomicLong();
+        AtomicLong outputTokens = new AtomicLong();
+        return responseFlux
+                .doOnNext(chatResponse -> this.trackUsage(chatResponse, usageTokens, outputTokens))
+                .doFinally(signalType -> onFinish.accept(usageTokens.get() > 0
+                        ? usageTokens.get()
+                        : promptTokens + outputTokens.get()));
+    }
+
+    /**
+     * 统计流式响应的 Token 用量
+     * <p>
+     * 提供商返回 usage 时以其为准，否则按输出文本估算
+     *
+     * @param chatResponse chat response
+     * @param usageTokens  提供商返回的总用量
+     * @param outputTokens 估算的输出用量
+     * @since 1.0.0-SNAPSHOT
+     */
+    private void trackUsage(ChatResponse chatResponse, AtomicLong usageTokens, AtomicLong outputTokens) {
+        if (chatResponse == null) {
+            return;
+        }
+        if (chatResponse.getMetadata() != null) {
+            Usage usage = chatResponse.getMetadata().getUsage();
+            if (usage != null && usage.getTotalTokens() != null && usage.getTotalTokens() > 0) {
+                usageTokens.accumulateAndGet(usage.getTotalTokens(), Math::max);
+            }
+        }
+        if (chatResponse.getResult() != null && chatResponse.getResult().getOutput() != null) {
+            outputTokens.addAndGet(TokenEstimator.estimate(chatResponse.getResult().getOutput().getText()));
+        }
     }
 
     /**
      * Call L L M
      *
      * @param <T>            类型参数 T
+     * @param agentContext   agent context
      * @param messages       messages
      * @param toolCallbacks  tool callbacks
      * @param enableToolCall enable tool call
@@ -91,25 +409,143 @@ public abstract class BaseLLM<T> {
      * @return t
      * @since 1.0.0-SNAPSHOT
      */
-    public <T> T callLLM(List<Message> messages,
+    public <T> T callLLM(AgentContext agentContext,
+                         List<Message> messages,
                          List<ToolCallback> toolCallbacks,
                          boolean enableToolCall,
                          Class<T> clazz) {
+        return this.callLLM(agentContext, messages, toolCallingOptions(toolCallbacks, enableToolCall), clazz);
+    }
 
-        Flux<ChatResponse> flux = this.callLLM(messages, toolCallbacks, enableToolCall);
-        ChatResponse chatResponse = flux.blockLast();
-        if (chatResponse == null) {
-            return null;
-        }
-        String blockedLast = chatResponse.getResult().getOutput().getText();
-        if (StrUtil.isBlank(blockedLast)) {
+    /**
+     * Call L L M
+     *
+     * @param <T>          类型参数 T
+     * @param agentContext agent context
+     * @param messages     messages
+     * @param chatOptions  模型参数
+     * @param clazz        clazz
+     * @return t
+     * @since 1.0.0-SNAPSHOT
+     */
+    public <T> T callLLM(AgentContext agentContext,
+                         List<Message> messages,
+                         ChatOptions chatOptions,
+                         Class<T> clazz) {
+
+        // 流式响应每个分片只包含增量文本，需要拼接完整输出
+        StringBuilder output = new StringBuilder();
+        AtomicBoolean truncated = new AtomicBoolean();
+        this.callLLM(agentContext, messages, chatOptions, truncated)
+                .doOnNext(chatResponse -> output.append(extractText(chatResponse)))
+                .blockLast();
+        String text = output.toString();
+        if (StrUtil.isBlank(text)) {
             return null;
         }
         if (clazz == String.class) {
-            return (T) blockedLast;
+            return (T) text;
+        }
+        // 截断的 JSON 经修复后可能变成结构合法但内容错误的结果，不做转换
+        if (truncated.get()) {
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "运行时间已用完，模型输出不完整");
         }
         BeanOutputConverter<T> outputConverter = new BeanOutputConverter<>(clazz);
-        return outputConverter.convert(blockedLast);
+        try {
+            return outputConverter.convert(text);
+        } catch (RuntimeException e) {
+            // 格式小问题在本地修复，避免为此重新调用模型
+            String repaired = JsonRepair.repair(text);
+            if (repaired.equals(text)) {
+                throw e;
+            }
+            log.warn("模型输出 JSON 解析失败，修复后重试: {}", e.getMessage());
+            return outputConverter.convert(repaired);
+        }
+    }
+
+    /**
+     * 构建工具调用参数
+     *
+     * @param toolCallbacks  tool callbacks
+     * @param enableToolCall 是否由框架内部执行工具调用
+     * @return chat options
+     * @since 1.0.0-SNAPSHOT
+     */
+    protected static ToolCallingChatOptions toolCallingOptions(List<ToolCallback> toolCallbacks, boolean enableToolCall) {
+        return ToolCallingChatOptions.builder()
+                .internalToolExecutionEnabled(enableToolCall)
+                .toolCallbacks(toolCallbacks)
+                .build();
+    }
+
+    /**
+     * 是否由框架在流内部执行工具
+     * <p>
+     * 内部执行时工具调用分片被框架消费，下游只能看到工具执行后的后续输出
+     *
+     * @param chatOptions 模型参数
+     * @return boolean
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static boolean executesToolsInternally(ChatOptions chatOptions) {
+        return chatOptions instanceof ToolCallingChatOptions toolCallingOptions
+                && !Boolean.FALSE.equals(toolCallingOptions.getInternalToolExecutionEnabled())
+                && (!CollectionUtils.isEmpty(toolCallingOptions.getToolCallbacks())
+                || !CollectionUtils.isEmpty(toolCallingOptions.getToolNames()));
+    }
+
+    /**
+     * 构建 JSON Schema 响应格式参数
+     * <p>
+     * 由提供商按 Schema 约束输出，提示词中无需再描述输出格式；不携带工具
+     *
+     * @param clazz 输出类型
+     * @return chat options
+     * @since 1.0.0-SNAPSHOT
+     */
+    protected static ChatOptions jsonSchemaOptions(Class<?> clazz) {
+        String jsonSchema = new BeanOutputConverter<>(clazz).getJsonSchema();
+        return OpenAiChatOptions.builder()
+                .internalToolExecutionEnabled(false)
+                .responseFormat(new ResponseFormat(ResponseFormat.Type.JSON_SCHEMA, jsonSchema))
+                .build();
+    }
+
+    /**
+     * 判断运行预算是否即将耗尽，需要停止新的步骤并整理已有结果
+     *
+     * @param agentContext agent context
+     * @return 需要收尾时返回 true，同时推送 THINKING 提示
+     * @since 1.0.0-SNAPSHOT
+     */
+    protected boolean shouldWrapUp(AgentContext agentContext) {
+        AgentBudget budget = agentContext.getBudget();
+        String reason = budget != null ? budget.wrapUpReason() : null;
+        if (reason == null) {
+            return false;
+        }
+        log.warn("{} wrap up: {}, used tokens: {}, used tool calls: {}, remaining: {}",
+                this.getClass().getSimpleName(), reason, budget.getUsedTokens(), budget.getUsedToolCalls(), budget.remaining());
+        agentContext.sendMessage(ContentMessage.builder()
+                .content(reason + "，停止新的步骤并整理已有结果")
+                .type(SseMessageType.THINKING)
+                .build());
+        return true;
+    }
+
+    /**
+     * 提取流式分片中的文本
+     *
+     * @param chatResponse chat response
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    protected static String extractText(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getOutput() == null) {
+            return "";
+        }
+        return StrUtil.nullToEmpty(chatResponse.getResult().getOutput().getText());
     }
 
     /**
@@ -121,4 +557,60 @@ public abstract class BaseLLM<T> {
     protected String getSystemPrompt() {
         return "";
     }
+
+    /**
+     * 流式输出进度
+     * <p>
+     * 记录已经下发给调用方的文本以及是否产生过工具调用，用于判断能否续写重试；
+     * 由框架内部执行工具的调用整体不可重试
+     *
+     * @author haijun
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/15 14:20
+     * @version 1.0.0-SNAPSHOT
+     * @since 1.0.0-SNAPSHOT
+     */
+    private static final class StreamProgress {
+
+        /**
+         * 已输出文本
+         */
+        private final StringBuilder text = new StringBuilder();
+
+        /**
+         * 是否可重试
+         */
+        private final boolean retryable;
+
+        /**
+         * 是否已产生工具调用
+         */
+        private boolean toolCalled;
+
+        /**
+         * Stream Progress
+         *
+         * @param retryable 是否可重试
+         * @since 1.0.0-SNAPSHOT
+         */
+        private StreamProgress(boolean retryable) {
+            this.retryable = retryable;
+        }
+
+        /**
+         * Record
+         *
+         * @param chatResponse chat response
+         * @since 1.0.0-SNAPSHOT
+         */
+        private void record(ChatResponse chatResponse) {
+            if (chatResponse == null) {
+                return;
+            }
+            if (chatResponse.hasToolCalls()) {
+                this.toolCalled = true;
+            }
+            this.text.append(extractText(chatResponse));
+        }
+    }
 }
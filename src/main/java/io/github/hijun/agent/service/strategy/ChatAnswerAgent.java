@@ -0,0 +1,86 @@
+package io.github.hijun.agent.service.strategy;
+
+import cn.hutool.core.date.DateUtil;
+import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.entity.dto.ContentMessage;
+import io.github.hijun.agent.entity.po.AgentContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * 直接回答智能体
+ * <p>
+ * 路由判定为直接回答的问题由该智能体一次流式调用完成，输出分片以 CONTENT_CHUNK 实时推送；
+ * 上下文为当前请求的消息日志（含会话历史），不携带工具
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 14:20
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Component
+public class ChatAnswerAgent extends BaseLLM<String> {
+
+    /**
+     * system prompt.
+     */
+    private static final String SYSTEM_PROMPT = """
+            你是一个友好、专业的智能助手，请直接、准确地回答用户的问题。
+            回答简洁清晰，必要时使用 Markdown 组织内容；不确定的信息要如实说明。
+            
+            当前系统时间:%s
+            语言环境:zh-CN
+            """;
+
+    /**
+     * Chat Answer Agent
+     *
+     * @param chatClient chat client
+     * @since 1.0.0-SNAPSHOT
+     */
+    public ChatAnswerAgent(ChatClient chatClient) {
+        super(chatClient);
+    }
+
+    /**
+     * Run
+     *
+     * @param agentContext agent context
+     * @return 完整回答
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public String run(AgentContext agentContext) {
+        StringBuilder answer = new StringBuilder();
+        this.callLLM(agentContext, agentContext.getMemory(), List.of(), false)
+                .doOnNext(chatResponse -> {
+                    String delta = extractText(chatResponse);
+                    if (StringUtils.hasText(delta)) {
+                        answer.append(delta);
+                        agentContext.sendMessage(ContentMessage.builder()
+                                .type(SseMessageType.CONTENT_CHUNK)
+                                .content(delta)
+                                .build());
+                    }
+                })
+                .blockLast();
+        return answer.toString();
+    }
+
+    /**
+     * Get System Prompt
+     *
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    protected String getSystemPrompt() {
+        return String.format(SYSTEM_PROMPT, DateUtil.formatDateTime(DateUtil.date()));
+    }
+}
@@ -7,20 +7,28 @@ import io.github.hijun.agent.common.constant.FileConstants;
 import io.github.hijun.agent.common.constant.MessageConstants;
 import io.github.hijun.agent.common.enums.ChatMode;
 import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.config.ContentGenProperties;
 import io.github.hijun.agent.entity.dto.ContentMessage;
 import io.github.hijun.agent.entity.dto.FileCreatedMessage;
 import io.github.hijun.agent.entity.po.AgentContext;
 import io.github.hijun.agent.entity.po.CallResponse;
 import io.github.hijun.agent.tools.FileTools;
+import io.github.hijun.agent.utils.MarkdownUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
 
 /**
  * 内容生成智能体。
@@ -52,6 +60,12 @@ import java.util.List;
  *   <li>CallResponse（执行结果，包含 content.md 文件路径）</li>
  * </ul>
  *
+ * <h3>分章节并行生成</h3>
+ * <p>PPT/Markdown/报告模式下，按规划文件“内容大纲”拆分章节（PPT 每页一个章节），
+ * 各章节共享规划与数据、只生成自己的部分，文档标题与前言由单独的任务生成，在有界线程池中并行生成；
+ * 输出以章节为单位按大纲顺序发送，章节生成完成后整体发送，而不是逐字流式发送。
+ * HTML 模式需要整体的页面结构，以及大纲章节过少时仍整体生成。</p>
+ *
  * <h3>最终结果</h3>
  * <p>content.md 文件直接作为用户下载的最终文件。</p>
  *
@@ -64,20 +78,42 @@ import java.util.List;
        description = "内容生成智能体，负责生成 PPT/Markdown/HTML 内容")
 public class ContentGenAgent extends SimpleAgent {
 
+    /**
+     * 内容大纲章节标题.
+     */
+    private static final String OUTLINE_SECTION = "内容大纲";
+
     /**
      * 文件工具.
      */
     private final FileTools fileTools;
 
+    /**
+     * 内容生成配置.
+     */
+    private final ContentGenProperties contentGenProperties;
+
+    /**
+     * 章节生成线程池.
+     */
+    private final ThreadPoolTaskExecutor contentGenExecutor;
+
     /**
      * 构造函数.
      *
-     * @param chatClient 聊天客户端
-     * @param fileTools  文件工具
+     * @param chatClient           聊天客户端
+     * @param fileTools            文件工具
+     * @param contentGenProperties 内容生成配置
+     * @param contentGenExecutor   章节生成线程池
      */
-    public ContentGenAgent(ChatClient chatClient, FileTools fileTools) {
+    public ContentGenAgent(ChatClient chatClient,
+                           FileTools fileTools,
+                           ContentGenProperties contentGenProperties,
+                           ThreadPoolTaskExecutor contentGenExecutor) {
         super(chatClient);
         this.fileTools = fileTools;
+        this.contentGenProperties = contentGenProperties;
+        this.contentGenExecutor = contentGenExecutor;
     }
 
     /**
@@ -102,19 +138,21 @@ public class ContentGenAgent extends SimpleAgent {
             // 发送思考消息
             sendThinking(emitter, "正在生成" + mode.getDescription() + "内容...");
 
-            // 构建用户提示词
-            String userPrompt = buildUserPrompt(plan, data, mode);
-
-            // 调用 LLM 生成内容
-            String content = callLLMString(userPrompt, context.getToolCallbacks());
+            List<String> outline = extractOutline(plan, mode);
+            String content;
+            if (outline.isEmpty()) {
+                // 整体生成后流式发送内容
+                content = callLLMString(context, buildUserPrompt(plan, data, mode));
+                streamContent(emitter, content);
+            } else {
+                // 分章节并行生成，每个章节完成后按大纲顺序发送
+                content = generateSections(context, plan, data, mode, outline);
+            }
 
             // 保存内容
             String contentPath = fileTools.writeFileInSession(sessionId, FileConstants.FileType.CONTENT, content);
             log.info("内容已保存到: {}", contentPath);
 
-            // 流式发送内容
-            streamContent(emitter, content);
-
             // 发送文件创建消息
             sendFileCreated(emitter, "content" + FileConstants.FileExtension.MARKDOWN, contentPath, FileConstants.FileType.CONTENT);
 
@@ -191,6 +229,135 @@ public class ContentGenAgent extends SimpleAgent {
             """, plan, data, modeInstruction);
     }
 
+    /**
+     * 提取内容大纲.
+     *
+     * @param plan 规划内容
+     * @param mode 生成模式
+     * @return 章节列表，不满足分章节生成条件时返回空列表
+     */
+    private List<String> extractOutline(String plan, ChatMode mode) {
+        if (!Boolean.TRUE.equals(contentGenProperties.getSectioned()) || mode == ChatMode.HTML) {
+            return List.of();
+        }
+        List<String> outline = MarkdownUtils.limit(MarkdownUtils.sectionListItems(plan, OUTLINE_SECTION),
+                contentGenProperties.getMaxSections(), "；");
+        return outline.size() < contentGenProperties.getMinSections() ? List.of() : outline;
+    }
+
+    /**
+     * 分章节并行生成内容.
+     * <p>文档标题与各章节全部提交到线程池，按标题、大纲顺序等待并整体发送，先完成的后续章节在前序章节发送后立即发送；
+     * 标题生成失败时省略标题，任一章节失败时整体失败，未开始的章节不再执行</p>
+     *
+     * @param context 智能体上下文
+     * @param plan    规划内容
+     * @param data    数据内容
+     * @param mode    生成模式
+     * @param outline 章节列表
+     * @return 合并后的内容
+     */
+    private String generateSections(AgentContext context, String plan, String data, ChatMode mode, List<String> outline) {
+        String outlineText = String.join("\n", IntStream.range(0, outline.size())
+                .mapToObj(i -> (i + 1) + ". " + outline.get(i))
+                .toList());
+        CompletableFuture<String> head = CompletableFuture.supplyAsync(
+                () -> callLLMString(context, buildHeadPrompt(plan, mode, outlineText)), contentGenExecutor);
+        List<CompletableFuture<String>> futures = new ArrayList<>(outline.size());
+        for (int i = 0; i < outline.size(); i++) {
+            String prompt = buildSectionPrompt(plan, data, mode, outlineText, i + 1, outline.get(i));
+            futures.add(CompletableFuture.supplyAsync(() -> callLLMString(context, prompt), contentGenExecutor));
+        }
+
+        StringBuilder content = new StringBuilder(awaitHead(head));
+        if (!content.isEmpty()) {
+            streamContent(context.getSseEmitter(), content.toString());
+        }
+        try {
+            for (CompletableFuture<String> future : futures) {
+                String section = StrUtil.nullToEmpty(future.join()).strip();
+                if (!content.isEmpty()) {
+                    section = "\n\n" + section;
+                }
+                content.append(section);
+                streamContent(context.getSseEmitter(), section);
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return content.toString();
+    }
+
+    /**
+     * 等待文档标题生成完成.
+     *
+     * @param head 标题生成任务
+     * @return 标题与前言，生成失败时返回空字符串
+     */
+    private String awaitHead(CompletableFuture<String> head) {
+        try {
+            return StrUtil.nullToEmpty(head.join()).strip();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("文档标题生成失败，省略标题: {}", cause.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 构建文档标题生成提示词.
+     *
+     * @param plan        规划内容
+     * @param mode        生成模式
+     * @param outlineText 完整大纲
+     * @return 用户提示词
+     */
+    private String buildHeadPrompt(String plan, ChatMode mode, String outlineText) {
+        String headInstruction = mode == ChatMode.PPT
+                ? "只输出这一行，不要输出任何幻灯片"
+                : "标题后可以跟一段不超过 100 字的前言";
+
+        return String.format("""
+            规划内容：%s
+
+            完整内容大纲：
+            %s
+
+            正文各章节由其他任务并行生成。请只输出文档开头：第一行为一级标题 # 文档总标题，%s，不要输出任何章节内容。
+            """, plan, outlineText, headInstruction);
+    }
+
+    /**
+     * 构建章节生成提示词.
+     *
+     * @param plan        规划内容
+     * @param data        数据内容
+     * @param mode        生成模式
+     * @param outlineText 完整大纲
+     * @param index       章节序号（从 1 开始）
+     * @param brief       章节要点
+     * @return 用户提示词
+     */
+    private String buildSectionPrompt(String plan, String data, ChatMode mode, String outlineText, int index, String brief) {
+        String sectionInstruction = mode == ChatMode.PPT
+                ? String.format("请只生成第 %d 页幻灯片，以 ## Slide %d: 标题 开头", index, index)
+                : String.format("请只生成第 %d 个章节，以二级标题 ## 开头，章节内只使用三级及以下标题", index);
+
+        return String.format("""
+            规划内容：%s
+
+            采集数据：%s
+
+            完整内容大纲：
+            %s
+
+            本次负责的章节：%d. %s
+
+            %s。其他章节由其他任务并行生成，不要输出其他章节的内容，也不要输出文档总标题和前言。
+            """, plan, data, outlineText, index, brief, sectionInstruction);
+    }
+
     /**
      * 发送思考消息.
      */
@@ -262,9 +429,9 @@ public class ContentGenAgent extends SimpleAgent {
     /**
      * 调用 LLM 返回字符串结果.
      */
-    private String callLLMString(String userPrompt, List<org.springframework.ai.tool.ToolCallback> toolCallbacks) {
+    private String callLLMString(AgentContext context, String userPrompt) {
         UserMessage userMessage = new UserMessage(userPrompt);
         List<Message> messages = List.of(userMessage);
-        return callLLM(messages, toolCallbacks, false, String.class);
+        return callLLM(context, messages, context.getToolCallbacks(), false, String.class);
     }
 }
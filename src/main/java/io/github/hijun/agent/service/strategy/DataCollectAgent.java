@@ -6,20 +6,25 @@ import io.github.hijun.agent.common.constant.AgentConstants;
 import io.github.hijun.agent.common.constant.FileConstants;
 import io.github.hijun.agent.common.constant.MessageConstants;
 import io.github.hijun.agent.common.enums.SseMessageType;
+import io.github.hijun.agent.config.DataCollectProperties;
 import io.github.hijun.agent.entity.dto.ContentMessage;
 import io.github.hijun.agent.entity.dto.FileCreatedMessage;
 import io.github.hijun.agent.entity.po.AgentContext;
 import io.github.hijun.agent.entity.po.CallResponse;
 import io.github.hijun.agent.tools.FileTools;
+import io.github.hijun.agent.utils.MarkdownUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 数据采集智能体。
@@ -50,6 +55,11 @@ import java.util.List;
  *   <li>CallResponse（执行结果，包含 data.md 文件路径）</li>
  * </ul>
  *
+ * <h3>并行采集</h3>
+ * <p>规划文件“数据需求”下的每一条需求拆分为独立子任务，在有界线程池中并行执行，
+ * 每个子任务独立调用一次启用工具的模型；结果按需求原始顺序合并写入 data.md，
+ * 多主题报告的采集耗时由各需求耗时之和降为最慢的一条。</p>
+ *
  * <h3>后续依赖</h3>
  * <p>ContentGenAgent 读取 plan.md 和 data.md 文件作为输入。</p>
  *
@@ -62,20 +72,42 @@ import java.util.List;
        description = "数据采集智能体，负责调用工具采集数据")
 public class DataCollectAgent extends SimpleAgent {
 
+    /**
+     * 数据需求章节标题.
+     */
+    private static final String REQUIREMENT_SECTION = "数据需求";
+
     /**
      * 文件工具.
      */
     private final FileTools fileTools;
 
+    /**
+     * 数据采集配置.
+     */
+    private final DataCollectProperties dataCollectProperties;
+
+    /**
+     * 采集子任务线程池.
+     */
+    private final ThreadPoolTaskExecutor dataCollectExecutor;
+
     /**
      * 构造函数.
      *
-     * @param chatClient 聊天客户端
-     * @param fileTools  文件工具
+     * @param chatClient            聊天客户端
+     * @param fileTools             文件工具
+     * @param dataCollectProperties 数据采集配置
+     * @param dataCollectExecutor   采集子任务线程池
      */
-    public DataCollectAgent(ChatClient chatClient, FileTools fileTools) {
+    public DataCollectAgent(ChatClient chatClient,
+                            FileTools fileTools,
+                            DataCollectProperties dataCollectProperties,
+                            ThreadPoolTaskExecutor dataCollectExecutor) {
         super(chatClient);
         this.fileTools = fileTools;
+        this.dataCollectProperties = dataCollectProperties;
+        this.dataCollectExecutor = dataCollectExecutor;
     }
 
     /**
@@ -98,11 +130,13 @@ public class DataCollectAgent extends SimpleAgent {
             // 发送思考消息
             sendThinking(emitter, "正在根据规划采集数据...");
 
-            // 构建用户提示词
-            String userPrompt = buildUserPrompt(plan);
-
-            // 调用 LLM 进行数据采集（启用工具调用）
-            String data = callLLMString(userPrompt, context.getToolCallbacks());
+            // 拆分数据需求，多条需求并行采集
+            List<String> requirements = MarkdownUtils.limit(
+                    MarkdownUtils.sectionListItems(plan, REQUIREMENT_SECTION),
+                    dataCollectProperties.getMaxSubTasks(), "；");
+            String data = requirements.size() > 1 && Boolean.TRUE.equals(dataCollectProperties.getFanOut())
+                    ? collectInParallel(context, plan, requirements)
+                    : callLLMString(context, buildUserPrompt(plan));
 
             // 保存数据
             String dataPath = fileTools.writeFileInSession(sessionId, FileConstants.FileType.DATA, data);
@@ -166,6 +200,64 @@ public class DataCollectAgent extends SimpleAgent {
             """, plan);
     }
 
+    /**
+     * 构建单条数据需求的用户提示词.
+     *
+     * @param plan        规划内容
+     * @param requirement 数据需求
+     * @return 用户提示词
+     */
+    private String buildRequirementPrompt(String plan, String requirement) {
+        return String.format("""
+            规划内容：%s
+
+            本次只需要采集下面这一条数据需求，其他需求由其他采集任务负责，不要重复采集：
+            %s
+
+            请使用可用工具采集该需求相关的数据。
+            """, plan, requirement);
+    }
+
+    /**
+     * 并行采集各条数据需求并按原始顺序合并.
+     * <p>单条需求采集失败不影响其他需求，失败原因写入对应章节；全部失败时抛出异常</p>
+     *
+     * @param context      智能体上下文
+     * @param plan         规划内容
+     * @param requirements 数据需求列表
+     * @return 合并后的数据内容
+     */
+    private String collectInParallel(AgentContext context, String plan, List<String> requirements) {
+        int total = requirements.size();
+        List<CompletableFuture<String>> futures = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            String requirement = requirements.get(i);
+            String progress = (i + 1) + "/" + total;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                sendThinking(context.getSseEmitter(), "正在采集数据（" + progress + "）：" + requirement);
+                return callLLMString(context, buildRequirementPrompt(plan, requirement));
+            }, dataCollectExecutor));
+        }
+
+        StringBuilder merged = new StringBuilder("# 采集的数据\n");
+        int failed = 0;
+        for (int i = 0; i < total; i++) {
+            merged.append("\n## ").append(i + 1).append(". ").append(requirements.get(i)).append("\n\n");
+            try {
+                merged.append(MarkdownUtils.demoteHeadings(StrUtil.nullToEmpty(futures.get(i).join()), 2)).append("\n");
+            } catch (Exception e) {
+                failed++;
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("数据需求采集失败: {}, {}", requirements.get(i), cause.getMessage());
+                merged.append("采集失败：").append(cause.getMessage()).append("\n");
+            }
+        }
+        if (failed == total) {
+            throw new IllegalStateException("所有数据需求均采集失败");
+        }
+        return merged.toString();
+    }
+
     /**
      * 发送思考消息.
      */
@@ -215,10 +307,10 @@ public class DataCollectAgent extends SimpleAgent {
     /**
      * 调用 LLM 返回字符串结果.
      */
-    private String callLLMString(String userPrompt, List<org.springframework.ai.tool.ToolCallback> toolCallbacks) {
+    private String callLLMString(AgentContext context, String userPrompt) {
         UserMessage userMessage = new UserMessage(userPrompt);
         List<Message> messages = List.of(userMessage);
         // 启用工具调用以进行数据采集
-        return callLLM(messages, toolCallbacks, true, String.class);
+        return callLLM(context, messages, context.getToolCallbacks(), true, String.class);
     }
 }
@@ -2,21 +2,19 @@ package io.github.hijun.agent.service.strategy;
 
 import io.github.hijun.agent.common.Agent;
 import io.github.hijun.agent.common.enums.SseMessageType;
-import io.github.hijun.agent.common.enums.ToolStatus;
 import io.github.hijun.agent.entity.dto.ContentMessage;
-import io.github.hijun.agent.entity.dto.ToolMessage;
 import io.github.hijun.agent.entity.po.AgentContext;
+import io.github.hijun.agent.entity.po.ToolCallAssembler;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
-import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.util.StringUtils;
-import reactor.core.publisher.Flux;
 
+import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
 
 /**
  * Data Collect Assistant
@@ -43,6 +41,10 @@ public class DataCollectAssistant extends BaseAgent {
 
     /**
      * Think
+     * <p>
+     * 流式输出中的工具调用分片由 {@link ToolCallAssembler} 组装，每个调用参数完整后立即提交执行。
+     * 注意：当前使用的 OpenAI 提供商在流内部合并工具调用分片，直到 finish_reason=tool_calls 才一次性下发，
+     * 因此调用在输出结束时才完整，工具执行实际不会与模型输出重叠；逐片下发工具调用的提供商才能提前开始执行
      *
      * @param agentContext agent context
      * @return boolean
@@ -51,35 +53,39 @@ public class DataCollectAssistant extends BaseAgent {
     @Override
     protected boolean think(AgentContext agentContext) {
         List<Message> memory = agentContext.getMemory();
-        Flux<ChatResponse> responseFlux = this.callLLM(memory, agentContext.getToolCallbacks(), false);
-        // 发送思考数据
-        return Boolean.TRUE.equals(responseFlux.doOnNext(chatResponse -> {
-                    if (chatResponse == null) {
+        agentContext.setObserveTools(new LinkedList<>());
+        StringBuilder text = new StringBuilder();
+        ToolCallAssembler assembler = new ToolCallAssembler(toolCall -> this.dispatchTool(agentContext, toolCall));
+        this.callLLM(agentContext, memory, agentContext.getToolCallbacks(), false)
+                .doOnNext(chatResponse -> {
+                    if (chatResponse == null || chatResponse.getResult() == null) {
                         return;
                     }
                     if (chatResponse.hasToolCalls()) {
-                        List<AssistantMessage.ToolCall> toolCalls = chatResponse.getResults()
+                        chatResponse.getResults()
                                 .stream()
                                 .map(generation -> generation.getOutput().getToolCalls())
-                                .flatMap(List::stream)
-                                .toList();
-                        agentContext.setObserveTools(toolCalls);
+                                .forEach(assembler::accept);
                     }
                     Generation result = chatResponse.getResult();
                     AssistantMessage assistantMessage = result.getOutput();
-                    String text = assistantMessage.getText();
-                    if (StringUtils.hasText(text)) {
+                    String delta = assistantMessage.getText();
+                    if (StringUtils.hasText(delta)) {
+                        text.append(delta);
                         // 发送思考数据
                         ContentMessage thinkMessage = ContentMessage.builder()
-                                .content(text)
+                                .content(delta)
                                 .type(SseMessageType.THINKING)
                                 .build();
                         agentContext.sendMessage(thinkMessage);
                     }
-                }).last()
-                .map(chatResponse -> agentContext.hasTools())
-                .defaultIfEmpty(Boolean.FALSE)
-                .block());
+                })
+                .blockLast();
+        List<AssistantMessage.ToolCall> toolCalls = assembler.finish();
+        // 助手消息写入记忆，工具响应必须跟在包含对应工具调用的助手消息之后
+        agentContext.updateMemory(new AssistantMessage(text.toString(), Map.of(), toolCalls));
+        agentContext.setObserveTools(new LinkedList<>(toolCalls));
+        return agentContext.hasTools();
     }
 
     /**
@@ -93,23 +99,7 @@ public class DataCollectAssistant extends BaseAgent {
     protected String action(AgentContext agentContext) {
         List<AssistantMessage.ToolCall> observeTools = agentContext.getObserveTools();
 
-        List<CompletableFuture<ToolResponseMessage.ToolResponse>> completableFutures = observeTools.stream().map(toolCall ->
-                CompletableFuture.supplyAsync(() -> {
-                    ToolResponseMessage.ToolResponse toolResponse = this.callTool(agentContext, toolCall);
-                    ToolMessage toolMessage = ToolMessage.builder()
-                            .id(toolCall.id())
-                            .name(toolCall.name())
-                            .toolStatus(ToolStatus.SUCCESS)
-                            .result(toolResponse.responseData())
-                            .build();
-                    agentContext.sendMessage(toolMessage);
-                    return toolResponse;
-                })).toList();
-
-        CompletableFuture.allOf(completableFutures.toArray(new CompletableFuture[0])).join();
-        List<ToolResponseMessage.ToolResponse> toolCallResult = completableFutures
-                .stream()
-                .map(CompletableFuture::join).toList();
+        List<ToolResponseMessage.ToolResponse> toolCallResult = this.callTools(agentContext, observeTools);
 
         ToolResponseMessage toolResponseMessage = ToolResponseMessage.builder()
                 .responses(toolCallResult)
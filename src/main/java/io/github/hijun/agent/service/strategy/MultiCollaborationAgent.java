@@ -1,5 +1,6 @@
 package io.github.hijun.agent.service.strategy;
 
+import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.date.DateUtil;
 import cn.hutool.core.util.StrUtil;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
@@ -7,18 +8,23 @@ import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.github.hijun.agent.common.constant.AgentConstants;
 import io.github.hijun.agent.common.enums.AgentStatus;
 import io.github.hijun.agent.common.enums.ChatMode;
+import io.github.hijun.agent.common.enums.QueryRoute;
+import io.github.hijun.agent.common.enums.RoutingMode;
+import io.github.hijun.agent.common.enums.SseMessageType;
 import io.github.hijun.agent.config.AgentProperties;
-import io.github.hijun.agent.entity.dto.AgentSwitchMessage;
 import io.github.hijun.agent.entity.dto.ContentMessage;
 import io.github.hijun.agent.entity.po.AgentContext;
 import io.github.hijun.agent.entity.po.CallResponse;
+import io.github.hijun.agent.entity.po.ToolCallAssembler;
 import io.github.hijun.agent.utils.JSONS;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.template.TemplateRenderer;
 import org.springframework.ai.template.ValidationMode;
 import org.springframework.ai.template.st.StTemplateRenderer;
@@ -27,15 +33,18 @@ import org.springframework.util.StringUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 多智能体协作编排器。
  *
  * <p>负责协调多个智能体的执行，支持两种运行模式：</p>
  * <ul>
- *   <li><b>智能体链模式</b>：用于 PPT/Markdown/HTML 生成，按固定顺序执行智能体链</li>
+ *   <li><b>智能体链模式</b>：用于 PPT/Markdown/HTML 生成，按依赖关系（DAG）执行智能体链，互不依赖的智能体并行执行</li>
  *   <li><b>ReAct 模式</b>：用于智能对话，基于 ReAct (Reasoning + Acting) 策略动态调用智能体</li>
  * </ul>
  *
@@ -69,12 +78,15 @@ import java.util.Map;
  * </pre>
  *
  * <h3>ReAct 模式工作流</h3>
+ * <p>进入编排前先由 {@link QueryRouter} 判断，简单的对话类问题由 {@link ChatAnswerAgent} 直接流式回答。</p>
  * <ol>
  *   <li><b>[THOUGHT]</b> - 分析当前信息，判断需要哪种专家</li>
- *   <li><b>[ACT]</b> - 调用相应专家执行任务</li>
+ *   <li><b>[ACT]</b> - 调用相应专家执行任务，同一轮中相互独立的专家调用并行执行</li>
  *   <li><b>[OBSERVE]</b> - 观察结果，决定下一步行动</li>
  *   <li>重复直到任务完成</li>
  * </ol>
+ * <p>编排器选择专家的方式由 {@link RoutingMode} 配置：提示词约定 JSON、提供商 JSON Schema 响应格式，
+ * 或把每个专家注册为原生工具并从流式工具调用中解析，后者在单个调用参数完整时即开始执行。</p>
  *
  * @author haijun
  * @version 1.0.0-SNAPSHOT
@@ -92,12 +104,12 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
             
             ## 职责
             你是一个拥有极强逻辑推理能力的智能体编排器。你的运作方式不是一次性生成所有答案，而是基于 **ReAct (Reasoning + Acting)** 策略，通过多轮迭代来解决问题。
-            你需要动态判断当前进度，每次只调用一个最合适的“虚拟专家”执行具体步骤，观察其结果，然后再决定下一步行动，直到彻底解决用户问题。
+            你需要动态判断当前进度，每轮调用最合适的“虚拟专家”执行具体步骤，观察其结果，然后再决定下一步行动，直到彻底解决用户问题。
             
             ## 核心职责
             1.  **Iterative (迭代式)**: 不要试图一步到位。通过一连串的步骤逐步逼近最终答案。
             2.  **Dynamic (动态性)**: 下一步调用哪个专家，完全取决于上一步的结果。
-            3.  **Single-Threaded (单线程)**: 每次只激活一个专家，保持上下文清晰。
+            3.  **Parallel When Independent (独立并行)**: 同一轮中相互独立、互不依赖对方结果的子任务，可以在 calls 中一次列出多个专家调用并行执行；存在先后依赖的子任务必须分轮调用。
             
             ## 工作流 (ReAct Loop)
             针对用户的问题，请严格按照以下循环格式进行输出，直到任务结束：
@@ -109,7 +121,9 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
             
             ### 2. [ACT] (行动 - 调用专家)
             * 定义专家的角色名称（例如：`WebSearcher`, `PythonExpert`, `CreativeWriter`）。
-            * 向该专家下达具体的任务指令，你可以将上一个**专家**输出的内容进行总结传递给下一个**专家**作为上下文信息使用，传递的可以是**文件链接、纯文本数据、JSON格式数据**等。
+            * 一轮可以调用多个专家，每个专家的任务必须独立完整，不能依赖同一轮其他专家的输出。
+            * 向该专家下达具体的任务指令。每个专家返回结果都带有编号（如 `[R1]`），需要把之前的专家结果传递给下一个**专家**时，在 contextRefs 中填写编号即可，结果会原文传递，不要在 context 中复述。
+            * context 只用于补充编号结果之外的信息，例如**文件链接、用户约束、JSON格式数据**等。
             
             ## 可用专家列表
             {experts}
@@ -139,11 +153,21 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
      * s u m m a r y.
      */
     public static final String SUMMARY = """
-            现在对上下文中提供的数据进行总结，要求语句简短、精炼，200字以内，并且将上下文中涉及到相关的文件链接地址根据文件重要性进行排序后提取；
-            总结的内容不要出现任何内部智能体专家的名称、工具名称等敏感信息。
+            现在对上下文中提供的数据进行总结，要求语句简短、精炼，200字以内，直接输出总结正文，相关文件列表由系统单独提供，无需列出；
+            总结的内容不要出现任何内部智能体专家的名称、工具名称、结果编号等敏感信息。
             如果上下文中信息为简单的问题，请对用户的信息进行友好的回答
             """;
 
+    /**
+     * 工具调用模式下的专家说明
+     */
+    private static final String TOOL_CALL_EXPERTS = "每个专家以一个工具提供，调用工具即调用对应专家，同一轮可以调用多个工具；任务完成时不再调用工具";
+
+    /**
+     * 专家结果编号前缀
+     */
+    private static final String RESULT_REF_PREFIX = "R";
+
     /**
      * template renderer.
      */
@@ -160,20 +184,44 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
      */
     private final AgentManager agentManager;
 
+    /**
+     * 智能体链执行器
+     */
+    private final AgentChainExecutor agentChainExecutor;
+
+    /**
+     * 智能问答路由器
+     */
+    private final QueryRouter queryRouter;
+
+    /**
+     * 直接回答智能体
+     */
+    private final ChatAnswerAgent chatAnswerAgent;
+
     /**
      * React Agent
      *
      * @param chatClient      chat client
      * @param agentProperties agent properties
      * @param agentManager    agent manager
+     * @param agentChainExecutor agent chain executor
+     * @param queryRouter     query router
+     * @param chatAnswerAgent chat answer agent
      * @since 3.4.3
      */
     public MultiCollaborationAgent(ChatClient chatClient,
                                    AgentProperties agentProperties,
-                                   AgentManager agentManager) {
+                                   AgentManager agentManager,
+                                   AgentChainExecutor agentChainExecutor,
+                                   QueryRouter queryRouter,
+                                   ChatAnswerAgent chatAnswerAgent) {
         super(chatClient);
         this.agentProperties = agentProperties;
         this.agentManager = agentManager;
+        this.agentChainExecutor = agentChainExecutor;
+        this.queryRouter = queryRouter;
+        this.chatAnswerAgent = chatAnswerAgent;
         this.templateRenderer = new StTemplateRenderer('{',
                 '}',
                 ValidationMode.WARN,
@@ -202,10 +250,10 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
 
     /**
      * 运行智能体链模式。
-     * <p>用于 PPT/Markdown/HTML 等生成模式，按固定顺序执行智能体链。</p>
+     * <p>用于 PPT/Markdown/HTML 等生成模式，按 {@link AgentConstants.AgentChain#REPORT_GRAPH} 声明的依赖关系执行智能体链。</p>
      *
-     * <p>智能体执行顺序：PlanningAgent -> DataCollectAgent -> ContentGenAgent</p>
-     * <p>每个智能体的输出文件会作为下一个智能体的输入。</p>
+     * <p>智能体依赖关系：PlanningAgent -> DataCollectAgent -> ContentGenAgent</p>
+     * <p>节点的输入产物全部就绪后即开始执行，互不依赖的节点并行执行。</p>
      *
      * @param agentContext 智能体上下文
      * @return 最终结果，包含最终文件路径信息
@@ -213,40 +261,13 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
     private FinalResult runAgentChain(AgentContext agentContext) {
         log.info("使用智能体链模式，模式: {}", agentContext.getChatMode());
 
-        // 使用常量定义的智能体链
-        List<String> agentChain = AgentConstants.AgentChain.REPORT_CHAIN;
-
-        List<String> fileInfos = new ArrayList<>();
-        String previousAgentName = "MultiCollaborationAgent";
-
         try {
-            // 依次执行智能体链
-            for (String agentKey : agentChain) {
-                // 发送智能体切换消息
-                sendAgentSwitch(agentContext, previousAgentName,
-                        extractShortName(agentKey), "上一步骤完成");
-
-                // 获取并执行智能体
-                SimpleAgent agent = (SimpleAgent) agentManager.getAgent(agentKey);
-                if (agent == null) {
-                    log.error("智能体不存在: {}", agentKey);
-                    continue;
-                }
-
-                CallResponse response = agent.run(agentContext);
-
-                if (!response.getSuccess()) {
-                    log.error("智能体 {} 执行失败: {}", agentKey, response.getMessage());
-                    sendError(agentContext, "智能体执行失败: " + response.getMessage());
-                    return new FinalResult("智能体执行失败", List.of());
-                }
-
-                // 收集文件信息
-                if (response.getData() != null) {
-                    fileInfos.add(response.getData().toString());
-                }
-
-                previousAgentName = extractShortName(agentKey);
+            AgentChainExecutor.ChainResult result = this.agentChainExecutor.execute(agentContext,
+                    AgentConstants.AgentChain.REPORT_GRAPH);
+            if (!result.success()) {
+                sendError(agentContext, result.message());
+                agentContext.getSseEmitter().complete();
+                return new FinalResult("智能体执行失败", List.of());
             }
 
             // 发送完成消息
@@ -254,11 +275,12 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
             agentContext.getSseEmitter().complete();
 
             // ContentGenAgent 输出的 content.md 直接作为最终文件
-            return new FinalResult("内容生成完成", fileInfos);
+            return new FinalResult(result.message(), result.files());
 
         } catch (Exception e) {
             log.error("智能体链执行失败", e);
             sendError(agentContext, "执行失败: " + e.getMessage());
+            agentContext.getSseEmitter().complete();
             return new FinalResult("执行失败", List.of());
         }
     }
@@ -289,8 +311,18 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
         agentContext.updateMemory(userMessage);
 
         agentContext.setAgentStatus(AgentStatus.RUNNING);
+        if (this.queryRouter.run(agentContext) == QueryRoute.DIRECT) {
+            return this.answerDirectly(agentContext);
+        }
+        // 专家返回结果按编号保存，后续专家通过编号按引用继承，无需编排器复述
+        Map<String, Message> expertResults = new LinkedHashMap<>();
         // 构建循环
         while (agentContext.getConcurrentStep() < maxStep && agentContext.getAgentStatus() == AgentStatus.RUNNING) {
+            if (this.shouldWrapUp(agentContext)) {
+                // 预算即将耗尽，跳过剩余步骤，直接基于已有结果总结
+                agentContext.setAgentStatus(AgentStatus.FINISHED);
+                break;
+            }
             try {
                 agentContext.incrementConcurrentStep();
                 if (!agentContext.lastMessageIsUser()) {
@@ -300,25 +332,32 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
                     agentContext.updateMemory(nextMessage);
                 }
                 List<Message> memory = agentContext.getMemory();
-                AgentCall agentCall = this.callLLM(memory,
-                        agentContext.getToolCallbacks(),
-                        false,
-                        AgentCall.class);
-                if (agentCall != null) {
-                    String agentName = agentCall.agentName();
-                    String agentId = agentCall.agentId();
-                    AgentContext copyAgent = this.copyContext(agentCall, agentContext);
-                    Object agentResult = this.agentManager.callAgent(agentId, agentName, copyAgent);
-                    if (agentResult != null) {
-                        ToolResponse toolResponse = new ToolResponse(agentId,
-                                agentName,
-                                agentResult.toString());
-                        ToolResponseMessage toolResponseMessage =
-                                ToolResponseMessage.builder()
-                                        .responses(List.of(toolResponse))
-                                        .build();
-                        agentContext.updateMemory(toolResponseMessage);
+                List<DispatchedCall> dispatched = this.agentProperties.getRoutingMode() == RoutingMode.TOOL_CALL
+                        ? this.routeByToolCall(agentContext, memory, expertResults)
+                        : this.routeByJson(agentContext, memory, expertResults);
+                if (!dispatched.isEmpty()) {
+                    List<ToolResponse> toolResponses = new ArrayList<>(dispatched.size());
+                    for (DispatchedCall dispatchedCall : dispatched) {
+                        ExpertCall call = dispatchedCall.call();
+                        Object agentResult = dispatchedCall.result().join();
+                        String ref = RESULT_REF_PREFIX + (expertResults.size() + 1);
+                        String result = "[" + ref + "] " + agentResult;
+                        toolResponses.add(new ToolResponse(dispatchedCall.callId(), call.agentName(), result));
+                        if (agentResult instanceof CallResponse callResponse
+                                && Boolean.TRUE.equals(callResponse.getSuccess())
+                                && callResponse.getData() != null) {
+                            // 专家产出的文件记录为会话产物，总结时直接列出
+                            agentContext.getArtifacts().put(ref, callResponse.getData().toString());
+                        }
+                        expertResults.put(ref, UserMessage.builder()
+                                .text(call.agentName() + " 返回结果 " + result)
+                                .build());
                     }
+                    ToolResponseMessage toolResponseMessage =
+                            ToolResponseMessage.builder()
+                                    .responses(toolResponses)
+                                    .build();
+                    agentContext.updateMemory(toolResponseMessage);
                 } else {
                     agentContext.setAgentStatus(AgentStatus.FINISHED);
                 }
@@ -329,13 +368,10 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
             }
         }
         if (agentContext.getAgentStatus() == AgentStatus.FINISHED) {
-            List<Message> memory = agentContext.getMemory();
+            // 总结提示词只用于本次调用，不写入消息日志
+            List<Message> memory = new ArrayList<>(agentContext.getMemory());
             memory.add(UserMessage.builder().text(SUMMARY).build());
-            FinalResult finalResult = this.callLLM(memory,
-                    agentContext.getToolCallbacks(),
-                    false,
-                    FinalResult.class);
-            agentContext.sendMessage(ContentMessage.builder().content(JSONS.toJson(finalResult)).build());
+            FinalResult finalResult = this.streamSummary(agentContext, memory, expertResults.keySet());
             agentContext.getSseEmitter().complete();
             return finalResult;
         }
@@ -343,34 +379,210 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
         return null;
     }
 
+    /**
+     * 以 JSON 输出选择专家
+     * <p>
+     * 按配置使用提示词约定的 JSON 或提供商的 JSON Schema 响应格式，模型输出完整后再并行执行本轮全部专家调用
+     *
+     * @param agentContext  智能体上下文
+     * @param memory        本轮使用的消息
+     * @param expertResults 已有的专家结果
+     * @return 本轮专家调用，任务完成时为空
+     */
+    private List<DispatchedCall> routeByJson(AgentContext agentContext,
+                                             List<Message> memory,
+                                             Map<String, Message> expertResults) {
+        ChatOptions chatOptions = this.agentProperties.getRoutingMode() == RoutingMode.JSON_SCHEMA
+                ? jsonSchemaOptions(AgentCall.class)
+                : toolCallingOptions(agentContext.getToolCallbacks(), false);
+        AgentCall agentCall = this.callLLM(agentContext, memory, chatOptions, AgentCall.class);
+        if (agentCall == null || CollUtil.isEmpty(agentCall.calls())) {
+            return List.of();
+        }
+        List<ExpertCall> calls = agentCall.calls();
+        List<AgentManager.AgentInvocation> invocations = calls.stream()
+                .map(call -> new AgentManager.AgentInvocation(call.agentId(),
+                        call.agentName(),
+                        this.copyContext(call, agentContext, expertResults)))
+                .toList();
+        List<Object> agentResults = this.agentManager.callAgents(invocations);
+        List<DispatchedCall> dispatched = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            ExpertCall call = calls.get(i);
+            dispatched.add(new DispatchedCall(call.agentId(), call, CompletableFuture.completedFuture(agentResults.get(i))));
+        }
+        return dispatched;
+    }
+
+    /**
+     * 以原生工具调用选择专家
+     * <p>
+     * 每个专家注册为一个工具，从流式工具调用分片中组装调用，调用参数完整后即提交执行。
+     * OpenAI 提供商在输出结束（finish_reason=tool_calls）时才下发合并好的调用，因此专家实际在模型输出结束后才开始执行。
+     * 助手消息与工具调用一并写入记忆，工具响应按调用 id 对应
+     *
+     * @param agentContext  智能体上下文
+     * @param memory        本轮使用的消息
+     * @param expertResults 已有的专家结果
+     * @return 本轮专家调用，任务完成时为空
+     */
+    private List<DispatchedCall> routeByToolCall(AgentContext agentContext,
+                                                 List<Message> memory,
+                                                 Map<String, Message> expertResults) {
+        List<DispatchedCall> dispatched = new ArrayList<>();
+        ToolCallAssembler assembler = new ToolCallAssembler(toolCall -> {
+            ExpertCall call = this.toExpertCall(toolCall);
+            CompletableFuture<Object> result = this.agentManager.submitAgent(new AgentManager.AgentInvocation(call.agentId(),
+                    call.agentName(),
+                    this.copyContext(call, agentContext, expertResults)));
+            dispatched.add(new DispatchedCall(toolCall.id(), call, result));
+        });
+        StringBuilder text = new StringBuilder();
+        this.callLLM(agentContext, memory, toolCallingOptions(this.agentManager.getExpertTools(), false))
+                .doOnNext(chatResponse -> {
+                    if (chatResponse == null || chatResponse.getResult() == null) {
+                        return;
+                    }
+                    if (chatResponse.hasToolCalls()) {
+                        chatResponse.getResults()
+                                .stream()
+                                .map(generation -> generation.getOutput().getToolCalls())
+                                .forEach(assembler::accept);
+                    }
+                    String delta = extractText(chatResponse);
+                    if (StringUtils.hasText(delta)) {
+                        text.append(delta);
+                    }
+                })
+                .blockLast();
+        List<AssistantMessage.ToolCall> toolCalls = assembler.finish();
+        if (!toolCalls.isEmpty()) {
+            // 工具响应必须跟在包含对应工具调用的助手消息之后
+            agentContext.updateMemory(new AssistantMessage(text.toString(), Map.of(), toolCalls));
+        }
+        return dispatched;
+    }
+
+    /**
+     * 工具调用转换为专家调用
+     *
+     * @param toolCall 工具调用，名称为智能体完整标识
+     * @return 专家调用
+     */
+    private ExpertCall toExpertCall(AssistantMessage.ToolCall toolCall) {
+        String key = toolCall.name();
+        int index = key.indexOf('_');
+        String agentId = index > 0 ? key.substring(0, index) : key;
+        String agentName = index > 0 ? key.substring(index + 1) : key;
+        AgentManager.ExpertArguments arguments;
+        try {
+            arguments = JSONS.parse(toolCall.arguments(), AgentManager.ExpertArguments.class);
+        } catch (RuntimeException e) {
+            log.warn("专家调用参数解析失败，按原文作为任务: {}", toolCall.arguments());
+            arguments = new AgentManager.ExpertArguments(toolCall.arguments(), List.of(), null);
+        }
+        return new ExpertCall(agentId, agentName, arguments.task(), arguments.contextRefs(), arguments.context());
+    }
+
+    /**
+     * 流式生成最终总结
+     * <p>
+     * 总结文本以 CONTENT_CHUNK 实时推送，文件列表取自专家结果对应的会话产物，不再由模型输出 JSON
+     *
+     * @param agentContext 智能体上下文
+     * @param memory       总结使用的消息
+     * @param resultRefs   专家结果编号，按调用顺序排列
+     * @return 最终结果
+     */
+    private FinalResult streamSummary(AgentContext agentContext, List<Message> memory, Collection<String> resultRefs) {
+        StringBuilder content = new StringBuilder();
+        try {
+            this.callLLM(agentContext, memory, List.of(), false)
+                    .doOnNext(chatResponse -> {
+                        String delta = extractText(chatResponse);
+                        if (StringUtils.hasText(delta)) {
+                            content.append(delta);
+                            agentContext.sendMessage(ContentMessage.builder()
+                                    .type(SseMessageType.CONTENT_CHUNK)
+                                    .content(delta)
+                                    .build());
+                        }
+                    })
+                    .blockLast();
+        } catch (Exception e) {
+            log.error("生成总结失败", e);
+            sendError(agentContext, "生成总结失败: " + e.getMessage());
+            return new FinalResult(content.toString(), List.of());
+        }
+        List<String> files = resultRefs.stream()
+                .map(ref -> agentContext.getArtifacts().get(ref))
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+        if (!files.isEmpty()) {
+            StringBuilder fileList = new StringBuilder("\n\n**相关文件**\n");
+            files.forEach(file -> fileList.append("\n- ").append(file));
+            agentContext.sendMessage(ContentMessage.builder()
+                    .type(SseMessageType.CONTENT_CHUNK)
+                    .content(fileList.toString())
+                    .build());
+        }
+        sendCompleted(agentContext, "所有任务已完成");
+        return new FinalResult(content.toString(), files);
+    }
+
+    /**
+     * 直接回答，不进入 ReAct 编排
+     *
+     * @param agentContext 智能体上下文
+     * @return 最终结果
+     */
+    private FinalResult answerDirectly(AgentContext agentContext) {
+        try {
+            String answer = this.chatAnswerAgent.run(agentContext);
+            agentContext.setAgentStatus(AgentStatus.FINISHED);
+            sendCompleted(agentContext, "回答完成");
+            agentContext.getSseEmitter().complete();
+            return new FinalResult(answer, List.of());
+        } catch (Exception e) {
+            log.error("直接回答失败", e);
+            agentContext.setAgentStatus(AgentStatus.ERROR);
+            sendError(agentContext, "回答失败: " + e.getMessage());
+            agentContext.getSseEmitter().complete();
+            return new FinalResult("回答失败", List.of());
+        }
+    }
+
     /**
      * Copy Context
+     * <p>
+     * 子智能体上下文继承 contextRefs 引用的专家结果（按引用共享，不复制），context 作为补充说明追加在后
      *
-     * @param agentCall    agent call
-     * @param agentContext agent context
+     * @param agentCall     expert call
+     * @param agentContext  agent context
+     * @param expertResults 已有的专家结果，Key 为结果编号
      * @return agent context
      * @since 1.0.0-SNAPSHOT
      */
-    private AgentContext copyContext(AgentCall agentCall, AgentContext agentContext) {
-
-        AgentContext copyAgentContext = AgentContext.builder()
-                .sessionId(agentContext.getSessionId())
-                .requestId(agentContext.getRequestId())
-                .chatMode(agentContext.getChatMode())
-                .userQuery(agentCall.task())
-                .userPrompt(agentContext.getUserPrompt())
-                .userUploadFiles(agentContext.getUserUploadFiles())
-                .sseEmitter(agentContext.getSseEmitter())
-                .toolCallbacks(agentContext.getToolCallbacks())
-                .build();
+    private AgentContext copyContext(ExpertCall agentCall, AgentContext agentContext, Map<String, Message> expertResults) {
+        List<Message> inherited = new ArrayList<>();
+        if (CollUtil.isNotEmpty(agentCall.contextRefs())) {
+            for (String ref : agentCall.contextRefs()) {
+                Message message = expertResults.get(StrUtil.trim(ref));
+                if (message != null) {
+                    inherited.add(message);
+                } else {
+                    log.warn("专家结果编号不存在: {}", ref);
+                }
+            }
+        }
         String context = agentCall.context();
         if (StringUtils.hasText(context)) {
-            UserMessage userMessage = UserMessage.builder()
+            inherited.add(UserMessage.builder()
                     .text(context)
-                    .build();
-            copyAgentContext.updateMemory(userMessage);
+                    .build());
         }
-        return copyAgentContext;
+        return agentContext.fork(agentCall.task(), inherited);
     }
 
 
@@ -381,10 +593,14 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
      * @since 1.0.0-SNAPSHOT
      */
     private Map<String, Object> getContextParams() {
+        // 工具调用模式下专家描述已在工具定义中，提示词不再重复
+        String experts = this.agentProperties.getRoutingMode() == RoutingMode.TOOL_CALL
+                ? TOOL_CALL_EXPERTS
+                : this.agentManager.getAgentDescription();
         return Map.of(
                 "time", DateUtil.formatDateTime(DateUtil.date()),
                 "language", "zh-CN",
-                "experts", this.agentManager.getAgentDescription()
+                "experts", experts
         );
     }
 
@@ -424,41 +640,43 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
      */
     @JsonClassDescription("Agent专家调用响应实体")
     public record AgentCall(
-            @JsonPropertyDescription("专家ID") String agentId,
-            @JsonPropertyDescription("专家名称") String agentName,
-            @JsonPropertyDescription("专家调用任务问题") String task,
-            @JsonPropertyDescription("专家上下文信息") String context) {
+            @JsonPropertyDescription("本轮需要调用的专家列表，相互独立的任务可以列出多个专家并行执行，任务完成时为空")
+            List<ExpertCall> calls) {
 
     }
 
     /**
-     * 提取智能体短名称.
+     * Expert Call
      *
-     * @param fullName 完整名称（如 20001_PlanningAgent）
-     * @return 短名称（如 PlanningAgent）
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/16 15:10
+     * @since 1.0.0-SNAPSHOT
      */
-    private String extractShortName(String fullName) {
-        if (fullName == null) {
-            return "Unknown";
-        }
-        int index = fullName.indexOf('_');
-        return index > 0 ? fullName.substring(index + 1) : fullName;
+    @JsonClassDescription("单个专家调用")
+    public record ExpertCall(
+            @JsonPropertyDescription("专家ID") String agentId,
+            @JsonPropertyDescription("专家名称") String agentName,
+            @JsonPropertyDescription("专家调用任务问题") String task,
+            @JsonPropertyDescription("需要传递给专家的历史专家结果编号，如 R1、R2，结果按原文传递，无需在 context 中复述") List<String> contextRefs,
+            @JsonPropertyDescription("专家上下文补充信息，只填写历史专家结果之外的内容") String context) {
+
     }
 
     /**
-     * 发送智能体切换消息.
+     * 已提交的专家调用
+     *
+     * @param callId 调用 id，工具响应按此对应
+     * @param call   专家调用
+     * @param result 调用结果
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/21 10:00
+     * @since 1.0.0-SNAPSHOT
      */
-    private void sendAgentSwitch(AgentContext context, String fromAgent, String toAgent, String reason) {
-        try {
-            AgentSwitchMessage message = new AgentSwitchMessage();
-            message.setType(io.github.hijun.agent.common.enums.SseMessageType.AGENT_SWITCH);
-            message.setFromAgent(fromAgent);
-            message.setToAgent(toAgent);
-            message.setReason(reason);
-            context.getSseEmitter().send(message);
-        } catch (IOException e) {
-            log.error("发送智能体切换消息失败", e);
-        }
+    private record DispatchedCall(String callId, ExpertCall call, CompletableFuture<Object> result) {
     }
 
     /**
@@ -467,7 +685,7 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
     private void sendCompleted(AgentContext context, String message) {
         try {
             ContentMessage msg = ContentMessage.builder()
-                    .type(io.github.hijun.agent.common.enums.SseMessageType.COMPLETED)
+                    .type(SseMessageType.COMPLETED)
                     .content(message)
                     .build();
             context.getSseEmitter().send(msg);
@@ -482,7 +700,7 @@ public class MultiCollaborationAgent extends BaseLLM<MultiCollaborationAgent.Fin
     private void sendError(AgentContext context, String error) {
         try {
             ContentMessage message = ContentMessage.builder()
-                    .type(io.github.hijun.agent.common.enums.SseMessageType.ERROR)
+                    .type(SseMessageType.ERROR)
                     .content(error)
                     .build();
             context.getSseEmitter().send(message);
@@ -98,7 +98,7 @@ public class PlanningAgent extends SimpleAgent {
             String userPrompt = buildUserPrompt(context);
 
             // 调用 LLM 进行规划
-            String plan = callLLMString(userPrompt, context.getToolCallbacks());
+            String plan = callLLMString(context, userPrompt);
 
             // 保存规划结果到文件
             String planPath = fileTools.writeFileInSession(sessionId, FileConstants.FileType.PLAN, plan);
@@ -156,6 +156,10 @@ public class PlanningAgent extends SimpleAgent {
             - 需要的数据类型1
             - 需要的数据类型2
 
+            ## 内容大纲
+            - 章节（PPT 模式为每页幻灯片）标题1：该章节要点
+            - 章节标题2：该章节要点
+
             ## 预期产出
             - 最终产出的文件类型
             - 内容结构概述
@@ -270,9 +274,9 @@ public class PlanningAgent extends SimpleAgent {
     /**
      * 调用 LLM 返回字符串结果.
      */
-    private String callLLMString(String userPrompt, List<org.springframework.ai.tool.ToolCallback> toolCallbacks) {
+    private String callLLMString(AgentContext context, String userPrompt) {
         UserMessage userMessage = new UserMessage(userPrompt);
         List<Message> messages = List.of(userMessage);
-        return callLLM(messages, toolCallbacks, false, String.class);
+        return callLLM(context, messages, context.getToolCallbacks(), false, String.class);
     }
 }
@@ -0,0 +1,142 @@
+package io.github.hijun.agent.service.strategy;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.common.enums.ChatMode;
+import io.github.hijun.agent.common.enums.QueryRoute;
+import io.github.hijun.agent.config.RouterProperties;
+import io.github.hijun.agent.entity.po.AgentContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 智能问答路由器
+ * <p>
+ * 在进入 ReAct 编排前判断问题是否需要专家协作：
+ * <ol>
+ *   <li>非智能问答模式、带上传文件、包含专家关键词的问题进入专家协作</li>
+ *   <li>不超过长度阈值的问题直接回答</li>
+ *   <li>其余问题在开启分类时由模型判断，否则进入专家协作</li>
+ * </ol>
+ * 不带 {@link io.github.hijun.agent.common.Agent} 注解，不会被注册为可调用的专家
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/20 14:10
+ * @since 1.0.0-SNAPSHOT
+ */
+@Slf4j
+@Component
+public class QueryRouter extends BaseLLM<QueryRoute> {
+
+    /**
+     * 分类提示词
+     */
+    private static final String CLASSIFIER_PROMPT = """
+            判断用户的问题是否可以仅凭通用知识直接回答。
+            - 闲聊、问候、常识问答、改写润色、简单创作等，回复 DIRECT
+            - 需要搜索或查询实时信息、读取文件、生成文档、多步骤调研分析等，回复 EXPERT
+            只回复 DIRECT 或 EXPERT，不要输出其他内容。
+            """;
+
+    /**
+     * 路由配置
+     */
+    private final RouterProperties routerProperties;
+
+    /**
+     * Query Router
+     *
+     * @param chatClient       chat client
+     * @param routerProperties router properties
+     * @since 1.0.0-SNAPSHOT
+     */
+    public QueryRouter(ChatClient chatClient, RouterProperties routerProperties) {
+        super(chatClient);
+        this.routerProperties = routerProperties;
+    }
+
+    /**
+     * Run
+     *
+     * @param agentContext agent context
+     * @return query route
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    public QueryRoute run(AgentContext agentContext) {
+        if (!Boolean.TRUE.equals(this.routerProperties.getEnabled())) {
+            return QueryRoute.EXPERT;
+        }
+        QueryRoute route = this.matchRules(agentContext);
+        if (route == null) {
+            route = Boolean.TRUE.equals(this.routerProperties.getClassifier())
+                    ? this.classify(agentContext)
+                    : QueryRoute.EXPERT;
+        }
+        log.info("Query route: {}, requestId: {}", route, agentContext.getRequestId());
+        return route;
+    }
+
+    /**
+     * 按本地规则判断
+     *
+     * @param agentContext agent context
+     * @return 路由，规则无法确定时返回 null
+     * @since 1.0.0-SNAPSHOT
+     */
+    private QueryRoute matchRules(AgentContext agentContext) {
+        String query = StrUtil.trim(agentContext.getUserQuery());
+        if (agentContext.getChatMode() != ChatMode.CHAT
+                || CollUtil.isNotEmpty(agentContext.getUserUploadFiles())
+                || StrUtil.isBlank(query)) {
+            return QueryRoute.EXPERT;
+        }
+        String lowerQuery = query.toLowerCase();
+        for (String keyword : this.routerProperties.getExpertKeywords()) {
+            if (lowerQuery.contains(keyword.toLowerCase())) {
+                return QueryRoute.EXPERT;
+            }
+        }
+        return query.length() <= this.routerProperties.getMaxDirectLength() ? QueryRoute.DIRECT : null;
+    }
+
+    /**
+     * 调用模型分类，失败时按专家协作处理
+     *
+     * @param agentContext agent context
+     * @return query route
+     * @since 1.0.0-SNAPSHOT
+     */
+    private QueryRoute classify(AgentContext agentContext) {
+        try {
+            String answer = this.callLLM(agentContext,
+                    List.of(new UserMessage(agentContext.getUserQuery())),
+                    List.of(),
+                    false,
+                    String.class);
+            return StrUtil.containsIgnoreCase(answer, "DIRECT") && !StrUtil.containsIgnoreCase(answer, "EXPERT")
+                    ? QueryRoute.DIRECT
+                    : QueryRoute.EXPERT;
+        } catch (Exception e) {
+            log.warn("Query classify failed, fallback to expert: {}", e.getMessage());
+            return QueryRoute.EXPERT;
+        }
+    }
+
+    /**
+     * Get System Prompt
+     *
+     * @return string
+     * @since 1.0.0-SNAPSHOT
+     */
+    @Override
+    protected String getSystemPrompt() {
+        return CLASSIFIER_PROMPT;
+    }
+}
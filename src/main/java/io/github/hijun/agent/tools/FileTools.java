@@ -2,12 +2,16 @@ package io.github.hijun.agent.tools;
 
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
+import io.github.hijun.agent.common.ToolOptions;
 import io.github.hijun.agent.common.constant.FileConstants;
+import io.github.hijun.agent.common.enums.ToolCacheScope;
 import io.github.hijun.agent.config.ApplicationProperties;
+import io.github.hijun.agent.entity.po.FileWrittenEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
@@ -23,7 +27,8 @@ import java.nio.charset.StandardCharsets;
  *   └── {sessionId}/
  *       ├── plan.md      (PlanningAgent 输出)
  *       ├── data.md      (DataCollectAgent 输出)
- *       └── content.md   (ContentGenAgent 输出，最终文件)
+ *       ├── content.md   (ContentGenAgent 输出，最终文件)
+ *       └── checkpoint.json (智能体链检查点)
  * </pre>
  *
  * <h3>支持的文件类型</h3>
@@ -47,6 +52,9 @@ import java.nio.charset.StandardCharsets;
  *   <li>所有方法都有完整的日志记录</li>
  * </ul>
  *
+ * <h3>结果缓存</h3>
+ * <p>{@link #readFile(String)} 的结果在会话内缓存，写入文件后发布 {@link FileWrittenEvent} 使相关缓存失效。</p>
+ *
  * @author hijun
  * @since 1.0.0
  */
@@ -60,6 +68,11 @@ public class FileTools {
      */
     private final ApplicationProperties applicationProperties;
 
+    /**
+     * 事件发布器.
+     */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * 文件存储基础路径.
      */
@@ -75,6 +88,7 @@ public class FileTools {
      * @throws RuntimeException 当文件不存在或读取失败时
      */
     @Tool(description = "读取指定路径的文件内容，返回文件文本内容")
+    @ToolOptions(cacheScope = ToolCacheScope.SESSION)
     public String readFile(
             @ToolParam(description = "要读取的文件路径，支持相对路径和绝对路径") String filePath) {
 
@@ -127,6 +141,7 @@ public class FileTools {
 
             // 写入文件
             FileUtil.writeString(content, fullPath, StandardCharsets.UTF_8);
+            applicationEventPublisher.publishEvent(new FileWrittenEvent(fullPath, fileName));
 
             log.info("文件写入成功: {}", fullPath);
             return fullPath;
@@ -180,6 +195,7 @@ public class FileTools {
 
             // 写入文件
             FileUtil.writeString(content, fullPath, StandardCharsets.UTF_8);
+            applicationEventPublisher.publishEvent(new FileWrittenEvent(fullPath, sessionId + "/" + fileName));
 
             log.info("会话文件写入成功: {}", fullPath);
             return fullPath;
@@ -189,6 +205,21 @@ public class FileTools {
         }
     }
 
+    /**
+     * 获取会话目录路径.
+     * <p>格式：{storagePath}{sessionId}/，目录不存在时不会创建</p>
+     *
+     * @param sessionId 会话 ID
+     * @return 会话目录路径
+     * @throws IllegalArgumentException 当会话 ID 为空时
+     */
+    public String getSessionPath(String sessionId) {
+        if (StrUtil.isBlank(sessionId)) {
+            throw new IllegalArgumentException("会话ID不能为空");
+        }
+        return getStoragePath() + sessionId + "/";
+    }
+
     /**
      * 解析文件路径.
      * <p>如果是相对路径，则基于存储路径解析；如果是绝对路径，直接返回</p>
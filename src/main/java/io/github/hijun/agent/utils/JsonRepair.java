@@ -0,0 +1,345 @@
+package io.github.hijun.agent.utils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 模型输出 JSON 修复工具类
+ * <p>
+ * 单次扫描修复模型输出中常见的格式问题，避免因为一个逗号或引号重新调用模型：
+ * <ul>
+ *   <li>去除代码块标记与 JSON 前后的说明文字</li>
+ *   <li>删除对象、数组结尾多余的逗号</li>
+ *   <li>转义字符串中未转义的引号、换行等控制字符以及非法的反斜杠转义</li>
+ *   <li>补全输出截断时未闭合的字符串、键值与括号</li>
+ * </ul>
+ * 只在解析失败后调用，正常输出不产生额外开销；各类修复的触发次数通过 {@link #stats()} 查看
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/21 15:00
+ * @since 1.0.0-SNAPSHOT
+ */
+public final class JsonRepair {
+
+    /**
+     * 各类修复的触发次数
+     */
+    private static final LongAdder[] COUNTERS = new LongAdder[Repair.values().length];
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Json Repair
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private JsonRepair() {
+    }
+
+    /**
+     * 修复 JSON 文本
+     *
+     * @param text 模型输出
+     * @return 修复后的 JSON，找不到 JSON 起始位置时原样返回
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static String repair(String text) {
+        if (text == null) {
+            return null;
+        }
+        int start = indexOfJsonStart(text);
+        if (start < 0) {
+            return text;
+        }
+        int fired = 0;
+        if (!text.substring(0, start).isBlank()) {
+            fired |= Repair.FENCE.mask();
+        }
+
+        int length = text.length();
+        StringBuilder out = new StringBuilder(length + 16);
+        // 未闭合的括号对应的结束符
+        char[] closers = new char[16];
+        int depth = 0;
+        boolean inString = false;
+        boolean escape = false;
+        // 当前字符串是否为对象的键，以及已结束但尚未出现冒号的键
+        boolean stringIsKey = false;
+        boolean pendingKey = false;
+        char lastStructural = 0;
+        int end = length;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                    if ("\"\\/bfnrtu".indexOf(c) < 0) {
+                        // 非法转义，反斜杠按字面量处理
+                        out.append('\\');
+                        fired |= Repair.ESCAPE.mask();
+                    }
+                    out.append(c);
+                } else if (c == '\\') {
+                    escape = true;
+                    out.append(c);
+                } else if (c == '"') {
+                    if (isClosingQuote(text, i + 1, stringIsKey, closers[depth - 1] == '}')) {
+                        inString = false;
+                        pendingKey = stringIsKey;
+                        out.append(c);
+                    } else {
+                        out.append("\\\"");
+                        fired |= Repair.ESCAPE.mask();
+                    }
+                } else if (c < 0x20) {
+                    appendControl(out, c);
+                    fired |= Repair.ESCAPE.mask();
+                } else {
+                    out.append(c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    stringIsKey = depth > 0 && closers[depth - 1] == '}'
+                            && (lastStructural == '{' || lastStructural == ',');
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    if (depth == closers.length) {
+                        char[] grown = new char[depth * 2];
+                        System.arraycopy(closers, 0, grown, 0, depth);
+                        closers = grown;
+                    }
+                    closers[depth++] = c == '{' ? '}' : ']';
+                    lastStructural = c;
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    if (removeTrailingComma(out)) {
+                        fired |= Repair.TRAILING_COMMA.mask();
+                    }
+                    out.append(depth > 0 ? closers[--depth] : c);
+                    lastStructural = c;
+                    pendingKey = false;
+                }
+                case ',', ':' -> {
+                    lastStructural = c;
+                    pendingKey = false;
+                    out.append(c);
+                }
+                default -> out.append(c);
+            }
+            if (depth == 0) {
+                end = i + 1;
+                break;
+            }
+        }
+
+        if (end < length && !text.substring(end).isBlank()) {
+            fired |= Repair.FENCE.mask();
+        }
+        if (depth > 0) {
+            fired |= Repair.TRUNCATED.mask();
+            if (inString) {
+                if (escape) {
+                    out.setLength(out.length() - 1);
+                }
+                out.append('"');
+                pendingKey = stringIsKey;
+            }
+            removeTrailingComma(out);
+            int last = lastNonWhitespace(out);
+            if (pendingKey) {
+                out.append(":null");
+            } else if (last >= 0 && out.charAt(last) == ':') {
+                out.append("null");
+            }
+            while (depth > 0) {
+                out.append(closers[--depth]);
+            }
+        }
+        if (fired == 0) {
+            return text.substring(start, end);
+        }
+        for (Repair repair : Repair.values()) {
+            if ((fired & repair.mask()) != 0) {
+                COUNTERS[repair.ordinal()].increment();
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * 各类修复的触发次数
+     *
+     * @return 修复类型与次数
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static Map<Repair, Long> stats() {
+        Map<Repair, Long> stats = new EnumMap<>(Repair.class);
+        for (Repair repair : Repair.values()) {
+            stats.put(repair, COUNTERS[repair.ordinal()].sum());
+        }
+        return stats;
+    }
+
+    /**
+     * 查找 JSON 起始位置
+     *
+     * @param text 文本
+     * @return 第一个 { 或 [ 的位置，不存在时返回 -1
+     */
+    private static int indexOfJsonStart(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 判断字符串中的引号是否为结束引号
+     * <p>
+     * 键的结束引号之后必须是冒号；值的结束引号之后必须是括号、文本结束或逗号，
+     * 对象中逗号之后还必须是下一个键，否则视为内容中未转义的引号
+     *
+     * @param text     文本
+     * @param from     引号之后的位置
+     * @param isKey    当前字符串是否为键
+     * @param inObject 当前是否在对象中
+     * @return 是否为结束引号
+     */
+    private static boolean isClosingQuote(String text, int from, boolean isKey, boolean inObject) {
+        int next = skipWhitespace(text, from);
+        if (next >= text.length()) {
+            return true;
+        }
+        char c = text.charAt(next);
+        if (isKey) {
+            return c == ':';
+        }
+        if (c == '}' || c == ']') {
+            return true;
+        }
+        if (c != ',') {
+            return false;
+        }
+        if (!inObject) {
+            return true;
+        }
+        int afterComma = skipWhitespace(text, next + 1);
+        return afterComma >= text.length() || text.charAt(afterComma) == '"' || text.charAt(afterComma) == '}';
+    }
+
+    /**
+     * 跳过空白字符
+     *
+     * @param text 文本
+     * @param from 起始位置
+     * @return 第一个非空白字符的位置，不存在时返回文本长度
+     */
+    private static int skipWhitespace(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * 追加转义后的控制字符
+     *
+     * @param out 输出
+     * @param c   控制字符
+     */
+    private static void appendControl(StringBuilder out, char c) {
+        switch (c) {
+            case '\n' -> out.append("\\n");
+            case '\r' -> out.append("\\r");
+            case '\t' -> out.append("\\t");
+            default -> out.append(String.format("\\u%04x", (int) c));
+        }
+    }
+
+    /**
+     * 删除输出末尾的逗号
+     *
+     * @param out 输出
+     * @return 是否删除
+     */
+    private static boolean removeTrailingComma(StringBuilder out) {
+        int last = lastNonWhitespace(out);
+        if (last >= 0 && out.charAt(last) == ',') {
+            out.setLength(last);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 最后一个非空白字符的位置
+     *
+     * @param out 输出
+     * @return 位置，不存在时返回 -1
+     */
+    private static int lastNonWhitespace(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * 修复类型
+     *
+     * @author haijun
+     * @version 1.0.0-SNAPSHOT
+     * @email "mailto:iamxiaohaijun@gmail.com"
+     * @date 2026/1/21 15:00
+     * @since 1.0.0-SNAPSHOT
+     */
+    public enum Repair {
+
+        /**
+         * 代码块标记或前后说明文字
+         */
+        FENCE,
+
+        /**
+         * 结尾多余的逗号
+         */
+        TRAILING_COMMA,
+
+        /**
+         * 字符串转义
+         */
+        ESCAPE,
+
+        /**
+         * 输出截断
+         */
+        TRUNCATED;
+
+        /**
+         * 位掩码
+         *
+         * @return mask
+         * @since 1.0.0-SNAPSHOT
+         */
+        int mask() {
+            return 1 << this.ordinal();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.hijun.agent.utils;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Markdown 解析工具类
+ * <p>
+ * 用于从智能体生成的规划文件中提取章节列表，只处理标题与列表项这类简单结构
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/17 09:40
+ * @since 1.0.0-SNAPSHOT
+ */
+public final class MarkdownUtils {
+
+    /**
+     * 顶层列表项前缀（- / * / + / 1. / 1、 / 1)），缩进的子列表项不匹配
+     */
+    private static final Pattern LIST_ITEM = Pattern.compile("^(?:[-*+]\\s+|\\d+(?:[.)]\\s+|、\\s*))(.+)$");
+
+    /**
+     * 子列表项前缀
+     */
+    private static final Pattern CHILD_MARKER = Pattern.compile("^(?:[-*+]\\s+|\\d+(?:[.)]\\s+|、\\s*))");
+
+    /**
+     * Markdown Utils
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private MarkdownUtils() {
+    }
+
+    /**
+     * 提取指定章节下的列表项
+     * <p>
+     * 章节从标题文本以 sectionTitle 开头的标题行开始，到下一个标题行结束；只提取没有缩进的顶层列表项，
+     * 紧跟其后的缩进行（子列表项或续行）合并到该项末尾，例如 "父项（子项1；子项2）"
+     *
+     * @param markdown     Markdown 文本
+     * @param sectionTitle 章节标题
+     * @return 列表项文本，章节不存在时返回空列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static List<String> sectionListItems(String markdown, String sectionTitle) {
+        List<String> items = new ArrayList<>();
+        if (StrUtil.isBlank(markdown)) {
+            return items;
+        }
+        boolean inSection = false;
+        List<String> children = new ArrayList<>();
+        for (String line : markdown.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.startsWith("#")) {
+                foldChildren(items, children);
+                inSection = trimmed.replace("#", "").trim().startsWith(sectionTitle);
+                continue;
+            }
+            if (!inSection) {
+                continue;
+            }
+            Matcher matcher = LIST_ITEM.matcher(line);
+            if (matcher.matches() && StrUtil.isNotBlank(matcher.group(1))) {
+                foldChildren(items, children);
+                items.add(matcher.group(1).trim());
+            } else if (!items.isEmpty() && Character.isWhitespace(line.charAt(0))) {
+                String child = CHILD_MARKER.matcher(trimmed).replaceFirst("").trim();
+                if (!child.isEmpty()) {
+                    children.add(child);
+                }
+            }
+        }
+        foldChildren(items, children);
+        return items;
+    }
+
+    /**
+     * 将收集到的子项合并到最后一个列表项
+     *
+     * @param items    列表项
+     * @param children 子项，合并后清空
+     */
+    private static void foldChildren(List<String> items, List<String> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+        int last = items.size() - 1;
+        items.set(last, items.get(last) + "（" + String.join("；", children) + "）");
+        children.clear();
+    }
+
+    /**
+     * 限制列表长度，超出部分合并到最后一项
+     *
+     * @param items     列表
+     * @param maxSize   最大长度，小于 1 时按 1 处理
+     * @param delimiter 合并分隔符
+     * @return 处理后的列表
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static List<String> limit(List<String> items, int maxSize, String delimiter) {
+        int max = Math.max(1, maxSize);
+        if (items.size() <= max) {
+            return items;
+        }
+        List<String> merged = new ArrayList<>(items.subList(0, max - 1));
+        merged.add(String.join(delimiter, items.subList(max - 1, items.size())));
+        return merged;
+    }
+
+    /**
+     * 将文本中的标题降级
+     *
+     * @param content 文本
+     * @param levels  降级层数
+     * @return 处理后的文本
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static String demoteHeadings(String content, int levels) {
+        String prefix = "#".repeat(levels);
+        StringBuilder builder = new StringBuilder(content.length() + 16);
+        for (String line : content.split("\n", -1)) {
+            if (line.startsWith("#")) {
+                builder.append(prefix);
+            }
+            builder.append(line).append('\n');
+        }
+        return builder.toString().stripTrailing();
+    }
+}
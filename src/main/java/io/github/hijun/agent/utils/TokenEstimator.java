@@ -0,0 +1,75 @@
+package io.github.hijun.agent.utils;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * Token 估算工具类
+ * <p>
+ * 不依赖具体模型的分词器，按 CJK 字符约 1 Token、其他字符约 4 个 1 Token 粗略估算，
+ * 用于限流、预算等只需要量级准确的场景
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @email "mailto:iamxiaohaijun@gmail.com"
+ * @date 2026/1/15 10:20
+ * @since 1.0.0-SNAPSHOT
+ */
+public final class TokenEstimator {
+
+    /**
+     * 每条消息的固定开销（角色、分隔符等）
+     */
+    private static final int MESSAGE_OVERHEAD = 4;
+
+    /**
+     * Token Estimator
+     *
+     * @since 1.0.0-SNAPSHOT
+     */
+    private TokenEstimator() {
+    }
+
+    /**
+     * 估算文本的 Token 数
+     *
+     * @param text 文本
+     * @return 预估 Token 数
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static long estimate(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return 0L;
+        }
+        long cjk = 0L;
+        long other = 0L;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '⺀' && c <= '￯') {
+                cjk++;
+            } else {
+                other++;
+            }
+        }
+        return cjk + (other + 3) / 4;
+    }
+
+    /**
+     * 估算系统提示词与消息列表的 Token 数
+     *
+     * @param systemPrompt 系统提示词
+     * @param messages     消息列表
+     * @return 预估 Token 数
+     * @since 1.0.0-SNAPSHOT
+     */
+    public static long estimate(String systemPrompt, List<Message> messages) {
+        long total = estimate(systemPrompt);
+        if (messages != null) {
+            for (Message message : messages) {
+                total += estimate(message.getText()) + MESSAGE_OVERHEAD;
+            }
+        }
+        return total;
+    }
+}
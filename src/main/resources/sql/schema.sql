@@ -1,5 +1,6 @@
 -- ============================================
 -- Easy Agent 数据库表结构
+-- 已有数据库请执行 upgrade.sql 补充新增的列
 -- ============================================
 
 -- 模型提供商配置表
@@ -15,6 +16,8 @@ CREATE TABLE IF NOT EXISTS `model_provider_config` (
     `temperature` DOUBLE COMMENT '温度参数',
     `max_tokens` INT COMMENT '最大 Token 数',
     `description` VARCHAR(500) COMMENT '描述',
+    `rpm_limit` INT COMMENT '每分钟请求数上限',
+    `tpm_limit` INT COMMENT '每分钟 Token 数上限',
     `create_time` BIGINT NOT NULL COMMENT '创建时间',
     `update_time` BIGINT NOT NULL COMMENT '更新时间',
     PRIMARY KEY (`id`),
@@ -52,3 +55,16 @@ CREATE TABLE IF NOT EXISTS `mcp_server_config` (
     UNIQUE KEY `uk_server_name` (`server_name`),
     INDEX `idx_enabled` (`enabled`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='MCP 服务器配置表';
+
+-- 会话消息表
+CREATE TABLE IF NOT EXISTS `chat_session_message` (
+    `id` BIGINT NOT NULL COMMENT '主键 ID',
+    `session_id` VARCHAR(100) NOT NULL COMMENT '会话 ID',
+    `request_id` VARCHAR(100) COMMENT '请求 ID',
+    `message_type` VARCHAR(20) NOT NULL COMMENT '消息类型',
+    `content` MEDIUMTEXT COMMENT '消息内容',
+    `create_time` BIGINT NOT NULL COMMENT '创建时间',
+    `update_time` BIGINT NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (`id`),
+    INDEX `idx_session_id` (`session_id`, `create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='会话消息表';
@@ -0,0 +1,25 @@
+-- ============================================
+-- Easy Agent 数据库升级脚本
+-- 为已有数据库补充 schema.sql 中新增的列，可重复执行
+-- ============================================
+
+-- 模型提供商配置表：限流配置
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'model_provider_config'
+                 AND COLUMN_NAME = 'rpm_limit') = 0,
+              'ALTER TABLE `model_provider_config` ADD COLUMN `rpm_limit` INT COMMENT ''每分钟请求数上限'' AFTER `description`',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE()
+                 AND TABLE_NAME = 'model_provider_config'
+                 AND COLUMN_NAME = 'tpm_limit') = 0,
+              'ALTER TABLE `model_provider_config` ADD COLUMN `tpm_limit` INT COMMENT ''每分钟 Token 数上限'' AFTER `rpm_limit`',
+              'SELECT 1');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,122 @@
+package io.github.hijun.agent.entity.po;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoopDetector 测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class LoopDetectorTest {
+
+    /**
+     * 检测窗口
+     */
+    private static final int WINDOW = 6;
+
+    /**
+     * 判定为循环的重复次数
+     */
+    private static final int MAX_REPEATS = 3;
+
+    /**
+     * 文本相似度阈值
+     */
+    private static final double SIMILARITY = 0.9;
+
+    /**
+     * 测试重复工具调用依次判定为 NONE、NUDGE、STOP
+     */
+    @Test
+    void testToolCallTransitions() {
+        LoopDetector detector = new LoopDetector();
+        List<AssistantMessage.ToolCall> calls = List.of(call("search", "{\"q\": \"天气\"}"));
+        assertEquals(LoopDetector.Verdict.NONE, record(detector, calls, null));
+        assertEquals(LoopDetector.Verdict.NONE, record(detector, calls, null));
+        assertEquals(LoopDetector.Verdict.NUDGE, record(detector, calls, null));
+        assertEquals(LoopDetector.Verdict.STOP, record(detector, calls, null));
+    }
+
+    /**
+     * 测试签名忽略调用顺序与参数中的空白
+     */
+    @Test
+    void testSignatureIgnoresOrderAndWhitespace() {
+        LoopDetector detector = new LoopDetector();
+        record(detector, List.of(call("a", "{\"x\":1}"), call("b", "{}")), null);
+        record(detector, List.of(call("b", "{ }"), call("a", "{ \"x\": 1 }")), null);
+        assertEquals(LoopDetector.Verdict.NUDGE, record(detector, List.of(call("a", "{\"x\":1}"), call("b", "{}")), null));
+    }
+
+    /**
+     * 测试参数不同的调用不算重复
+     */
+    @Test
+    void testDifferentArgumentsAreNotRepeats() {
+        LoopDetector detector = new LoopDetector();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(LoopDetector.Verdict.NONE,
+                    record(detector, List.of(call("search", "{\"page\": " + i + "}")), null));
+        }
+    }
+
+    /**
+     * 测试相似的输出文本判定为重复，短文本不参与比较
+     */
+    @Test
+    void testSimilarText() {
+        LoopDetector detector = new LoopDetector();
+        String text = "我需要先查询北京今天的天气情况，然后再整理成报告发给用户。";
+        assertEquals(LoopDetector.Verdict.NONE, record(detector, null, text));
+        assertEquals(LoopDetector.Verdict.NONE, record(detector, null, text + " "));
+        assertEquals(LoopDetector.Verdict.NUDGE, record(detector, null, " " + text));
+
+        LoopDetector shortText = new LoopDetector();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(LoopDetector.Verdict.NONE, record(shortText, null, "好的"));
+        }
+    }
+
+    /**
+     * 测试超出检测窗口的记录不再计入
+     */
+    @Test
+    void testWindow() {
+        LoopDetector detector = new LoopDetector();
+        List<AssistantMessage.ToolCall> calls = List.of(call("search", "{}"));
+        assertEquals(LoopDetector.Verdict.NONE, detector.record(calls, null, 1, 2, SIMILARITY, 1));
+        assertEquals(LoopDetector.Verdict.NUDGE, detector.record(calls, null, 1, 2, SIMILARITY, 1));
+        detector.record(List.of(call("other", "{}")), null, 1, 2, SIMILARITY, 1);
+        assertEquals(LoopDetector.Verdict.NONE, detector.record(calls, null, 1, 2, SIMILARITY, 1));
+    }
+
+    /**
+     * 使用默认参数记录一步
+     *
+     * @param detector  检测器
+     * @param toolCalls 工具调用
+     * @param text      输出文本
+     * @return 判定结果
+     */
+    private static LoopDetector.Verdict record(LoopDetector detector, List<AssistantMessage.ToolCall> toolCalls, String text) {
+        return detector.record(toolCalls, text, WINDOW, MAX_REPEATS, SIMILARITY, 1);
+    }
+
+    /**
+     * 创建工具调用
+     *
+     * @param name      工具名称
+     * @param arguments 参数
+     * @return tool call
+     */
+    private static AssistantMessage.ToolCall call(String name, String arguments) {
+        return new AssistantMessage.ToolCall(name + "-id", "function", name, arguments);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.hijun.agent.entity.po;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageLog 测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class MessageLogTest {
+
+    /**
+     * 测试快照不受后续追加与数组扩容影响
+     */
+    @Test
+    void testSnapshotIsolationAcrossGrowth() {
+        MessageLog log = new MessageLog();
+        for (int i = 0; i < 10; i++) {
+            log.append(new UserMessage("u" + i));
+        }
+        List<Message> before = log.snapshot();
+        // 超过初始容量 16，触发扩容
+        for (int i = 10; i < 40; i++) {
+            log.append(new UserMessage("u" + i));
+        }
+        assertEquals(10, before.size());
+        assertEquals("u0", before.get(0).getText());
+        assertEquals("u9", before.get(9).getText());
+        assertThrows(IndexOutOfBoundsException.class, () -> before.get(10));
+
+        List<Message> after = log.snapshot();
+        assertEquals(40, after.size());
+        assertEquals("u39", after.get(39).getText());
+        assertEquals("u39", log.last().getText());
+        assertThrows(UnsupportedOperationException.class, () -> after.add(new UserMessage("x")));
+    }
+
+    /**
+     * 测试提示词窗口只包含最近的消息
+     */
+    @Test
+    void testWindow() {
+        MessageLog log = new MessageLog(3, List.of());
+        assertTrue(log.window().isEmpty());
+        for (int i = 0; i < 5; i++) {
+            log.append(new UserMessage("u" + i));
+        }
+        List<Message> window = log.window();
+        assertEquals(3, window.size());
+        assertEquals("u2", window.get(0).getText());
+        assertEquals("u4", window.get(2).getText());
+        assertEquals(5, log.snapshot().size());
+    }
+
+    /**
+     * 测试子日志共享只读前缀，父子追加互不可见
+     */
+    @Test
+    void testForkPrefix() {
+        MessageLog parent = new MessageLog(3, List.of());
+        parent.append(new UserMessage("question"));
+        parent.append(new AssistantMessage("plan"));
+
+        MessageLog child = parent.fork(parent.snapshot());
+        assertEquals(2, child.size());
+        assertEquals(MessageType.ASSISTANT, child.lastType());
+        assertEquals("plan", child.last().getText());
+
+        child.append(new UserMessage("sub-task"));
+        child.append(new AssistantMessage("sub-result"));
+        parent.append(new AssistantMessage("parent-only"));
+
+        List<Message> childMessages = child.snapshot();
+        assertEquals(List.of("question", "plan", "sub-task", "sub-result"),
+                childMessages.stream().map(Message::getText).toList());
+        assertEquals(3, parent.size());
+        assertEquals(1, parent.count(MessageType.USER));
+        assertEquals(2, child.count(MessageType.USER));
+
+        // 窗口跨越前缀与追加部分
+        assertEquals(List.of("plan", "sub-task", "sub-result"),
+                child.window().stream().map(Message::getText).toList());
+    }
+
+    /**
+     * 测试空日志与只有前缀的日志
+     */
+    @Test
+    void testEmptyAndInheritedOnly() {
+        MessageLog empty = new MessageLog();
+        assertNull(empty.last());
+        assertNull(empty.lastType());
+        assertEquals(0, empty.size());
+
+        MessageLog inherited = new MessageLog(MessageLog.DEFAULT_WINDOW, List.of(new UserMessage("q")));
+        assertEquals(MessageType.USER, inherited.lastType());
+        assertEquals(1, inherited.count(MessageType.USER));
+    }
+
+    /**
+     * 测试大体积消息压缩保存，读取时还原
+     */
+    @Test
+    void testCompressedEntries() {
+        MessageCompressor compressor = new MessageCompressor(64, 1);
+        MessageLog log = new MessageLog(MessageLog.DEFAULT_WINDOW, List.of(), compressor);
+        String text = "重复的助手输出内容。".repeat(100);
+        log.append(new AssistantMessage(text));
+
+        assertEquals(1, compressor.stats().messages());
+        assertEquals(MessageType.ASSISTANT, log.lastType());
+        assertEquals(text, log.snapshot().get(0).getText());
+        assertEquals(text, log.last().getText());
+        assertTrue(((AssistantMessage) log.last()).getToolCalls().isEmpty());
+    }
+}
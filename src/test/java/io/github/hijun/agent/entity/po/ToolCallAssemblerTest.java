@@ -0,0 +1,104 @@
+package io.github.hijun.agent.entity.po;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ToolCallAssembler 测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class ToolCallAssemblerTest {
+
+    /**
+     * 测试分片组装，参数闭合时立即回调
+     */
+    @Test
+    void testAssembleDeltas() {
+        List<AssistantMessage.ToolCall> callbacks = new ArrayList<>();
+        ToolCallAssembler assembler = new ToolCallAssembler(callbacks::add);
+        assembler.accept(List.of(delta("call_1", "search", "{\"q\": ")));
+        assembler.accept(List.of(delta(null, null, "\"a}b\"")));
+        assertTrue(callbacks.isEmpty(), "字符串中的括号不影响闭合判断");
+        assembler.accept(List.of(delta(null, null, ", \"tags\": [\"x\"]}")));
+
+        assertEquals(1, callbacks.size());
+        AssistantMessage.ToolCall call = callbacks.get(0);
+        assertEquals("call_1", call.id());
+        assertEquals("function", call.type());
+        assertEquals("search", call.name());
+        assertEquals("{\"q\": \"a}b\", \"tags\": [\"x\"]}", call.arguments());
+        assertEquals(List.of(call), assembler.finish());
+    }
+
+    /**
+     * 测试新 id 开始时结束上一个调用
+     */
+    @Test
+    void testFlushByNewId() {
+        List<AssistantMessage.ToolCall> callbacks = new ArrayList<>();
+        ToolCallAssembler assembler = new ToolCallAssembler(callbacks::add);
+        assembler.accept(List.of(delta("call_1", "read", "")));
+        assembler.accept(List.of(delta("call_2", "write", "{\"path\":")));
+        assertEquals(1, callbacks.size());
+        assertEquals("read", callbacks.get(0).name());
+        assertEquals("{}", callbacks.get(0).arguments());
+
+        // 流结束时回调参数未闭合的调用
+        List<AssistantMessage.ToolCall> all = assembler.finish();
+        assertEquals(2, callbacks.size());
+        assertEquals(List.of("read", "write"), all.stream().map(AssistantMessage.ToolCall::name).toList());
+        assertEquals("{\"path\":", all.get(1).arguments());
+    }
+
+    /**
+     * 测试提供商合并好的完整调用按 id 去重
+     */
+    @Test
+    void testMergedCallsDeduplicated() {
+        List<AssistantMessage.ToolCall> callbacks = new ArrayList<>();
+        ToolCallAssembler assembler = new ToolCallAssembler(callbacks::add);
+        List<AssistantMessage.ToolCall> merged = List.of(delta("call_1", "a", "{}"), delta("call_2", "b", "{\"x\":1}"));
+        assembler.accept(merged);
+        assembler.accept(merged);
+
+        assertEquals(2, callbacks.size());
+        assertEquals(2, assembler.finish().size());
+    }
+
+    /**
+     * 测试缺少 id 与名称的分片
+     */
+    @Test
+    void testAnonymousAndNamelessCalls() {
+        List<AssistantMessage.ToolCall> callbacks = new ArrayList<>();
+        ToolCallAssembler assembler = new ToolCallAssembler(callbacks::add);
+        assembler.accept(List.of(delta(null, "search", "{\"q\":\"x\"}")));
+        assertTrue(callbacks.isEmpty(), "匿名调用在流结束后才回调");
+        assertEquals(1, assembler.finish().size());
+
+        ToolCallAssembler nameless = new ToolCallAssembler(callbacks::add);
+        nameless.accept(List.of(delta("call_1", null, "{}")));
+        nameless.accept(null);
+        assertTrue(nameless.finish().isEmpty(), "没有名称的调用被丢弃");
+    }
+
+    /**
+     * 创建分片
+     *
+     * @param id        调用 id
+     * @param name      名称片段
+     * @param arguments 参数片段
+     * @return tool call
+     */
+    private static AssistantMessage.ToolCall delta(String id, String name, String arguments) {
+        return new AssistantMessage.ToolCall(id, id != null ? "function" : null, name, arguments);
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.hijun.agent.service.impl;
+
+import io.github.hijun.agent.config.ApplicationProperties;
+import io.github.hijun.agent.config.SessionMemoryProperties;
+import io.github.hijun.agent.config.TranscriptProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappedTranscriptStoreImpl 测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class MappedTranscriptStoreImplTest {
+
+    /**
+     * 分段大小
+     */
+    private static final int SEGMENT_BYTES = 256;
+
+    /**
+     * 测试写入后重新打开，扫描分段恢复会话
+     */
+    @Test
+    void testReopen() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 100);
+        store.add("s1", List.of(new UserMessage("你好"), new AssistantMessage("你好，有什么可以帮你")));
+        store.add("s2", List.of(new UserMessage("第二个会话")));
+
+        MappedTranscriptStoreImpl reopened = this.open(storage, 16, 10, 100);
+        List<Message> messages = reopened.get("s1");
+        assertEquals(2, messages.size());
+        assertEquals(MessageType.USER, messages.get(0).getMessageType());
+        assertEquals("你好", messages.get(0).getText());
+        assertEquals(MessageType.ASSISTANT, messages.get(1).getMessageType());
+        assertEquals("你好，有什么可以帮你", messages.get(1).getText());
+        assertEquals("第二个会话", reopened.get("s2").get(0).getText());
+        assertEquals(2, reopened.stats().sessions());
+    }
+
+    /**
+     * 测试没有消息的新会话也会登记，之后的追加写入记录
+     */
+    @Test
+    void testRegisterEmptySession() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 100);
+        store.add("s1", List.of());
+        assertTrue(store.contains("s1"));
+        assertTrue(store.get("s1").isEmpty());
+
+        store.add("s1", List.of(new UserMessage("m1")));
+        assertEquals("m1", store.get("s1").get(0).getText());
+    }
+
+    /**
+     * 测试只保留最近的若干条消息
+     */
+    @Test
+    void testKeepLatestMessages() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 2, 100);
+        store.add("s1", List.of(new UserMessage("m1"), new AssistantMessage("m2"), new UserMessage("m3")));
+
+        assertEquals(List.of("m2", "m3"), store.get("s1").stream().map(Message::getText).toList());
+        assertEquals(List.of("m2", "m3"),
+                this.open(storage, 16, 2, 100).get("s1").stream().map(Message::getText).toList());
+    }
+
+    /**
+     * 测试清除记录在重启后仍然生效
+     */
+    @Test
+    void testClearSurvivesRestart() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 100);
+        store.add("s1", List.of(new UserMessage("m1")));
+        store.add("s2", List.of(new UserMessage("m2")));
+        store.clear("s1");
+        assertFalse(store.contains("s1"));
+
+        MappedTranscriptStoreImpl reopened = this.open(storage, 16, 10, 100);
+        assertFalse(reopened.contains("s1"));
+        assertTrue(reopened.get("s1").isEmpty());
+        assertTrue(reopened.contains("s2"));
+    }
+
+    /**
+     * 测试分段写满后切换，超出保留数时删除最早的分段，有记录落在该分段的会话整体移出
+     */
+    @Test
+    void testRollAndRetire() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 2, 10, 100);
+        store.add("old", List.of(new UserMessage("old message")));
+        for (int i = 0; i < 100 && store.stats().segments() < 2; i++) {
+            store.add("span", List.of(new UserMessage("span message " + i)));
+        }
+        assertEquals(2, store.stats().segments());
+        store.add("fresh", List.of(new UserMessage("fresh message")));
+        for (int i = 0; i < 100 && store.stats().retired() == 0; i++) {
+            store.add("tail", List.of(new UserMessage("tail message " + i)));
+        }
+
+        assertEquals(1, store.stats().retired());
+        assertEquals(2, store.stats().segments());
+        assertFalse(Files.exists(storage.resolve("transcripts").resolve("00000001.seg")));
+        assertFalse(store.contains("old"));
+        assertFalse(store.contains("span"), "部分记录已删除的会话应整体移出");
+        assertTrue(store.contains("fresh"));
+        assertEquals("fresh message", store.get("fresh").get(0).getText());
+
+        MappedTranscriptStoreImpl reopened = this.open(storage, 2, 10, 100);
+        assertFalse(reopened.contains("old"));
+        assertFalse(reopened.contains("span"));
+        assertEquals("fresh message", reopened.get("fresh").get(0).getText());
+    }
+
+    /**
+     * 测试超过会话数上限时淘汰最久未访问的会话
+     */
+    @Test
+    void testMaxSessions() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 2);
+        store.add("s1", List.of(new UserMessage("m1")));
+        store.add("s2", List.of(new UserMessage("m2")));
+        store.get("s1");
+        store.add("s3", List.of(new UserMessage("m3")));
+
+        assertTrue(store.contains("s1"));
+        assertFalse(store.contains("s2"));
+        assertTrue(store.contains("s3"));
+        assertEquals(1, store.stats().evicted());
+        assertFalse(this.open(storage, 16, 10, 2).contains("s2"));
+    }
+
+    /**
+     * 测试写了一半的尾部记录：扫描在此停止，后续写入覆盖残留
+     */
+    @Test
+    void testTruncatedTail() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 100);
+        store.add("s1", List.of(new UserMessage("m1")));
+        int tail = (int) store.stats().usedBytes();
+        Path segment = storage.resolve("transcripts").resolve("00000001.seg");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // 长度尚未写入的记录，后面是写了一半的正文
+            ByteBuffer torn = ByteBuffer.allocate(24);
+            torn.putInt(0);
+            while (torn.hasRemaining()) {
+                torn.putInt(12);
+            }
+            torn.flip();
+            channel.write(torn, tail);
+        }
+
+        MappedTranscriptStoreImpl reopened = this.open(storage, 16, 10, 100);
+        assertEquals(1, reopened.get("s1").size());
+        assertEquals(tail, reopened.stats().usedBytes());
+        reopened.add("s1", List.of(new AssistantMessage("m2")));
+
+        List<Message> messages = this.open(storage, 16, 10, 100).get("s1");
+        assertEquals(List.of("m1", "m2"), messages.stream().map(Message::getText).toList());
+    }
+
+    /**
+     * 测试长度超出分段的尾部记录与长度为 0 的分段文件
+     */
+    @Test
+    void testCorruptAndEmptySegment() throws IOException {
+        Path storage = Files.createTempDirectory("transcript");
+        MappedTranscriptStoreImpl store = this.open(storage, 16, 10, 100);
+        store.add("s1", List.of(new UserMessage("m1")));
+        Path directory = storage.resolve("transcripts");
+        try (FileChannel channel = FileChannel.open(directory.resolve("00000001.seg"), StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).putInt(SEGMENT_BYTES * 2);
+            length.flip();
+            channel.write(length, store.stats().usedBytes());
+        }
+        Files.createFile(directory.resolve("00000002.seg"));
+
+        MappedTranscriptStoreImpl reopened = this.open(storage, 16, 10, 100);
+        assertTrue(reopened.isAvailable());
+        assertEquals(2, reopened.stats().segments());
+        assertEquals(1, reopened.get("s1").size());
+        reopened.add("s2", List.of(new UserMessage("m2")));
+
+        MappedTranscriptStoreImpl again = this.open(storage, 16, 10, 100);
+        assertEquals("m1", again.get("s1").get(0).getText());
+        assertEquals("m2", again.get("s2").get(0).getText());
+    }
+
+    /**
+     * 打开存储
+     *
+     * @param storage     存储目录
+     * @param maxSegments 保留的分段数
+     * @param maxMessages 每个会话保留的消息数
+     * @param maxSessions 会话数上限
+     * @return store
+     */
+    private MappedTranscriptStoreImpl open(Path storage, int maxSegments, int maxMessages, int maxSessions) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.setStoragePath(storage.toString());
+        TranscriptProperties transcriptProperties = new TranscriptProperties();
+        transcriptProperties.setSegmentBytes(SEGMENT_BYTES);
+        transcriptProperties.setMaxSegments(maxSegments);
+        SessionMemoryProperties sessionMemoryProperties = new SessionMemoryProperties();
+        sessionMemoryProperties.setMaxMessages(maxMessages);
+        sessionMemoryProperties.setMaxSessions(maxSessions);
+        MappedTranscriptStoreImpl store = new MappedTranscriptStoreImpl(applicationProperties,
+                transcriptProperties,
+                sessionMemoryProperties);
+        store.open();
+        return store;
+    }
+}
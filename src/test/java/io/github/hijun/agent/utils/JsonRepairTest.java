@@ -0,0 +1,103 @@
+package io.github.hijun.agent.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JsonRepair 工具类测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class JsonRepairTest {
+
+    /**
+     * 测试合法 JSON 原样返回
+     */
+    @Test
+    void testValidJsonUnchanged() {
+        String json = "{\"calls\":[{\"agentId\":\"1\",\"task\":\"查询天气\"}]}";
+        assertEquals(json, JsonRepair.repair(json));
+        assertEquals("no json", JsonRepair.repair("no json"));
+        assertNull(JsonRepair.repair(null));
+    }
+
+    /**
+     * 测试去除代码块标记与说明文字
+     */
+    @Test
+    void testStripFence() {
+        String text = "下面是结果：\n```json\n{\"calls\": []}\n```\n以上";
+        assertEquals("{\"calls\": []}", JsonRepair.repair(text));
+    }
+
+    /**
+     * 测试删除结尾多余的逗号
+     */
+    @Test
+    void testTrailingComma() {
+        JsonNode node = parse("{\"calls\": [{\"task\": \"a\",}, {\"task\": \"b\"},],}");
+        assertEquals(2, node.get("calls").size());
+        assertEquals("b", node.get("calls").get(1).get("task").asText());
+    }
+
+    /**
+     * 测试转义字符串中未转义的引号与换行
+     */
+    @Test
+    void testUnescapedQuotes() {
+        JsonNode node = parse("{\"context\": \"他说\"你好\"，然后\n离开\", \"task\": \"x\"}");
+        assertEquals("他说\"你好\"，然后\n离开", node.get("context").asText());
+        assertEquals("x", node.get("task").asText());
+    }
+
+    /**
+     * 测试非法的反斜杠转义
+     */
+    @Test
+    void testInvalidEscape() {
+        JsonNode node = parse("{\"path\": \"D:\\docs\\plan.md\"}");
+        assertEquals("D:\\docs\\plan.md", node.get("path").asText());
+    }
+
+    /**
+     * 测试补全截断的输出
+     */
+    @Test
+    void testTruncated() {
+        JsonNode node = parse("{\"calls\": [{\"agentId\": \"1\", \"task\": \"查询");
+        assertEquals("查询", node.get("calls").get(0).get("task").asText());
+
+        node = parse("{\"calls\": [{\"agentId\": \"1\", \"contextRefs\": [\"R1\",");
+        assertEquals("R1", node.get("calls").get(0).get("contextRefs").get(0).asText());
+
+        node = parse("{\"calls\": [{\"agentId\": \"1\", \"task\":");
+        assertTrue(node.get("calls").get(0).get("task").isNull());
+
+        node = parse("{\"calls\": [{\"agentId\": \"1\", \"task");
+        assertTrue(node.get("calls").get(0).has("task"));
+    }
+
+    /**
+     * 测试修复次数统计
+     */
+    @Test
+    void testStats() {
+        long before = JsonRepair.stats().get(JsonRepair.Repair.TRUNCATED);
+        JsonRepair.repair("{\"a\": [1, 2");
+        assertEquals(before + 1, JsonRepair.stats().get(JsonRepair.Repair.TRUNCATED));
+    }
+
+    /**
+     * 修复并解析
+     *
+     * @param text 模型输出
+     * @return JSON 节点
+     */
+    private static JsonNode parse(String text) {
+        return JSONS.parse(JsonRepair.repair(text), JsonNode.class);
+    }
+}
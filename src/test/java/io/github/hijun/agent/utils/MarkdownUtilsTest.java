@@ -0,0 +1,88 @@
+package io.github.hijun.agent.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MarkdownUtils 工具类测试
+ *
+ * @author haijun
+ * @version 1.0.0-SNAPSHOT
+ * @since 1.0.0-SNAPSHOT
+ */
+class MarkdownUtilsTest {
+
+    /**
+     * 规划文件
+     */
+    private static final String PLAN = """
+            # 规划
+
+            ## 内容大纲
+            1. 市场概况
+               - 市场规模
+               - 增长趋势
+            2. 竞争格局
+              * 主要厂商
+            3、未来展望
+
+            ## 数据需求
+            - 近五年市场规模
+            """;
+
+    /**
+     * 测试只提取顶层列表项
+     */
+    @Test
+    void testTopLevelItemsOnly() {
+        List<String> items = MarkdownUtils.sectionListItems(PLAN, "内容大纲");
+        assertEquals(3, items.size());
+        assertTrue(items.get(0).startsWith("市场概况"));
+        assertTrue(items.get(1).startsWith("竞争格局"));
+        assertEquals("未来展望", items.get(2));
+    }
+
+    /**
+     * 测试子列表项与续行合并到父项
+     */
+    @Test
+    void testFoldChildren() {
+        List<String> items = MarkdownUtils.sectionListItems(PLAN, "内容大纲");
+        assertEquals("市场概况（市场规模；增长趋势）", items.get(0));
+        assertEquals("竞争格局（主要厂商）", items.get(1));
+
+        String plan = """
+                ## 数据需求
+                - 市场规模
+                  按地区拆分，单位亿元
+                  1. 3.5 亿以上的地区单独列出
+
+                - 用户画像
+                """;
+        assertEquals(List.of("市场规模（按地区拆分，单位亿元；3.5 亿以上的地区单独列出）", "用户画像"),
+                MarkdownUtils.sectionListItems(plan, "数据需求"));
+    }
+
+    /**
+     * 测试章节边界与 CRLF 换行
+     */
+    @Test
+    void testSectionBoundary() {
+        assertEquals(List.of("近五年市场规模"), MarkdownUtils.sectionListItems(PLAN, "数据需求"));
+        assertEquals(List.of("a", "b"), MarkdownUtils.sectionListItems("## 数据需求\r\n- a\r\n- b\r\n", "数据需求"));
+        assertTrue(MarkdownUtils.sectionListItems(PLAN, "不存在").isEmpty());
+        assertTrue(MarkdownUtils.sectionListItems(null, "数据需求").isEmpty());
+    }
+
+    /**
+     * 测试超出长度时合并到最后一项
+     */
+    @Test
+    void testLimit() {
+        assertEquals(List.of("a", "b；c"), MarkdownUtils.limit(List.of("a", "b", "c"), 2, "；"));
+        assertEquals(List.of("a", "b"), MarkdownUtils.limit(List.of("a", "b"), 5, "；"));
+    }
+}